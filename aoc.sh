@@ -1,7 +1,23 @@
-#/bin/bash
+#!/bin/bash
+
+# The maximum heap, see "--all --sweep-heap" for what each day needs.
+HEAP=${AOC_HEAP:-4096M}
+
+# Use the class-data-sharing archive if "ant cds" created one.
+if [ -f dist/AdventOfCode23.jsa ]
+then
+  CDS="-XX:SharedArchiveFile=dist/AdventOfCode23.jsa"
+fi
 
 puzzle() {
-  java -Xmx4096M -Xss1024M -cp dist/AdventOfCode23.jar day${1}.Puzzle src/day${1}/${2}
+  # "-" reads the input from stdin instead of a file.
+  if [ "$2" == "-" ]
+  then
+    FILE="-"
+  else
+    FILE="src/day${1}/${2}"
+  fi
+  java $CDS -Xmx$HEAP -cp dist/AdventOfCode23.jar day${1}.Puzzle "$FILE"
 }
 
 if [ "$1" == "" ]
@@ -10,6 +26,38 @@ then
   exit
 fi
 
+if [ "$1" == "--all" ]
+then
+  shift
+  java $CDS -Xmx$HEAP -cp dist/AdventOfCode23.jar launcher.Launcher "$@"
+  exit
+fi
+
+# The daemon keeps a warm JVM around, the client talks to it via /dev/tcp.
+PORT=${AOC_PORT:-2023}
+
+if [ "$1" == "--daemon" ]
+then
+  shift
+  exec java $CDS -Xmx$HEAP -cp dist/AdventOfCode23.jar launcher.Daemon --port $PORT "$@"
+fi
+
+if [ "$1" == "--stop" ]
+then
+  exec 3<>/dev/tcp/127.0.0.1/$PORT || exit 1
+  echo "stop" >&3
+  cat <&3
+  exit
+fi
+
+if [ "$1" == "--client" ]
+then
+  exec 3<>/dev/tcp/127.0.0.1/$PORT || exit 1
+  echo "$2 $PWD/src/day$2/${3:-input.txt}" >&3
+  cat <&3
+  exit
+fi
+
 if [ "$2" == "" ]
 then
   INPUT="input.txt"
@@ -17,12 +65,4 @@ else
   INPUT="$2"
 fi
 
-if [ "$1" == "--all" ]
-then
-  for i in $(seq -f "%02g" 1 25);
-  do
-    puzzle $i $INPUT
-  done
-else
-  puzzle "$1" $INPUT
-fi
+puzzle "$1" $INPUT
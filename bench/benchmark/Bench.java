@@ -0,0 +1,76 @@
+package benchmark;
+
+import common.Input;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Helpers shared by all benchmarks. Inputs are read into memory once per
+ * trial, so the benchmarks measure the puzzle code and not the file system.
+ */
+public class Bench {
+
+    /**
+     * Reads the given input file of the given day into a string.
+     */
+    public static String read(int day, String input) throws IOException {
+        return Files.readString(Path.of(String.format("src/day%02d/%s", day, input)));
+    }
+
+    /**
+     * Returns a fresh reader for the given (previously read) input.
+     */
+    public static BufferedReader reader(String s) {
+        return new BufferedReader(new StringReader(s));
+    }
+
+    /**
+     * Returns a fresh input for the given (previously read) input.
+     */
+    public static Input input(String s) {
+        return Input.wrap(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Sends all console output of the puzzles to nowhere, so we don't measure
+     * the terminal.
+     */
+    public static void silence() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    /**
+     * Returns the number of items (lines, bricks, ...) for the given scale,
+     * given the number in the actual input. At least one.
+     */
+    public static int count(double scale, int base) {
+        return Math.max(1, (int) Math.round(base * scale));
+    }
+
+    /**
+     * Returns the side of a square map for the given scale, given the side
+     * of the actual input, so the area grows linearly with the scale.
+     */
+    public static int side(double scale, int base) {
+        return Math.max(3, (int) Math.round(base * Math.sqrt(scale)));
+    }
+
+    /**
+     * Returns a unique name of lowercase letters and the given length for
+     * the given number.
+     */
+    public static String name(int i, int length) {
+        char[] c = new char[length];
+        for (int j = length - 1; j >= 0; j--) {
+            c[j] = (char) ('a' + i % 26);
+            i /= 26;
+        }
+        return new String(c);
+    }
+}
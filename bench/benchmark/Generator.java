@@ -0,0 +1,45 @@
+package benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Produces synthetic input of a given size for one day, so we can see how a
+ * solution scales with its input. Each day has one in its package, named
+ * InputGenerator. Scale 1 produces roughly as much input as the actual puzzle
+ * input, scale 10 ten times as much and so on. Generated input is valid for
+ * the day's solution, but the answers mean nothing.
+ */
+public interface Generator {
+
+    /**
+     * Returns input of the given scale, drawing all random choices from the
+     * given source. Throws an IllegalArgumentException if the solution can't
+     * handle input of that scale, like when it uses a map of fixed size.
+     */
+    String generate(double scale, Random random);
+
+    /**
+     * Writes input of the given scale to the given file. Generators of days
+     * meant to handle inputs beyond what a String can hold (2 GB) override
+     * this to write their input piece by piece.
+     */
+    default void write(double scale, Random random, Path file) throws IOException {
+        Files.writeString(file, generate(scale, random));
+    }
+
+    /**
+     * Returns the exponent we expect in time ~ size^exponent, so the scaling
+     * driver can flag days that got worse. Infinity for exponential ones.
+     */
+    double complexity();
+
+    /**
+     * Returns the scales to run by default.
+     */
+    default double[] scales() {
+        return new double[] { 0.25, 0.5, 1, 2, 4 };
+    }
+}
@@ -0,0 +1,242 @@
+package benchmark;
+
+import common.Solver;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Runs days on generated input of growing size and shows how the solve time
+ * grows with it: a table and a bar chart per day, plus the slope of the
+ * log-log regression line, that is, the exponent in time ~ size^exponent.
+ * Days whose slope clearly exceeds the complexity their generator expects are
+ * flagged in the summary, so complexity regressions stand out. Each point is
+ * the median of several runs, after warm-up runs. Usage:
+ *
+ *     java benchmark.Scaling [--scales 0.25,0.5,1] [--runs 3] [--seed 1] [<day>...]
+ */
+public class Scaling {
+
+    /**
+     * How much the slope may exceed the expected complexity before we flag
+     * the day, to allow for noise and warm-up effects.
+     */
+    static final double TOLERANCE = 0.5;
+
+    /**
+     * The least time in nanoseconds to spend on warm-up runs before each
+     * measurement, so small inputs aren't measured in the interpreter.
+     */
+    static final long WARMUP = 500000000;
+
+    /**
+     * The scales to run, or null for each generator's defaults.
+     */
+    double[] scales;
+
+    /**
+     * The number of measured runs per scale.
+     */
+    int runs = 3;
+
+    /**
+     * The seed for the generators, so runs are repeatable.
+     */
+    long seed = 2023;
+
+    /**
+     * The days to run.
+     */
+    ArrayList<Integer> days = new ArrayList();
+
+    /**
+     * The console, since the puzzles' output is silenced.
+     */
+    PrintStream out = System.out;
+
+    /**
+     * Represents one measurement: the median solve time in nanoseconds for
+     * input of the given scale and size in bytes, or the reason why there is
+     * none.
+     */
+    record Point(double scale, long bytes, long nanos, String error) { }
+
+    /**
+     * Represents the outcome for one day.
+     */
+    record Summary(int day, double slope, double expected) { }
+
+    /**
+     * The outcomes so far.
+     */
+    ArrayList<Summary> summaries = new ArrayList();
+
+    /**
+     * Parses the command line arguments.
+     */
+    void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--scales" -> scales = Arrays.stream(args[++i].split(",")).mapToDouble(Double::parseDouble).toArray();
+                case "--runs" -> runs = Integer.parseInt(args[++i]);
+                case "--seed" -> seed = Long.parseLong(args[++i]);
+                default -> days.add(Integer.parseInt(args[i]));
+            }
+        }
+
+        if (days.isEmpty()) {
+            for (int i = 1; i <= 25; i++) {
+                days.add(i);
+            }
+        }
+    }
+
+    /**
+     * Solves the given file once with a fresh puzzle of the given day and
+     * returns the time it took.
+     */
+    static long time(int day, String file) throws ReflectiveOperationException, IOException {
+        Solver solver = (Solver) Class.forName(String.format("day%02d.Puzzle", day)).getDeclaredConstructor().newInstance();
+
+        long t = System.nanoTime();
+        solver.solve(file, true);
+        return System.nanoTime() - t;
+    }
+
+    /**
+     * Generates input of the given scale for the given day and measures it.
+     */
+    Point measure(int day, Generator g, double scale) {
+        long bytes = 0;
+        try {
+            Path file = Files.createTempFile(String.format("day%02d-", day), ".txt");
+            try {
+                try {
+                    g.write(scale, new Random(seed), file);
+                } catch (IllegalArgumentException e) {
+                    return new Point(scale, 0, 0, e.getMessage());
+                }
+                bytes = Files.size(file);
+
+                long warmup = 0;
+                do {
+                    warmup += time(day, file.toString());
+                } while (warmup < WARMUP);
+
+                long[] t = new long[runs];
+                for (int i = 0; i < runs; i++) {
+                    t[i] = time(day, file.toString());
+                }
+
+                Arrays.sort(t);
+                return new Point(scale, bytes, t[runs / 2], null);
+            } finally {
+                Files.delete(file);
+            }
+        } catch (ReflectiveOperationException | IOException | RuntimeException | StackOverflowError e) {
+            return new Point(scale, bytes, 0, e.toString());
+        }
+    }
+
+    /**
+     * Returns the slope of the least-squares line through the logarithms of
+     * size and time of all successful points, or NaN if there are fewer than
+     * two.
+     */
+    static double slope(ArrayList<Point> points) {
+        int n = 0;
+        double sx = 0, sy = 0, sxx = 0, sxy = 0;
+
+        for (Point p: points) {
+            if (p.error == null && p.nanos > 0) {
+                double x = Math.log(p.bytes);
+                double y = Math.log(p.nanos);
+                n++;
+                sx += x;
+                sy += y;
+                sxx += x * x;
+                sxy += x * y;
+            }
+        }
+
+        if (n < 2 || n * sxx == sx * sx) {
+            return Double.NaN;
+        }
+
+        return (n * sxy - sx * sy) / (n * sxx - sx * sx);
+    }
+
+    /**
+     * Runs the given day at all scales and prints the table and chart.
+     */
+    void run(int day) throws ReflectiveOperationException {
+        Generator g = (Generator) Class.forName(String.format("day%02d.InputGenerator", day)).getDeclaredConstructor().newInstance();
+
+        out.println();
+        out.printf("*** Day %02d ***\n", day);
+        out.println();
+        out.println("   Scale        Bytes         Time");
+
+        ArrayList<Point> points = new ArrayList();
+        long max = 1;
+        for (double scale: scales != null ? scales : g.scales()) {
+            Point p = measure(day, g, scale);
+            points.add(p);
+            max = Math.max(max, p.nanos);
+        }
+
+        for (Point p: points) {
+            if (p.error != null) {
+                out.printf("%8.3f %12d    \033[41;37mfailed\033[0m: %s\n", p.scale, p.bytes, p.error);
+            } else {
+                out.printf("%8.3f %12d %10.1fms  %s\n", p.scale, p.bytes, p.nanos / 1e6, "#".repeat((int) Math.round(50.0 * p.nanos / max)));
+            }
+        }
+
+        Summary s = new Summary(day, slope(points), g.complexity());
+        summaries.add(s);
+
+        out.println();
+        out.printf("Slope %.2f, expected %.2f\n", s.slope, s.expected);
+    }
+
+    /**
+     * Prints the slopes of all days and flags the ones that scale worse than
+     * expected.
+     */
+    void report() {
+        out.println();
+        out.println("Day   Slope  Expected");
+        out.println("-".repeat(21));
+
+        for (Summary s: summaries) {
+            out.printf("%3d %7.2f %9.2f", s.day, s.slope, s.expected);
+            if (s.slope > s.expected + TOLERANCE) {
+                out.print("  \033[41;37mworse than expected\033[0m");
+            }
+            out.println();
+        }
+
+        out.println();
+    }
+
+    /**
+     * Provides the canonical entry point.
+     */
+    public static void main(String[] args) throws ReflectiveOperationException {
+        Scaling s = new Scaling();
+        s.parse(args);
+
+        Bench.silence();
+
+        for (int day: s.days) {
+            s.run(day);
+        }
+
+        s.report();
+    }
+}
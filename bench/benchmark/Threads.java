@@ -0,0 +1,263 @@
+package benchmark;
+
+import common.Solver;
+import common.Workers;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Runs days with growing numbers of worker threads (see common.Workers) and
+ * shows how they scale: a table and a bar chart of the speedup per day, plus
+ * the efficiency, that is, the speedup divided by the number of threads.
+ * Days whose speedup at the most threads stays below half the ideal are
+ * flagged in the summary. By default the days with parallel code paths run
+ * on their actual input at 1, 2, 4, ... threads up to the number of
+ * processors. As the actual inputs are small, --scale runs them on
+ * generated input of the given scale instead. Each point is the median of
+ * several runs, after warm-up runs. Usage:
+ *
+ *     java benchmark.Threads [--threads 1,2,4] [--scale 10] [--runs 3] [--seed 1] [<day>...]
+ */
+public class Threads {
+
+    /**
+     * The days with parallel code paths, run by default.
+     */
+    static final int[] PARALLEL = { 1, 7, 11, 12, 16, 24 };
+
+    /**
+     * The efficiency below which we flag the day.
+     */
+    static final double EFFICIENCY = 0.5;
+
+    /**
+     * The least time in nanoseconds to spend on warm-up runs before each
+     * measurement, so small inputs aren't measured in the interpreter.
+     */
+    static final long WARMUP = 500000000;
+
+    /**
+     * The numbers of threads to run.
+     */
+    int[] threads;
+
+    /**
+     * The scale of the generated input, or 0 to use the actual input.
+     */
+    double scale;
+
+    /**
+     * The number of measured runs per number of threads.
+     */
+    int runs = 3;
+
+    /**
+     * The seed for the generators, so runs are repeatable.
+     */
+    long seed = 2023;
+
+    /**
+     * The days to run.
+     */
+    ArrayList<Integer> days = new ArrayList();
+
+    /**
+     * The console, since the puzzles' output is silenced.
+     */
+    PrintStream out = System.out;
+
+    /**
+     * Represents one measurement: the median solve time in nanoseconds with
+     * the given number of threads, or the reason why there is none.
+     */
+    record Point(int threads, long nanos, String error) { }
+
+    /**
+     * Represents the outcome for one day: the speedup with the most threads.
+     */
+    record Summary(int day, int threads, double speedup) { }
+
+    /**
+     * The outcomes so far.
+     */
+    ArrayList<Summary> summaries = new ArrayList();
+
+    /**
+     * Parses the command line arguments.
+     */
+    void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads" -> threads = Arrays.stream(args[++i].split(",")).mapToInt(Integer::parseInt).toArray();
+                case "--scale" -> scale = Double.parseDouble(args[++i]);
+                case "--runs" -> runs = Integer.parseInt(args[++i]);
+                case "--seed" -> seed = Long.parseLong(args[++i]);
+                default -> days.add(Integer.parseInt(args[i]));
+            }
+        }
+
+        if (threads == null) {
+            int n = Runtime.getRuntime().availableProcessors();
+            ArrayList<Integer> a = new ArrayList();
+            for (int i = 1; i < n; i *= 2) {
+                a.add(i);
+            }
+            a.add(n);
+            threads = a.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        if (days.isEmpty()) {
+            for (int day: PARALLEL) {
+                days.add(day);
+            }
+        }
+    }
+
+    /**
+     * Returns the input file for the given day: the actual input, or a
+     * temporary file with generated input, which the caller deletes.
+     */
+    Path input(int day) throws ReflectiveOperationException, IOException {
+        if (scale == 0) {
+            return Path.of(String.format("src/day%02d/input.txt", day));
+        }
+
+        Generator g = (Generator) Class.forName(String.format("day%02d.InputGenerator", day)).getDeclaredConstructor().newInstance();
+        Path file = Files.createTempFile(String.format("day%02d-", day), ".txt");
+        g.write(scale, new Random(seed), file);
+        return file;
+    }
+
+    /**
+     * Solves the given file once with a fresh puzzle of the given day and
+     * returns the time it took.
+     */
+    static long time(int day, String file) throws ReflectiveOperationException, IOException {
+        Solver solver = (Solver) Class.forName(String.format("day%02d.Puzzle", day)).getDeclaredConstructor().newInstance();
+
+        long t = System.nanoTime();
+        solver.solve(file, true);
+        return System.nanoTime() - t;
+    }
+
+    /**
+     * Measures the given day on the given file with the given number of
+     * worker threads.
+     */
+    Point measure(int day, String file, int n) {
+        Workers.threads(n);
+        try {
+            long warmup = 0;
+            do {
+                warmup += time(day, file);
+            } while (warmup < WARMUP);
+
+            long[] t = new long[runs];
+            for (int i = 0; i < runs; i++) {
+                t[i] = time(day, file);
+            }
+
+            Arrays.sort(t);
+            return new Point(n, t[runs / 2], null);
+        } catch (ReflectiveOperationException | IOException | RuntimeException e) {
+            return new Point(n, 0, e.toString());
+        }
+    }
+
+    /**
+     * Runs the given day with all numbers of threads and prints the table
+     * and chart.
+     */
+    void run(int day) throws ReflectiveOperationException, IOException {
+        Path file = input(day);
+
+        out.println();
+        out.printf("*** Day %02d *** (%s, %d bytes)\n", day, scale == 0 ? "actual input" : "scale " + scale, Files.size(file));
+        out.println();
+        out.println("Threads         Time  Speedup  Efficiency");
+
+        ArrayList<Point> points = new ArrayList();
+        try {
+            // A first pass over all numbers of threads gets the code
+            // compiled, so the first point measured doesn't pay for it
+            for (int n: threads) {
+                measure(day, file.toString(), n);
+            }
+
+            for (int n: threads) {
+                points.add(measure(day, file.toString(), n));
+            }
+        } finally {
+            if (scale != 0) {
+                Files.delete(file);
+            }
+        }
+
+        Point base = points.get(0);
+        double max = 1;
+        for (Point p: points) {
+            if (p.error == null && base.error == null) {
+                max = Math.max(max, (double) base.nanos * base.threads / p.nanos);
+            }
+        }
+
+        Summary s = null;
+        for (Point p: points) {
+            if (p.error != null || base.error != null) {
+                out.printf("%7d    \033[41;37mfailed\033[0m: %s\n", p.threads, p.error != null ? p.error : base.error);
+                continue;
+            }
+
+            double speedup = (double) base.nanos * base.threads / p.nanos;
+            out.printf("%7d %10.1fms %7.2fx %10.0f%%  %s\n", p.threads, p.nanos / 1e6, speedup, 100 * speedup / p.threads,
+                    "#".repeat((int) Math.round(40 * speedup / max)));
+            s = new Summary(day, p.threads, speedup);
+        }
+
+        if (s != null) {
+            summaries.add(s);
+        }
+    }
+
+    /**
+     * Prints the speedup of all days with the most threads and flags the
+     * ones that scale poorly.
+     */
+    void report() {
+        out.println();
+        out.println("Day  Threads  Speedup  Efficiency");
+        out.println("-".repeat(33));
+
+        for (Summary s: summaries) {
+            double efficiency = s.speedup / s.threads;
+            out.printf("%3d %8d %7.2fx %10.0f%%", s.day, s.threads, s.speedup, 100 * efficiency);
+            if (s.threads > 1 && efficiency < EFFICIENCY) {
+                out.print("  \033[41;37mscales poorly\033[0m");
+            }
+            out.println();
+        }
+
+        out.println();
+    }
+
+    /**
+     * Provides the canonical entry point.
+     */
+    public static void main(String[] args) throws ReflectiveOperationException, IOException {
+        Threads t = new Threads();
+        t.parse(args);
+
+        Bench.silence();
+
+        for (int day: t.days) {
+            t.run(day);
+        }
+
+        t.report();
+    }
+}
@@ -0,0 +1,89 @@
+package day01;
+
+import benchmark.Generator;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Generates input for day 1 "Trebuchet?!": lines of random letters with
+ * digits and spelled-out digits mixed in. Each line has at least one digit.
+ * Input is written a line at a time, so scales beyond 2 GB (about 75000)
+ * work too.
+ */
+public class InputGenerator implements Generator {
+
+    /**
+     * The spelled-out digits.
+     */
+    static final String[] WORDS = { "one", "two", "three", "four", "five", "six", "seven", "eight", "nine" };
+
+    /**
+     * Appends a random line to the given builder.
+     */
+    static void line(StringBuilder b, Random random) {
+        int length = 5 + random.nextInt(45);
+        int start = b.length();
+        boolean digit = false;
+
+        while (b.length() - start < length) {
+            int r = random.nextInt(100);
+            if (r < 15) {
+                b.append((char) ('1' + random.nextInt(9)));
+                digit = true;
+            } else if (r < 25) {
+                b.append(WORDS[random.nextInt(9)]);
+            } else {
+                b.append((char) ('a' + random.nextInt(26)));
+            }
+        }
+
+        if (!digit) {
+            b.insert(start + random.nextInt(b.length() - start), (char) ('1' + random.nextInt(9)));
+        }
+
+        b.append('\n');
+    }
+
+    @Override
+    public String generate(double scale, Random random) {
+        StringBuilder b = new StringBuilder();
+
+        for (long i = lines(scale); i > 0; i--) {
+            line(b, random);
+        }
+
+        return b.toString();
+    }
+
+    @Override
+    public void write(double scale, Random random, Path file) throws IOException {
+        StringBuilder b = new StringBuilder();
+
+        try (BufferedWriter w = Files.newBufferedWriter(file)) {
+            for (long i = lines(scale); i > 0; i--) {
+                line(b, random);
+                if (b.length() > 65536) {
+                    w.append(b);
+                    b.setLength(0);
+                }
+            }
+            w.append(b);
+        }
+    }
+
+    /**
+     * Returns the number of lines for the given scale, which may exceed the
+     * int range.
+     */
+    static long lines(double scale) {
+        return Math.max(1, Math.round(1000 * scale));
+    }
+
+    @Override
+    public double complexity() {
+        return 1;
+    }
+}
@@ -0,0 +1,91 @@
+package day01;
+
+import benchmark.Bench;
+import common.Input;
+import common.Result;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for day 1 "Trebuchet?!".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PuzzleBenchmark {
+
+    /**
+     * The input file to use.
+     */
+    @Param({"example1.txt", "example2.txt", "input.txt"})
+    public String input;
+
+    /**
+     * The content of the input file.
+     */
+    String text;
+
+    /**
+     * The content of the input file as bytes.
+     */
+    ByteBuffer bytes;
+
+    /**
+     * The input file, for its line index.
+     */
+    Input in;
+
+    /**
+     * Reads the input once per trial.
+     */
+    @Setup
+    public void setup() throws IOException {
+        Bench.silence();
+        text = Bench.read(1, input);
+        bytes = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+        in = Bench.input(text);
+    }
+
+    /**
+     * Benchmarks the complete solution on the input as a single window.
+     */
+    @Benchmark
+    public Result solve() throws IOException {
+        Puzzle p = new Puzzle();
+        p.quiet = true;
+        return p.solve(new ByteBuffer[] { bytes });
+    }
+
+    /**
+     * Benchmarks the complete solution reading line by line, as from
+     * standard input.
+     */
+    @Benchmark
+    public Result solveReader() throws IOException {
+        Puzzle p = new Puzzle();
+        p.quiet = true;
+        return p.solve(Bench.reader(text));
+    }
+
+    /**
+     * Benchmarks the part 2 number extraction on all lines.
+     */
+    @Benchmark
+    public int number() {
+        int sum = 0;
+        for (int i = 0; i < in.lines(); i++) {
+            sum += Puzzle.PART_2.number(bytes, in.start(i), in.end(i));
+        }
+        return sum;
+    }
+}
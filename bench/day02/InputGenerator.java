@@ -0,0 +1,44 @@
+package day02;
+
+import benchmark.Bench;
+import benchmark.Generator;
+import java.util.Random;
+
+/**
+ * Generates input for day 2 "Cube Conundrum": games with a few random draws
+ * of red, green and blue cubes each.
+ */
+public class InputGenerator implements Generator {
+
+    /**
+     * The colors of the cubes.
+     */
+    static final String[] COLORS = { "red", "green", "blue" };
+
+    @Override
+    public String generate(double scale, Random random) {
+        StringBuilder b = new StringBuilder();
+        int games = Bench.count(scale, 100);
+
+        for (int i = 1; i <= games; i++) {
+            b.append("Game ").append(i).append(": ");
+
+            for (int j = 1 + random.nextInt(6); j > 0; j--) {
+                int first = random.nextInt(3);
+                int colors = 1 + random.nextInt(3);
+                for (int k = 0; k < colors; k++) {
+                    b.append(1 + random.nextInt(20)).append(' ').append(COLORS[(first + k) % 3]);
+                    b.append(k < colors - 1 ? ", " : "");
+                }
+                b.append(j > 1 ? "; " : "\n");
+            }
+        }
+
+        return b.toString();
+    }
+
+    @Override
+    public double complexity() {
+        return 1;
+    }
+}
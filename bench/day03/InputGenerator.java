@@ -0,0 +1,53 @@
+package day03;
+
+import benchmark.Bench;
+import benchmark.Generator;
+import java.util.Random;
+
+/**
+ * Generates input for day 3 "Gear Ratios": a square schematic with random
+ * part numbers of up to three digits and symbols scattered in between.
+ */
+public class InputGenerator implements Generator {
+
+    /**
+     * The symbols that mark parts.
+     */
+    static final String SYMBOLS = "*#+$/@%=&-";
+
+    @Override
+    public String generate(double scale, Random random) {
+        int size = Bench.side(scale, 140);
+        StringBuilder b = new StringBuilder();
+
+        for (int i = 0; i < size; i++) {
+            int j = 0;
+            while (j < size) {
+                int r = random.nextInt(100);
+                if (r < 10 && j + 3 < size) {
+                    int digits = 1 + random.nextInt(3);
+                    b.append((char) ('1' + random.nextInt(9)));
+                    for (int k = 1; k < digits; k++) {
+                        b.append((char) ('0' + random.nextInt(10)));
+                    }
+                    b.append('.');
+                    j += digits + 1;
+                } else if (r < 14) {
+                    b.append(SYMBOLS.charAt(random.nextInt(SYMBOLS.length())));
+                    j++;
+                } else {
+                    b.append('.');
+                    j++;
+                }
+            }
+            b.append('\n');
+        }
+
+        return b.toString();
+    }
+
+    @Override
+    public double complexity() {
+        return 1;
+    }
+}
@@ -0,0 +1,53 @@
+package day04;
+
+import benchmark.Bench;
+import benchmark.Generator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates input for day 4 "Scratchcards": cards with 10 winning numbers
+ * and 25 numbers we have. Most cards win nothing, so that on average a card
+ * wins less than one copy and the number of copies stays finite no matter
+ * how many cards there are.
+ */
+public class InputGenerator implements Generator {
+
+    @Override
+    public String generate(double scale, Random random) {
+        StringBuilder b = new StringBuilder();
+        int cards = Bench.count(scale, 187);
+
+        for (int i = 1; i <= cards; i++) {
+            ArrayList<Integer> numbers = new ArrayList();
+            for (int j = 1; j < 100; j++) {
+                numbers.add(j);
+            }
+            Collections.shuffle(numbers, random);
+
+            int matches = random.nextInt(100) < 85 ? 0 : 1 + random.nextInt(10);
+            List<Integer> mine = new ArrayList(numbers.subList(0, matches));
+            mine.addAll(numbers.subList(10, 35 - matches));
+            Collections.shuffle(mine, random);
+
+            b.append(String.format("Card %3d:", i));
+            for (int n: numbers.subList(0, 10)) {
+                b.append(String.format(" %2d", n));
+            }
+            b.append(" |");
+            for (int n: mine) {
+                b.append(String.format(" %2d", n));
+            }
+            b.append('\n');
+        }
+
+        return b.toString();
+    }
+
+    @Override
+    public double complexity() {
+        return 1;
+    }
+}
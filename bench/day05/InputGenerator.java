@@ -0,0 +1,74 @@
+package day05;
+
+import benchmark.Bench;
+import benchmark.Generator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.TreeSet;
+import java.util.Random;
+
+/**
+ * Generates input for day 5 "If You Give A Seed A Fertilizer": seed ranges
+ * and seven maps. Each map cuts the 32-bit numbers into random pieces and
+ * shuffles them, like the actual input does.
+ */
+public class InputGenerator implements Generator {
+
+    /**
+     * The names of the maps.
+     */
+    static final String[] MAPS = {
+        "seed-to-soil", "soil-to-fertilizer", "fertilizer-to-water", "water-to-light",
+        "light-to-temperature", "temperature-to-humidity", "humidity-to-location"
+    };
+
+    /**
+     * The end of the numbers covered by the maps.
+     */
+    static final long LIMIT = 1L << 32;
+
+    @Override
+    public String generate(double scale, Random random) {
+        StringBuilder b = new StringBuilder("seeds:");
+
+        for (int i = Bench.count(scale, 10); i > 0; i--) {
+            long start = random.nextLong(LIMIT);
+            b.append(' ').append(start).append(' ').append(1 + random.nextLong(Math.min(300000000, LIMIT - start)));
+        }
+        b.append('\n');
+
+        int pieces = Bench.count(scale, 30);
+        for (String name: MAPS) {
+            TreeSet<Long> cuts = new TreeSet();
+            cuts.add(0L);
+            cuts.add(LIMIT);
+            while (cuts.size() < pieces + 1) {
+                cuts.add(random.nextLong(LIMIT));
+            }
+
+            ArrayList<long[]> sources = new ArrayList();
+            long previous = 0;
+            for (long cut: cuts.tailSet(0L, false)) {
+                sources.add(new long[] { previous, cut - previous });
+                previous = cut;
+            }
+
+            ArrayList<long[]> destinations = new ArrayList(sources);
+            Collections.shuffle(destinations, random);
+
+            b.append('\n').append(name).append(" map:\n");
+            long destination = 0;
+            for (long[] d: destinations) {
+                b.append(destination).append(' ').append(d[0]).append(' ').append(d[1]).append('\n');
+                destination += d[1];
+            }
+        }
+
+        return b.toString();
+    }
+
+    @Override
+    public double complexity() {
+        return 2;
+    }
+}
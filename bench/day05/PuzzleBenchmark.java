@@ -0,0 +1,53 @@
+package day05;
+
+import benchmark.Bench;
+import common.Result;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for day 5 "If You Give A Seed A Fertilizer".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PuzzleBenchmark {
+
+    /**
+     * The input file to use.
+     */
+    @Param({"example.txt", "input.txt"})
+    public String input;
+
+    /**
+     * The content of the input file.
+     */
+    String text;
+
+    /**
+     * Reads the input once per trial.
+     */
+    @Setup
+    public void setup() throws IOException {
+        Bench.silence();
+        text = Bench.read(5, input);
+    }
+
+    /**
+     * Benchmarks the complete solution, including parsing.
+     */
+    @Benchmark
+    public Result solve() throws IOException {
+        Puzzle p = new Puzzle();
+        p.quiet = true;
+        return p.solve(Bench.reader(text));
+    }
+}
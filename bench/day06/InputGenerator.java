@@ -0,0 +1,39 @@
+package day06;
+
+import benchmark.Bench;
+import benchmark.Generator;
+import java.util.Random;
+
+/**
+ * Generates input for day 6 "Wait For It": four races. Part 2 glues the
+ * numbers of all races together, so there can be neither more races nor
+ * larger numbers, and the input is the same at every scale. The solution is
+ * a closed formula anyway.
+ */
+public class InputGenerator implements Generator {
+
+    @Override
+    public String generate(double scale, Random random) {
+        StringBuilder times = new StringBuilder("Time:    ");
+        StringBuilder distances = new StringBuilder("Distance:");
+
+        for (int i = 0; i < 4; i++) {
+            int time = 40 + random.nextInt(60);
+            int distance = time * time / 8 + random.nextInt(time * time / 8);
+            times.append(String.format(" %6d", time));
+            distances.append(String.format(" %6d", distance));
+        }
+
+        return times + "\n" + distances + "\n";
+    }
+
+    @Override
+    public double complexity() {
+        return 0;
+    }
+
+    @Override
+    public double[] scales() {
+        return new double[] { 1, 2 };
+    }
+}
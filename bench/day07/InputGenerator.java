@@ -0,0 +1,35 @@
+package day07;
+
+import benchmark.Bench;
+import benchmark.Generator;
+import java.util.Random;
+
+/**
+ * Generates input for day 7 "Camel Cards": random hands with random bids.
+ */
+public class InputGenerator implements Generator {
+
+    /**
+     * The cards.
+     */
+    static final String CARDS = "23456789TJQKA";
+
+    @Override
+    public String generate(double scale, Random random) {
+        StringBuilder b = new StringBuilder();
+
+        for (int i = Bench.count(scale, 1000); i > 0; i--) {
+            for (int j = 0; j < 5; j++) {
+                b.append(CARDS.charAt(random.nextInt(CARDS.length())));
+            }
+            b.append(' ').append(1 + random.nextInt(1000)).append('\n');
+        }
+
+        return b.toString();
+    }
+
+    @Override
+    public double complexity() {
+        return 1;
+    }
+}
@@ -0,0 +1,62 @@
+package day07;
+
+import benchmark.Bench;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for day 7 "Camel Cards".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PuzzleBenchmark {
+
+    /**
+     * The input file to use.
+     */
+    @Param({"example.txt", "input.txt"})
+    public String input;
+
+    /**
+     * The content of the input file.
+     */
+    String text;
+
+    /**
+     * Reads the input once per trial.
+     */
+    @Setup
+    public void setup() throws IOException {
+        Bench.silence();
+        text = Bench.read(7, input);
+    }
+
+    /**
+     * Benchmarks part 1.
+     */
+    @Benchmark
+    public long part1() throws IOException {
+        Puzzle1 p = new Puzzle1();
+        p.quiet = true;
+        return p.solve(Bench.input(text));
+    }
+
+    /**
+     * Benchmarks part 2.
+     */
+    @Benchmark
+    public long part2() throws IOException {
+        Puzzle2 p = new Puzzle2();
+        p.quiet = true;
+        return p.solve(Bench.input(text));
+    }
+}
@@ -0,0 +1,82 @@
+package day08;
+
+import benchmark.Bench;
+import benchmark.Generator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+
+/**
+ * Generates input for day 8 "Haunted Wasteland": six disjoint paths of equal
+ * length from a start node (AAA and five more ending in A) to an end node
+ * (ZZZ and five more ending in Z). Both branches of a node lead to the same
+ * next node, so the instructions don't matter and every ghost is sure to
+ * arrive. Node names are three letters or digits, which limits the size.
+ */
+public class InputGenerator implements Generator {
+
+    /**
+     * The characters of node names.
+     */
+    static final String CHARS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+    /**
+     * The number of ghosts, that is, of paths.
+     */
+    static final int GHOSTS = 6;
+
+    @Override
+    public String generate(double scale, Random random) {
+        ArrayList<String> names = new ArrayList();
+        for (char a: CHARS.toCharArray()) {
+            for (char b: CHARS.toCharArray()) {
+                for (char c: CHARS.toCharArray()) {
+                    if (c != 'A' && c != 'Z') {
+                        names.add("" + a + b + c);
+                    }
+                }
+            }
+        }
+
+        int length = Bench.count(scale, 770) / GHOSTS;
+        if (length * GHOSTS > names.size()) {
+            throw new IllegalArgumentException("Node names allow at most " + names.size() + " nodes");
+        }
+        Collections.shuffle(names, random);
+
+        StringBuilder b = new StringBuilder();
+        for (int i = 0; i < 281; i++) {
+            b.append(random.nextBoolean() ? 'L' : 'R');
+        }
+        b.append("\n\n");
+
+        ArrayList<String> lines = new ArrayList();
+        int next = 0;
+        for (int i = 0; i < GHOSTS; i++) {
+            String start = i == 0 ? "AAA" : String.format("%02dA", i);
+            String end = i == 0 ? "ZZZ" : String.format("%02dZ", i);
+
+            String first = names.get(next);
+            String node = start;
+            for (int j = 0; j < length; j++) {
+                String to = names.get(next++);
+                lines.add(node + " = (" + to + ", " + to + ")");
+                node = to;
+            }
+            lines.add(node + " = (" + end + ", " + end + ")");
+            lines.add(end + " = (" + first + ", " + first + ")");
+        }
+
+        Collections.shuffle(lines, random);
+        for (String s: lines) {
+            b.append(s).append('\n');
+        }
+
+        return b.toString();
+    }
+
+    @Override
+    public double complexity() {
+        return 1;
+    }
+}
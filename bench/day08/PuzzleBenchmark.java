@@ -0,0 +1,75 @@
+package day08;
+
+import benchmark.Bench;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for day 8 "Haunted Wasteland".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PuzzleBenchmark {
+
+    /**
+     * The input file to use.
+     */
+    @Param({"example1.txt", "example2.txt", "input.txt"})
+    public String input;
+
+    /**
+     * The content of the input file.
+     */
+    String text;
+
+    /**
+     * The puzzle with the network loaded.
+     */
+    Puzzle puzzle;
+
+    /**
+     * Reads the input once per trial.
+     */
+    @Setup
+    public void setup() throws IOException {
+        Bench.silence();
+        text = Bench.read(8, input);
+        puzzle = load();
+    }
+
+    /**
+     * Benchmarks loading the network.
+     */
+    @Benchmark
+    public Puzzle load() throws IOException {
+        Puzzle p = new Puzzle();
+        p.quiet = true;
+        p.load(Bench.reader(text));
+        return p;
+    }
+
+    /**
+     * Benchmarks part 1 on the loaded network.
+     */
+    @Benchmark
+    public long part1() {
+        return puzzle.part1();
+    }
+
+    /**
+     * Benchmarks part 2 on the loaded network.
+     */
+    @Benchmark
+    public long part2() throws IOException {
+        return puzzle.part2();
+    }
+}
@@ -0,0 +1,43 @@
+package day09;
+
+import benchmark.Bench;
+import benchmark.Generator;
+import java.util.Random;
+
+/**
+ * Generates input for day 9 "Mirage Maintenance": sequences of 21 values of
+ * random polynomials. The polynomials are sums of binomial coefficients with
+ * small factors, so all values and differences fit into an int.
+ */
+public class InputGenerator implements Generator {
+
+    @Override
+    public String generate(double scale, Random random) {
+        StringBuilder b = new StringBuilder();
+
+        for (int i = Bench.count(scale, 200); i > 0; i--) {
+            int degree = random.nextInt(11);
+            long[] factors = new long[degree + 1];
+            for (int k = 0; k <= degree; k++) {
+                factors[k] = random.nextInt(14) - 4;
+            }
+
+            for (int x = 0; x <= 20; x++) {
+                long value = 0;
+                long binomial = 1;
+                for (int k = 0; k <= degree; k++) {
+                    value += factors[k] * binomial;
+                    binomial = binomial * (x - k) / (k + 1);
+                }
+                b.append(value).append(x < 20 ? ' ' : '\n');
+            }
+        }
+
+        return b.toString();
+    }
+
+    @Override
+    public double complexity() {
+        return 1;
+    }
+}
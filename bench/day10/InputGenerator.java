@@ -0,0 +1,103 @@
+package day10;
+
+import benchmark.Bench;
+import benchmark.Generator;
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Generates input for day 10 "Pipe Maze": a square of random pipes with one
+ * loop through S in the top left corner. The loop runs along the left,
+ * bottom and right edges and meanders through the top part, with teeth of
+ * random depth, so it encloses an irregular area.
+ */
+public class InputGenerator implements Generator {
+
+    /**
+     * The pipes (and ground) to fill the map with outside the loop.
+     */
+    static final String JUNK = "|-7FJL...";
+
+    /**
+     * Appends the cells of a straight line from the last cell of the given
+     * path to the given cell.
+     */
+    static void line(ArrayList<int[]> path, int row, int column) {
+        int[] last = path.get(path.size() - 1);
+        int dr = Integer.signum(row - last[0]);
+        int dc = Integer.signum(column - last[1]);
+
+        for (int r = last[0] + dr, c = last[1] + dc; r != row + dr || c != column + dc; r += dr, c += dc) {
+            path.add(new int[] { r, c });
+        }
+    }
+
+    /**
+     * Returns the pipe that connects the two given neighbours of the given
+     * cell.
+     */
+    static char pipe(int[] cell, int[] a, int[] b) {
+        boolean north = a[0] < cell[0] || b[0] < cell[0];
+        boolean south = a[0] > cell[0] || b[0] > cell[0];
+        boolean west = a[1] < cell[1] || b[1] < cell[1];
+        boolean east = a[1] > cell[1] || b[1] > cell[1];
+
+        if (north && south) {
+            return '|';
+        } else if (west && east) {
+            return '-';
+        } else if (north) {
+            return east ? 'L' : 'J';
+        } else {
+            return east ? 'F' : '7';
+        }
+    }
+
+    @Override
+    public String generate(double scale, Random random) {
+        int size = Math.max(6, Bench.side(scale, 140) & ~1);
+
+        char[][] map = new char[size][size];
+        for (char[] row: map) {
+            for (int j = 0; j < size; j++) {
+                row[j] = JUNK.charAt(random.nextInt(JUNK.length()));
+            }
+        }
+
+        ArrayList<int[]> path = new ArrayList();
+        path.add(new int[] { 1, 1 });
+        for (int c = 2; c <= size - 4; c += 2) {
+            int depth = 2 + random.nextInt(size - 5);
+            line(path, 1, c);
+            line(path, depth, c);
+            line(path, depth, c + 1);
+            line(path, 1, c + 1);
+        }
+        line(path, 1, size - 2);
+        line(path, size - 2, size - 2);
+        line(path, size - 2, 1);
+        line(path, 1, 1);
+        path.remove(path.size() - 1);
+
+        int n = path.size();
+        for (int i = 1; i < n; i++) {
+            int[] cell = path.get(i);
+            map[cell[0]][cell[1]] = pipe(cell, path.get(i - 1), path.get((i + 1) % n));
+        }
+        map[1][1] = 'S';
+        map[0][1] = '.';
+        map[1][0] = '.';
+
+        StringBuilder b = new StringBuilder();
+        for (char[] row: map) {
+            b.append(row).append('\n');
+        }
+
+        return b.toString();
+    }
+
+    @Override
+    public double complexity() {
+        return 1;
+    }
+}
@@ -0,0 +1,39 @@
+package day11;
+
+import benchmark.Bench;
+import benchmark.Generator;
+import java.util.Random;
+
+/**
+ * Generates input for day 11 "Cosmic Expansion": a square universe with
+ * randomly placed galaxies and a few empty rows and columns that expand.
+ */
+public class InputGenerator implements Generator {
+
+    @Override
+    public String generate(double scale, Random random) {
+        int size = Bench.side(scale, 140);
+
+        boolean[] emptyRows = new boolean[size];
+        boolean[] emptyColumns = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            emptyRows[i] = random.nextInt(100) < 5;
+            emptyColumns[i] = random.nextInt(100) < 5;
+        }
+
+        StringBuilder b = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                b.append(!emptyRows[i] && !emptyColumns[j] && random.nextInt(100) < 2 ? '#' : '.');
+            }
+            b.append('\n');
+        }
+
+        return b.toString();
+    }
+
+    @Override
+    public double complexity() {
+        return 2;
+    }
+}
@@ -0,0 +1,53 @@
+package day12;
+
+import benchmark.Bench;
+import benchmark.Generator;
+import java.util.Random;
+
+/**
+ * Generates input for day 12 "Hot Springs": rows of springs with their
+ * damaged groups. Each row is derived from a random arrangement with about
+ * half of the springs turned into unknowns, so there is at least one
+ * solution.
+ */
+public class InputGenerator implements Generator {
+
+    @Override
+    public String generate(double scale, Random random) {
+        StringBuilder b = new StringBuilder();
+
+        for (int i = Bench.count(scale, 1000); i > 0; i--) {
+            char[] springs = new char[6 + random.nextInt(15)];
+            for (int j = 0; j < springs.length; j++) {
+                springs[j] = random.nextBoolean() ? '#' : '.';
+            }
+            springs[random.nextInt(springs.length)] = '#';
+
+            StringBuilder groups = new StringBuilder();
+            int run = 0;
+            for (int j = 0; j <= springs.length; j++) {
+                if (j < springs.length && springs[j] == '#') {
+                    run++;
+                } else if (run > 0) {
+                    groups.append(groups.isEmpty() ? "" : ",").append(run);
+                    run = 0;
+                }
+            }
+
+            for (int j = 0; j < springs.length; j++) {
+                if (random.nextBoolean()) {
+                    springs[j] = '?';
+                }
+            }
+
+            b.append(springs).append(' ').append(groups).append('\n');
+        }
+
+        return b.toString();
+    }
+
+    @Override
+    public double complexity() {
+        return 1;
+    }
+}
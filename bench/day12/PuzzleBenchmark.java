@@ -0,0 +1,96 @@
+package day12;
+
+import benchmark.Bench;
+import common.Result;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for day 12 "Hot Springs".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PuzzleBenchmark {
+
+    /**
+     * The input file to use.
+     */
+    @Param({"example.txt", "input.txt"})
+    public String input;
+
+    /**
+     * The content of the input file.
+     */
+    String text;
+
+    /**
+     * The unfolded left sides of all lines.
+     */
+    String[] lefts;
+
+    /**
+     * The unfolded right sides of all lines, translated to hash signs.
+     */
+    String[] rights;
+
+    /**
+     * Reads the input once per trial.
+     */
+    @Setup
+    public void setup() throws IOException {
+        Bench.silence();
+        text = Bench.read(12, input);
+        String[] lines = text.split("\n");
+        lefts = new String[lines.length];
+        rights = new String[lines.length];
+
+        for (int i = 0; i < lines.length; i++) {
+            String[] a = lines[i].split(" ");
+
+            String right = "";
+            for (String t: a[1].split(",")) {
+                if (right.length() != 0) {
+                    right = right + ',';
+                }
+                right = right + "#".repeat(Integer.parseInt(t));
+            }
+
+            lefts[i] = a[0] + ("?" + a[0]).repeat(4) + "$";
+            rights[i] = right + ("," + right).repeat(4) + "$";
+        }
+    }
+
+    /**
+     * Benchmarks the complete solution, including parsing.
+     */
+    @Benchmark
+    public Result solve() throws IOException {
+        Puzzle p = new Puzzle();
+        p.quiet = true;
+        return p.solve(Bench.input(text));
+    }
+
+    /**
+     * Benchmarks the recursive solver on all unfolded (part 2) lines, with
+     * an empty cache for each line, like the puzzle does.
+     */
+    @Benchmark
+    public long arrangements() {
+        Puzzle p = new Puzzle();
+        long sum = 0;
+        for (int i = 0; i < lefts.length; i++) {
+            sum += p.solve(lefts[i], rights[i], false);
+            p.seen.clear();
+        }
+        return sum;
+    }
+}
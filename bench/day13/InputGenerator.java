@@ -0,0 +1,55 @@
+package day13;
+
+import benchmark.Bench;
+import benchmark.Generator;
+import java.util.Random;
+
+/**
+ * Generates input for day 13 "Point of Incidence": patterns with a perfect
+ * reflection between random rows or columns, which is then broken by a
+ * smudge. So part 2 is sure to find a reflection once it fixes the smudge,
+ * and part 1 finds whatever other reflection there happens to be, if any.
+ */
+public class InputGenerator implements Generator {
+
+    @Override
+    public String generate(double scale, Random random) {
+        StringBuilder b = new StringBuilder();
+
+        for (int i = Bench.count(scale, 100); i > 0; i--) {
+            boolean vertical = random.nextBoolean();
+            int rows = 5 + random.nextInt(13);
+            int columns = 5 + random.nextInt(13);
+
+            char[][] pattern = new char[rows][columns];
+            int line = 1 + random.nextInt(rows - 1);
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < columns; c++) {
+                    int mirror = 2 * line - 1 - r;
+                    pattern[r][c] = r >= line && mirror >= 0 ? pattern[mirror][c] : random.nextBoolean() ? '#' : '.';
+                }
+            }
+
+            int reach = Math.min(line, rows - line);
+            int r = line - 1 - random.nextInt(reach);
+            int c = random.nextInt(columns);
+            pattern[r][c] = pattern[r][c] == '#' ? '.' : '#';
+
+            // Transpose vertical patterns, so they reflect between columns.
+            for (int j = 0; j < (vertical ? columns : rows); j++) {
+                for (int k = 0; k < (vertical ? rows : columns); k++) {
+                    b.append(vertical ? pattern[k][j] : pattern[j][k]);
+                }
+                b.append('\n');
+            }
+            b.append(i > 1 ? "\n" : "");
+        }
+
+        return b.toString();
+    }
+
+    @Override
+    public double complexity() {
+        return 1;
+    }
+}
@@ -0,0 +1,33 @@
+package day14;
+
+import benchmark.Bench;
+import benchmark.Generator;
+import java.util.Random;
+
+/**
+ * Generates input for day 14 "Parabolic Reflector Dish": a square platform
+ * with random round and cube-shaped rocks.
+ */
+public class InputGenerator implements Generator {
+
+    @Override
+    public String generate(double scale, Random random) {
+        int size = Bench.side(scale, 100);
+        StringBuilder b = new StringBuilder();
+
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                int r = random.nextInt(100);
+                b.append(r < 18 ? 'O' : r < 28 ? '#' : '.');
+            }
+            b.append('\n');
+        }
+
+        return b.toString();
+    }
+
+    @Override
+    public double complexity() {
+        return 1.5;
+    }
+}
@@ -0,0 +1,45 @@
+package day15;
+
+import benchmark.Bench;
+import benchmark.Generator;
+import java.util.Random;
+
+/**
+ * Generates input for day 15 "Lens Library": a single line of steps that
+ * insert and remove lenses with random labels, drawn from a pool that grows
+ * with the scale.
+ */
+public class InputGenerator implements Generator {
+
+    @Override
+    public String generate(double scale, Random random) {
+        int steps = Bench.count(scale, 4000);
+
+        String[] labels = new String[Math.max(10, steps / 8)];
+        for (int i = 0; i < labels.length; i++) {
+            char[] c = new char[2 + random.nextInt(5)];
+            for (int j = 0; j < c.length; j++) {
+                c[j] = (char) ('a' + random.nextInt(26));
+            }
+            labels[i] = new String(c);
+        }
+
+        StringBuilder b = new StringBuilder();
+        for (int i = 0; i < steps; i++) {
+            b.append(i > 0 ? "," : "").append(labels[random.nextInt(labels.length)]);
+            if (random.nextInt(10) < 3) {
+                b.append('-');
+            } else {
+                b.append('=').append(1 + random.nextInt(9));
+            }
+        }
+        b.append('\n');
+
+        return b.toString();
+    }
+
+    @Override
+    public double complexity() {
+        return 1;
+    }
+}
@@ -0,0 +1,37 @@
+package day16;
+
+import benchmark.Bench;
+import benchmark.Generator;
+import java.util.Random;
+
+/**
+ * Generates input for day 16 "The Floor Will Be Lava": a square contraption
+ * with randomly placed mirrors and splitters.
+ */
+public class InputGenerator implements Generator {
+
+    /**
+     * The mirrors and splitters.
+     */
+    static final String DEVICES = "/\\|-";
+
+    @Override
+    public String generate(double scale, Random random) {
+        int size = Bench.side(scale, 110);
+        StringBuilder b = new StringBuilder();
+
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                b.append(random.nextInt(10) == 0 ? DEVICES.charAt(random.nextInt(DEVICES.length())) : '.');
+            }
+            b.append('\n');
+        }
+
+        return b.toString();
+    }
+
+    @Override
+    public double complexity() {
+        return 2;
+    }
+}
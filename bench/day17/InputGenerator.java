@@ -0,0 +1,38 @@
+package day17;
+
+import benchmark.Bench;
+import benchmark.Generator;
+import java.util.Random;
+
+/**
+ * Generates input for day 17 "Clumsy Crucible": a square map of random heat
+ * losses. The solution takes minutes for the actual input, so the default
+ * scales are small.
+ */
+public class InputGenerator implements Generator {
+
+    @Override
+    public String generate(double scale, Random random) {
+        int size = Bench.side(scale, 141);
+        StringBuilder b = new StringBuilder();
+
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                b.append((char) ('1' + random.nextInt(9)));
+            }
+            b.append('\n');
+        }
+
+        return b.toString();
+    }
+
+    @Override
+    public double complexity() {
+        return 1.5;
+    }
+
+    @Override
+    public double[] scales() {
+        return new double[] { 0.005, 0.01, 0.02, 0.04 };
+    }
+}
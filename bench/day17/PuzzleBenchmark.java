@@ -0,0 +1,74 @@
+package day17;
+
+import benchmark.Bench;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for day 17 "Clumsy Crucible".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PuzzleBenchmark {
+
+    /**
+     * The input file to use.
+     */
+    @Param({"example.txt", "input.txt"})
+    public String input;
+
+    /**
+     * The content of the input file.
+     */
+    String text;
+
+    /**
+     * The part of the puzzle, which determines the trace rules.
+     */
+    @Param({"1", "2"})
+    public int part;
+
+    /**
+     * The puzzle with the map loaded.
+     */
+    Puzzle puzzle;
+
+    /**
+     * Reads the input once per trial.
+     */
+    @Setup
+    public void setup() throws IOException {
+        Bench.silence();
+        text = Bench.read(17, input);
+    }
+
+    /**
+     * Prepares a freshly loaded puzzle for each invocation, since think()
+     * consumes its state.
+     */
+    @Setup(Level.Invocation)
+    public void prepare() throws IOException {
+        puzzle = part == 1 ? new Puzzle(Puzzle.PART_1, 3) : new Puzzle(Puzzle.PART_2, 10);
+        puzzle.quiet = true;
+        puzzle.load(Bench.input(text));
+        puzzle.best[0][0].put("", 0);
+    }
+
+    /**
+     * Benchmarks the iterative relaxation.
+     */
+    @Benchmark
+    public void think() {
+        puzzle.think();
+    }
+}
@@ -0,0 +1,68 @@
+package day18;
+
+import benchmark.Bench;
+import benchmark.Generator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates input for day 18 "Lavaduct Lagoon": a closed dig plan shaped
+ * like a comb with teeth of random length along the top and the bottom. The
+ * colors describe the same shape, stretched by random factors. Part 1 digs
+ * on a map of fixed size, which limits the number of teeth.
+ */
+public class InputGenerator implements Generator {
+
+    /**
+     * The most teeth per side that fit on the map of part 1.
+     */
+    static final int TEETH = 450;
+
+    /**
+     * The directions in the order of the last digit of the colors.
+     */
+    static final String DIRECTIONS = "RDLU";
+
+    @Override
+    public String generate(double scale, Random random) {
+        int teeth = Math.max(1, (Bench.count(scale, 634) - 4) / 8);
+        if (teeth > TEETH) {
+            throw new IllegalArgumentException("The map of part 1 fits at most " + TEETH + " teeth per side");
+        }
+
+        ArrayList<String> plan = new ArrayList();
+        for (int i = 0; i < teeth; i++) {
+            int h = 1 + random.nextInt(200);
+            plan.addAll(List.of("R 1", "U " + h, "R 1", "D " + h));
+        }
+        plan.add("D 100");
+        for (int i = 0; i < teeth; i++) {
+            int h = 1 + random.nextInt(200);
+            plan.addAll(List.of("L 1", "D " + h, "L 1", "U " + h));
+        }
+        plan.add("U 100");
+
+        // Start in the middle of the top, so we stay on the map of part 1.
+        Collections.rotate(plan, -4 * (teeth / 2));
+
+        int horizontal = 1000 + random.nextInt(1300);
+        int vertical = 1000 + random.nextInt(1300);
+
+        StringBuilder b = new StringBuilder();
+        for (String s: plan) {
+            char direction = s.charAt(0);
+            int length = Integer.parseInt(s.substring(2));
+            int color = length * (direction == 'L' || direction == 'R' ? horizontal : vertical);
+            b.append(String.format("%s (#%05x%d)\n", s, color, DIRECTIONS.indexOf(direction)));
+        }
+
+        return b.toString();
+    }
+
+    @Override
+    public double complexity() {
+        return 0;
+    }
+}
@@ -0,0 +1,77 @@
+package day18;
+
+import benchmark.Bench;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for day 18 "Lavaduct Lagoon".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PuzzleBenchmark {
+
+    /**
+     * The input file to use.
+     */
+    @Param({"example.txt", "input.txt"})
+    public String input;
+
+    /**
+     * The content of the input file.
+     */
+    String text;
+
+    /**
+     * The puzzle with the plan loaded.
+     */
+    Puzzle puzzle;
+
+    /**
+     * Reads the input once per trial.
+     */
+    @Setup
+    public void setup() throws IOException {
+        Bench.silence();
+        text = Bench.read(18, input);
+        puzzle = new Puzzle();
+        puzzle.quiet = true;
+        puzzle.setup(Bench.reader(text));
+    }
+
+    /**
+     * Benchmarks reading the plan.
+     */
+    @Benchmark
+    public Puzzle plan() throws IOException {
+        Puzzle p = new Puzzle();
+        p.quiet = true;
+        p.setup(Bench.reader(text));
+        return p;
+    }
+
+    /**
+     * Benchmarks part 1 (flood-fill) on the loaded plan.
+     */
+    @Benchmark
+    public int part1() throws IOException {
+        return puzzle.part1();
+    }
+
+    /**
+     * Benchmarks part 2 (shoelace formula) on the loaded plan.
+     */
+    @Benchmark
+    public long part2() {
+        return puzzle.part2();
+    }
+}
@@ -0,0 +1,79 @@
+package day19;
+
+import benchmark.Bench;
+import benchmark.Generator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+
+/**
+ * Generates input for day 19 "Aplenty": a tree of workflows with random
+ * rules, rooted in "in", and random parts. Each workflow is referenced
+ * exactly once, like in the actual input.
+ */
+public class InputGenerator implements Generator {
+
+    /**
+     * The categories of ratings.
+     */
+    static final String CATEGORIES = "xmas";
+
+    @Override
+    public String generate(double scale, Random random) {
+        int count = Bench.count(scale, 580);
+        if (count >= 26 * 26 * 26) {
+            throw new IllegalArgumentException("Workflow names allow at most " + (26 * 26 * 26 - 1) + " workflows");
+        }
+
+        String[] names = new String[count];
+        names[0] = "in";
+        for (int i = 1; i < count; i++) {
+            names[i] = Bench.name(i, 3);
+        }
+
+        ArrayList<String> workflows = new ArrayList();
+        int next = 1;
+        for (int i = 0; i < count; i++) {
+            StringBuilder b = new StringBuilder(names[i]).append('{');
+            int rules = 1 + random.nextInt(4);
+
+            for (int j = 0; j <= rules; j++) {
+                if (j < rules) {
+                    b.append(CATEGORIES.charAt(random.nextInt(4)));
+                    b.append(random.nextBoolean() ? '<' : '>');
+                    b.append(1 + random.nextInt(4000)).append(':');
+                }
+
+                if (next < count && (j == 0 || random.nextBoolean())) {
+                    b.append(names[next++]);
+                } else {
+                    b.append(random.nextBoolean() ? 'A' : 'R');
+                }
+
+                b.append(j < rules ? ',' : '}');
+            }
+
+            workflows.add(b.toString());
+        }
+        Collections.shuffle(workflows, random);
+
+        StringBuilder b = new StringBuilder();
+        for (String s: workflows) {
+            b.append(s).append('\n');
+        }
+
+        b.append('\n');
+        for (int i = Bench.count(scale, 200); i > 0; i--) {
+            b.append(String.format("{x=%d,m=%d,a=%d,s=%d}\n",
+                    1 + random.nextInt(4000), 1 + random.nextInt(4000),
+                    1 + random.nextInt(4000), 1 + random.nextInt(4000)));
+        }
+
+        return b.toString();
+    }
+
+    @Override
+    public double complexity() {
+        return 1;
+    }
+}
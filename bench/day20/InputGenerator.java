@@ -0,0 +1,91 @@
+package day20;
+
+import benchmark.Bench;
+import benchmark.Generator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+
+/**
+ * Generates input for day 20 "Pulse Propagation": binary counters of twelve
+ * flip-flops, each with a conjunction that resets it at a random period,
+ * like in the actual input. The counters feed rx through inverters and a
+ * final conjunction. Part 2 looks for the inverters xf, cm, gc and sz, so
+ * the first four counters use these names.
+ */
+public class InputGenerator implements Generator {
+
+    /**
+     * The names of the inverters part 2 looks for.
+     */
+    static final String[] INVERTERS = { "xf", "cm", "gc", "sz" };
+
+    /**
+     * The number of flip-flops per counter.
+     */
+    static final int BITS = 12;
+
+    @Override
+    public String generate(double scale, Random random) {
+        int counters = Bench.count(scale, 4);
+        if (counters * (BITS + 2) > 26 * 26 * 26) {
+            throw new IllegalArgumentException("Module names allow at most " + 26 * 26 * 26 / (BITS + 2) + " counters");
+        }
+
+        ArrayList<String> names = new ArrayList();
+        for (int i = 0; i < 26 * 26 * 26; i++) {
+            names.add(Bench.name(i, 3));
+        }
+        Collections.shuffle(names, random);
+        int next = 0;
+
+        ArrayList<String> lines = new ArrayList();
+        StringBuilder broadcaster = new StringBuilder("broadcaster ->");
+        StringBuilder inverters = new StringBuilder();
+
+        for (int i = 0; i < counters; i++) {
+            String[] flipflops = new String[BITS];
+            for (int j = 0; j < BITS; j++) {
+                flipflops[j] = names.get(next++);
+            }
+            String hub = names.get(next++);
+            String inverter = i < INVERTERS.length ? INVERTERS[i] : names.get(next++);
+
+            int period = 1 << (BITS - 1) | random.nextInt(1 << (BITS - 1)) | 1;
+            StringBuilder h = new StringBuilder("&" + hub + " -> " + flipflops[0]);
+            for (int j = 0; j < BITS; j++) {
+                boolean set = (period >> j & 1) != 0;
+                StringBuilder f = new StringBuilder("%" + flipflops[j] + " ->");
+                if (j < BITS - 1) {
+                    f.append(' ').append(flipflops[j + 1]);
+                }
+                if (set) {
+                    f.append(j < BITS - 1 ? ", " : " ").append(hub);
+                } else {
+                    h.append(", ").append(flipflops[j]);
+                }
+                lines.add(f.toString());
+            }
+            lines.add(h.append(", ").append(inverter).toString());
+            lines.add("&" + inverter + " -> zr");
+
+            broadcaster.append(i > 0 ? ", " : " ").append(flipflops[0]);
+        }
+
+        lines.add(broadcaster.toString());
+        lines.add("&zr -> rx");
+        Collections.shuffle(lines, random);
+
+        StringBuilder b = new StringBuilder();
+        for (String s: lines) {
+            b.append(s).append('\n');
+        }
+
+        return b.toString();
+    }
+
+    @Override
+    public double complexity() {
+        return 1;
+    }
+}
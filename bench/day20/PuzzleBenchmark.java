@@ -0,0 +1,54 @@
+package day20;
+
+import benchmark.Bench;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for day 20 "Pulse Propagation".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PuzzleBenchmark {
+
+    /**
+     * The input file to use.
+     */
+    @Param({"example1.txt", "example2.txt", "input.txt"})
+    public String input;
+
+    /**
+     * The content of the input file.
+     */
+    String text;
+
+    /**
+     * Reads the input once per trial.
+     */
+    @Setup
+    public void setup() throws IOException {
+        Bench.silence();
+        text = Bench.read(20, input);
+    }
+
+    /**
+     * Benchmarks loading the network plus both parts. The modules are
+     * stateful, so each invocation starts from scratch.
+     */
+    @Benchmark
+    public long solve() throws IOException {
+        Puzzle p = new Puzzle();
+        p.quiet = true;
+        p.load(Bench.reader(text));
+        return p.part1() + p.part2();
+    }
+}
@@ -0,0 +1,40 @@
+package day21;
+
+import benchmark.Bench;
+import benchmark.Generator;
+import java.util.Random;
+
+/**
+ * Generates input for day 21 "Step Counter": a square garden of odd size
+ * with random rocks, S in the center and free edges, center row and center
+ * column, like the actual input.
+ */
+public class InputGenerator implements Generator {
+
+    @Override
+    public String generate(double scale, Random random) {
+        int size = Bench.side(scale, 131) | 1;
+        int center = size / 2;
+        StringBuilder b = new StringBuilder();
+
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                if (i == center && j == center) {
+                    b.append('S');
+                } else if (i == 0 || j == 0 || i == size - 1 || j == size - 1 || i == center || j == center) {
+                    b.append('.');
+                } else {
+                    b.append(random.nextInt(10) == 0 ? '#' : '.');
+                }
+            }
+            b.append('\n');
+        }
+
+        return b.toString();
+    }
+
+    @Override
+    public double complexity() {
+        return 1;
+    }
+}
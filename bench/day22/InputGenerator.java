@@ -0,0 +1,87 @@
+package day22;
+
+import benchmark.Bench;
+import benchmark.Generator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+
+/**
+ * Generates input for day 22 "Sand Slabs": random bricks, dropped onto a 10
+ * by 10 area while generating to find where they come to rest, and then
+ * lifted by an amount that grows from bottom to top, so they fall again
+ * without changing their order. The solution uses a map of fixed height,
+ * which limits the number of bricks.
+ */
+public class InputGenerator implements Generator {
+
+    /**
+     * The highest level bricks may reach in the snapshot, leaving some room
+     * below the 500 levels of the solution's map.
+     */
+    static final int LEVELS = 480;
+
+    @Override
+    public String generate(double scale, Random random) {
+        int count = Bench.count(scale, 1206);
+        int[][] top = new int[10][10];
+        ArrayList<int[]> bricks = new ArrayList();
+        int height = 0;
+
+        for (int i = 0; i < count; i++) {
+            int axis = random.nextInt(3);
+            int length = 1 + random.nextInt(axis == 2 ? 4 : 5);
+            int x = random.nextInt(axis == 0 ? 11 - length : 10);
+            int y = random.nextInt(axis == 1 ? 11 - length : 10);
+            int[] brick = { x, y, 0, x + (axis == 0 ? length - 1 : 0), y + (axis == 1 ? length - 1 : 0), 0 };
+
+            int z = 0;
+            for (int a = brick[0]; a <= brick[3]; a++) {
+                for (int c = brick[1]; c <= brick[4]; c++) {
+                    z = Math.max(z, top[a][c] + 1);
+                }
+            }
+            brick[2] = z;
+            brick[5] = z + (axis == 2 ? length - 1 : 0);
+
+            for (int a = brick[0]; a <= brick[3]; a++) {
+                for (int c = brick[1]; c <= brick[4]; c++) {
+                    top[a][c] = brick[5];
+                }
+            }
+
+            height = Math.max(height, brick[5]);
+            bricks.add(brick);
+        }
+
+        if (height > LEVELS) {
+            throw new IllegalArgumentException("The bricks pile up to level " + height + ", above the solution's map");
+        }
+
+        ArrayList<String> lines = new ArrayList();
+        int lift = (LEVELS - height) / 2;
+        for (int i = 0; i < count; i++) {
+            int[] v = bricks.get(i);
+            int z = (int) ((long) lift * i / count);
+            lines.add(String.format("%d,%d,%d~%d,%d,%d", v[0], v[1], v[2] + z, v[3], v[4], v[5] + z));
+        }
+        Collections.shuffle(lines, random);
+
+        StringBuilder b = new StringBuilder();
+        for (String s: lines) {
+            b.append(s).append('\n');
+        }
+
+        return b.toString();
+    }
+
+    @Override
+    public double complexity() {
+        return 2;
+    }
+
+    @Override
+    public double[] scales() {
+        return new double[] { 0.125, 0.25, 0.5, 1 };
+    }
+}
@@ -0,0 +1,82 @@
+package day23;
+
+import benchmark.Bench;
+import benchmark.Generator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+
+/**
+ * Generates input for day 23 "A Long Walk": a square lattice of junctions,
+ * connected by straight paths of random length with slopes at both ends that
+ * point right or down. The number of junctions grows with the scale, the run
+ * time of the search exponentially with it, so the default scales go from 2
+ * by 2 junctions to 6 by 6, like the actual input.
+ */
+public class InputGenerator implements Generator {
+
+    @Override
+    public String generate(double scale, Random random) {
+        int junctions = Math.max(2, (int) Math.round(6 * Math.sqrt(scale)));
+
+        ArrayList<Integer> gaps = new ArrayList();
+        for (int i = 1; i < junctions; i++) {
+            gaps.add(12 + random.nextInt(21));
+        }
+        int[] rows = new int[junctions];
+        int[] columns = new int[junctions];
+        rows[0] = 1;
+        for (int i = 1; i < junctions; i++) {
+            rows[i] = rows[i - 1] + gaps.get(i - 1);
+        }
+        Collections.shuffle(gaps, random);
+        columns[0] = 1;
+        for (int i = 1; i < junctions; i++) {
+            columns[i] = columns[i - 1] + gaps.get(i - 1);
+        }
+
+        int size = rows[junctions - 1] + 2;
+        char[][] map = new char[size][size];
+        for (char[] row: map) {
+            Arrays.fill(row, '#');
+        }
+
+        for (int i = 0; i < junctions; i++) {
+            for (int j = 0; j < junctions; j++) {
+                map[rows[i]][columns[j]] = '.';
+                if (j < junctions - 1) {
+                    Arrays.fill(map[rows[i]], columns[j] + 2, columns[j + 1] - 1, '.');
+                    map[rows[i]][columns[j] + 1] = '>';
+                    map[rows[i]][columns[j + 1] - 1] = '>';
+                }
+                if (i < junctions - 1) {
+                    for (int k = rows[i] + 2; k < rows[i + 1] - 1; k++) {
+                        map[k][columns[j]] = '.';
+                    }
+                    map[rows[i] + 1][columns[j]] = 'v';
+                    map[rows[i + 1] - 1][columns[j]] = 'v';
+                }
+            }
+        }
+        map[0][1] = '.';
+        map[size - 1][size - 2] = '.';
+
+        StringBuilder b = new StringBuilder();
+        for (char[] row: map) {
+            b.append(row).append('\n');
+        }
+
+        return b.toString();
+    }
+
+    @Override
+    public double complexity() {
+        return Double.POSITIVE_INFINITY;
+    }
+
+    @Override
+    public double[] scales() {
+        return new double[] { 0.1, 0.25, 0.45, 0.7, 1 };
+    }
+}
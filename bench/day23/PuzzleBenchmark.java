@@ -0,0 +1,77 @@
+package day23;
+
+import benchmark.Bench;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for day 23 "A Long Walk".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PuzzleBenchmark {
+
+    /**
+     * The input file to use.
+     */
+    @Param({"example.txt", "input.txt"})
+    public String input;
+
+    /**
+     * The content of the input file.
+     */
+    String text;
+
+    /**
+     * The part of the puzzle, which determines whether slopes are respected.
+     */
+    @Param({"1", "2"})
+    public int part;
+
+    /**
+     * The puzzle with the graph built.
+     */
+    Puzzle puzzle;
+
+    /**
+     * Reads the input once per trial.
+     */
+    @Setup
+    public void setup() throws IOException {
+        Bench.silence();
+        text = Bench.read(23, input);
+        puzzle = new Puzzle();
+        puzzle.quiet = true;
+        puzzle.load(Bench.input(text));
+
+        if (part == 2) {
+            for (int i = 0; i < puzzle.size; i++) {
+                for (int j = 0; j < puzzle.size; j++) {
+                    if ("<>^v".indexOf(puzzle.map.get(i, j)) != -1) {
+                        puzzle.map.set(i, j, (byte) '.');
+                    }
+                }
+            }
+        }
+
+        puzzle.findNodes();
+        puzzle.findEdges();
+    }
+
+    /**
+     * Benchmarks the exhaustive longest path search.
+     */
+    @Benchmark
+    public int explore() {
+        return puzzle.explore(puzzle.start, 0, 0, new boolean[puzzle.graph.size()]);
+    }
+}
@@ -0,0 +1,32 @@
+package day24;
+
+import benchmark.Bench;
+import benchmark.Generator;
+import java.util.Random;
+
+/**
+ * Generates input for day 24 "Never Tell Me The Odds": hailstones with
+ * random positions around the test area and small random velocities.
+ */
+public class InputGenerator implements Generator {
+
+    @Override
+    public String generate(double scale, Random random) {
+        StringBuilder b = new StringBuilder();
+
+        for (int i = Bench.count(scale, 300); i > 0; i--) {
+            b.append(String.format("%d, %d, %d @ %d, %d, %d\n",
+                    150000000000000L + random.nextLong(300000000000000L),
+                    150000000000000L + random.nextLong(300000000000000L),
+                    150000000000000L + random.nextLong(300000000000000L),
+                    random.nextInt(601) - 300, random.nextInt(601) - 300, random.nextInt(601) - 300));
+        }
+
+        return b.toString();
+    }
+
+    @Override
+    public double complexity() {
+        return 2;
+    }
+}
@@ -0,0 +1,69 @@
+package day24;
+
+import benchmark.Bench;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for day 24 "Never Tell Me The Odds".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PuzzleBenchmark {
+
+    /**
+     * The input file to use.
+     */
+    @Param({"example.txt", "input.txt"})
+    public String input;
+
+    /**
+     * The content of the input file.
+     */
+    String text;
+
+    /**
+     * The hailstones of the input file.
+     */
+    ArrayList<Puzzle.Hailstone> hailstones = new ArrayList();
+
+    /**
+     * Reads the input once per trial.
+     */
+    @Setup
+    public void setup() throws IOException {
+        Bench.silence();
+        text = Bench.read(24, input);
+        Puzzle p = new Puzzle();
+        p.quiet = true;
+        for (String s: text.split("\n")) {
+            hailstones.add(p.new Hailstone(s));
+        }
+    }
+
+    /**
+     * Benchmarks the pairwise intersection checks of part 1.
+     */
+    @Benchmark
+    public int intersections() {
+        int result = 0;
+        for (int i = 0; i < hailstones.size(); i++) {
+            for (int j = i + 1; j < hailstones.size(); j++) {
+                if (hailstones.get(i).intersects(hailstones.get(j))) {
+                    result++;
+                }
+            }
+        }
+        return result;
+    }
+}
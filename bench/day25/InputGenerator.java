@@ -0,0 +1,97 @@
+package day25;
+
+import benchmark.Bench;
+import benchmark.Generator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Random;
+
+/**
+ * Generates input for day 25 "Snowverload": two random clusters of
+ * components, where each component is wired to at least four others of its
+ * cluster, plus three wires between the clusters. The solution is a
+ * randomized search whose run time grows quickly with the number of
+ * components, so the default scales are small.
+ */
+public class InputGenerator implements Generator {
+
+    /**
+     * The least number of wires from each component into its cluster.
+     */
+    static final int WIRES = 4;
+
+    @Override
+    public String generate(double scale, Random random) {
+        int count = Math.max(2 * (WIRES + 2), Bench.count(scale, 1500));
+        if (count > 26 * 26 * 26) {
+            throw new IllegalArgumentException("Component names allow at most " + 26 * 26 * 26 + " components");
+        }
+
+        ArrayList<String> names = new ArrayList();
+        for (int i = 0; i < 26 * 26 * 26; i++) {
+            names.add(Bench.name(i, 3));
+        }
+        Collections.shuffle(names, random);
+
+        int split = count / 2 + random.nextInt(count / 10 + 1) - count / 20;
+        HashSet<Long> wires = new HashSet();
+        ArrayList<ArrayList<Integer>> connections = new ArrayList();
+        int[] degrees = new int[count];
+        for (int i = 0; i < count; i++) {
+            connections.add(new ArrayList());
+        }
+
+        for (int i = 0; i < count; i++) {
+            int from = i < split ? 0 : split;
+            int to = i < split ? split : count;
+            while (degrees[i] < WIRES) {
+                int k = from + random.nextInt(to - from);
+                if (k != i && wires.add((long) Math.min(i, k) << 32 | Math.max(i, k))) {
+                    connections.get(i).add(k);
+                    degrees[i]++;
+                    degrees[k]++;
+                }
+            }
+        }
+
+        for (int j = 0; j < 3; j++) {
+            int i = random.nextInt(split);
+            int k = split + random.nextInt(count - split);
+            if (wires.add((long) i << 32 | k)) {
+                connections.get(i).add(k);
+            } else {
+                j--;
+            }
+        }
+
+        ArrayList<String> lines = new ArrayList();
+        for (int i = 0; i < count; i++) {
+            if (!connections.get(i).isEmpty()) {
+                StringBuilder b = new StringBuilder(names.get(i)).append(':');
+                for (int k: connections.get(i)) {
+                    b.append(' ').append(names.get(k));
+                }
+                lines.add(b.toString());
+            }
+        }
+        Collections.shuffle(lines, random);
+
+        StringBuilder b = new StringBuilder();
+        for (String s: lines) {
+            b.append(s).append('\n');
+        }
+
+        return b.toString();
+    }
+
+    @Override
+    public double complexity() {
+        return 2;
+    }
+
+    @Override
+    public double[] scales() {
+        return new double[] { 0.0625, 0.125, 0.25, 0.5 };
+    }
+}
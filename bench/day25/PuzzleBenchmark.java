@@ -0,0 +1,58 @@
+package day25;
+
+import benchmark.Bench;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for day 25 "Snowverload".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PuzzleBenchmark {
+
+    /**
+     * The input file to use.
+     */
+    @Param({"example.txt", "input.txt"})
+    public String input;
+
+    /**
+     * The content of the input file.
+     */
+    String text;
+
+    /**
+     * The puzzle with the graph loaded.
+     */
+    Puzzle puzzle;
+
+    /**
+     * Reads the input and loads the graph once per trial.
+     */
+    @Setup
+    public void setup() throws IOException {
+        Bench.silence();
+        text = Bench.read(25, input);
+        puzzle = new Puzzle();
+        puzzle.quiet = true;
+        puzzle.load(Bench.reader(text));
+    }
+
+    /**
+     * Benchmarks a single random contraction attempt.
+     */
+    @Benchmark
+    public boolean contract() {
+        return puzzle.contract();
+    }
+}
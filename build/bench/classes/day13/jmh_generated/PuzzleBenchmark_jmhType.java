@@ -0,0 +1,4 @@
+package day13.jmh_generated;
+public class PuzzleBenchmark_jmhType extends PuzzleBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,33 @@
+package common;
+
+/**
+ * Thrown by a day that gives up a long search because it has been asked to
+ * stop, like when the launcher's time budget for it has run out. The
+ * launcher asks by interrupting the day's thread, and the long loops check
+ * for that now and then (cooperative cancellation), so they can stop at a
+ * consistent point and tell in the message how far they got. Work split up
+ * among workers is stopped along with the thread waiting for it (see
+ * Workers.map).
+ */
+public class Cancelled extends RuntimeException {
+
+    /**
+     * The version of the serialized form.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates an exception telling how far the search got.
+     */
+    public Cancelled(String progress) {
+        super(progress);
+    }
+
+    /**
+     * Reflects whether the current day has been asked to stop, also when
+     * called from a worker thread running a chunk of its work.
+     */
+    public static boolean requested() {
+        return Thread.currentThread().isInterrupted() || Workers.stopped();
+    }
+}
@@ -0,0 +1,134 @@
+package common;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the work the search-heavy days do, like memo hits or nodes expanded,
+ * so algorithmic blow-ups can be told from constant-factor slowness. Days
+ * declare their counters as constants and count in plain fields or locals of
+ * their own, adding the sums to the counters once per phase. A counter is a
+ * LongAdder, striped across threads, so days splitting up their work among
+ * workers don't contend on it. Counting is opt-in: it is off unless the
+ * aoc.stats system property is set or the launcher enables it (--stats), and
+ * adding to a disabled counter does nothing.
+ */
+public class Counters {
+
+    /**
+     * Reflects whether counting is on. Set before any day runs.
+     */
+    static boolean enabled = Boolean.getBoolean("aoc.stats");
+
+    /**
+     * All counters, in the order they were created.
+     */
+    static final ArrayList<Counter> all = new ArrayList();
+
+    /**
+     * Represents a single counter of a day.
+     */
+    public static class Counter {
+
+        /**
+         * The day this counter belongs to.
+         */
+        final int day;
+
+        /**
+         * What this counter counts.
+         */
+        final String name;
+
+        /**
+         * The count so far.
+         */
+        final LongAdder count = new LongAdder();
+
+        /**
+         * Creates a counter.
+         */
+        Counter(int day, String name) {
+            this.day = day;
+            this.name = name;
+        }
+
+        /**
+         * Adds the given amount, if counting is on.
+         */
+        public void add(long n) {
+            if (enabled) {
+                count.add(n);
+            }
+        }
+
+        /**
+         * Returns the day this counter belongs to.
+         */
+        public int day() {
+            return day;
+        }
+
+        /**
+         * Returns what this counter counts.
+         */
+        public String name() {
+            return name;
+        }
+
+        /**
+         * Returns the count so far.
+         */
+        public long sum() {
+            return count.sum();
+        }
+    }
+
+    /**
+     * Creates a counter for the given day.
+     */
+    public static Counter counter(int day, String name) {
+        Counter c = new Counter(day, name);
+        synchronized (all) {
+            all.add(c);
+        }
+        return c;
+    }
+
+    /**
+     * Turns counting on or off.
+     */
+    public static void enable(boolean on) {
+        enabled = on;
+    }
+
+    /**
+     * Reflects whether counting is on.
+     */
+    public static boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns all counters, ordered by day, then in the order they were
+     * created.
+     */
+    public static List<Counter> all() {
+        synchronized (all) {
+            ArrayList<Counter> result = new ArrayList(all);
+            result.sort(Comparator.comparingInt(Counter::day));
+            return result;
+        }
+    }
+
+    /**
+     * Sets all counters back to zero.
+     */
+    public static void reset() {
+        for (Counter c: all()) {
+            c.count.reset();
+        }
+    }
+}
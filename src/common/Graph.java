@@ -0,0 +1,271 @@
+package common;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * A directed graph in compressed sparse row form: vertices are ints from 0 to
+ * size() - 1, and the edges of each vertex are a contiguous range of the
+ * edge arrays, in the order they were added. Traversals just walk int arrays
+ * instead of hashing names and chasing pointers:
+ *
+ *     for (int i = g.start(v); i < g.end(v); i++) {
+ *         int w = g.target(i);
+ *         ...
+ *     }
+ *
+ * Graphs are immutable and created with a Builder, which can also intern
+ * vertex names, so parsers can keep working with the names of their input.
+ * Undirected graphs simply have an edge in each direction. Edges can have
+ * int weights.
+ */
+public class Graph {
+
+    /**
+     * The index of the first edge of each vertex, plus one entry past the
+     * last edge.
+     */
+    final int[] offsets;
+
+    /**
+     * The source and target vertex of each edge.
+     */
+    final int[] sources, targets;
+
+    /**
+     * The weight of each edge, or null if the graph is unweighted.
+     */
+    final int[] weights;
+
+    /**
+     * The names of the vertices, or null if they have none.
+     */
+    final String[] names;
+
+    /**
+     * The vertices by name, or null if they have none.
+     */
+    final HashMap<String, Integer> ids;
+
+    /**
+     * Creates a graph from the given arrays.
+     */
+    Graph(int[] offsets, int[] sources, int[] targets, int[] weights, String[] names, HashMap<String, Integer> ids) {
+        this.offsets = offsets;
+        this.sources = sources;
+        this.targets = targets;
+        this.weights = weights;
+        this.names = names;
+        this.ids = ids;
+    }
+
+    /**
+     * Returns the number of vertices.
+     */
+    public int size() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Returns the number of edges.
+     */
+    public int edges() {
+        return targets.length;
+    }
+
+    /**
+     * Returns the index of the first edge of the given vertex.
+     */
+    public int start(int vertex) {
+        return offsets[vertex];
+    }
+
+    /**
+     * Returns the index past the last edge of the given vertex.
+     */
+    public int end(int vertex) {
+        return offsets[vertex + 1];
+    }
+
+    /**
+     * Returns the number of edges of the given vertex.
+     */
+    public int degree(int vertex) {
+        return offsets[vertex + 1] - offsets[vertex];
+    }
+
+    /**
+     * Returns the source vertex of the given edge.
+     */
+    public int source(int edge) {
+        return sources[edge];
+    }
+
+    /**
+     * Returns the target vertex of the given edge.
+     */
+    public int target(int edge) {
+        return targets[edge];
+    }
+
+    /**
+     * Returns the weight of the given edge, 1 if the graph is unweighted.
+     */
+    public int weight(int edge) {
+        return weights != null ? weights[edge] : 1;
+    }
+
+    /**
+     * Returns the vertex with the given name, or -1 if there is none.
+     */
+    public int id(String name) {
+        Integer id = ids != null ? ids.get(name) : null;
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Returns the name of the given vertex, or its number if it has none.
+     */
+    public String name(int vertex) {
+        return names != null && names[vertex] != null ? names[vertex] : Integer.toString(vertex);
+    }
+
+    /**
+     * Returns the number of edges pointing to each vertex.
+     */
+    public int[] inDegrees() {
+        int[] result = new int[size()];
+        for (int t: targets) {
+            result[t]++;
+        }
+        return result;
+    }
+
+    /**
+     * Collects vertices and edges and turns them into a graph.
+     */
+    public static class Builder {
+
+        /**
+         * The vertices by name.
+         */
+        HashMap<String, Integer> ids = new HashMap();
+
+        /**
+         * The names of the vertices, by number.
+         */
+        ArrayList<String> names = new ArrayList();
+
+        /**
+         * The number of vertices so far.
+         */
+        int size;
+
+        /**
+         * The source, target and weight of each edge so far.
+         */
+        int[] sources = new int[64], targets = new int[64], weights = new int[64];
+
+        /**
+         * The number of edges so far.
+         */
+        int edges;
+
+        /**
+         * Reflects whether any edge has a weight other than 1.
+         */
+        boolean weighted;
+
+        /**
+         * Returns the vertex with the given name, adding it if it is new.
+         */
+        public int vertex(String name) {
+            Integer id = ids.get(name);
+            if (id == null) {
+                id = size;
+                ids.put(name, id);
+                vertex(id);
+                names.set(id, name);
+            }
+            return id;
+        }
+
+        /**
+         * Makes sure the graph has the given (unnamed) vertex, and all below
+         * it. Returns the vertex.
+         */
+        public int vertex(int id) {
+            while (size <= id) {
+                names.add(null);
+                size++;
+            }
+            return id;
+        }
+
+        /**
+         * Adds an edge of weight 1 between the given vertices.
+         */
+        public void edge(int from, int to) {
+            edge(from, to, 1);
+        }
+
+        /**
+         * Adds an edge of the given weight between the given vertices.
+         */
+        public void edge(int from, int to, int weight) {
+            vertex(Math.max(from, to));
+
+            if (edges == targets.length) {
+                sources = Arrays.copyOf(sources, edges * 2);
+                targets = Arrays.copyOf(targets, edges * 2);
+                weights = Arrays.copyOf(weights, edges * 2);
+            }
+
+            sources[edges] = from;
+            targets[edges] = to;
+            weights[edges] = weight;
+            edges++;
+
+            weighted |= weight != 1;
+        }
+
+        /**
+         * Adds an edge of weight 1 between the given named vertices.
+         */
+        public void edge(String from, String to) {
+            edge(vertex(from), vertex(to), 1);
+        }
+
+        /**
+         * Returns the graph, with the edges of each vertex in the order they
+         * were added (a stable counting sort by source).
+         */
+        public Graph build() {
+            int[] offsets = new int[size + 1];
+            for (int i = 0; i < edges; i++) {
+                offsets[sources[i] + 1]++;
+            }
+            for (int v = 0; v < size; v++) {
+                offsets[v + 1] += offsets[v];
+            }
+
+            int[] next = Arrays.copyOf(offsets, size);
+            int[] s = new int[edges];
+            int[] t = new int[edges];
+            int[] w = weighted ? new int[edges] : null;
+
+            for (int i = 0; i < edges; i++) {
+                int j = next[sources[i]]++;
+                s[j] = sources[i];
+                t[j] = targets[i];
+                if (w != null) {
+                    w[j] = weights[i];
+                }
+            }
+
+            boolean named = !ids.isEmpty();
+            return new Graph(offsets, s, t, w, named ? names.toArray(new String[size]) : null, named ? new HashMap(ids) : null);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package common;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A 2D map of bytes, stored in one flat array. The cell at (row, column) lives
+ * at index origin + row * rowStep + column * columnStep, so neighbours are a
+ * constant offset away and scans run along contiguous memory. An optional
+ * border of sentinel cells around the map saves bounds checks. Rotated views
+ * share the cells of their grid and just use different steps.
+ */
+public class Grid {
+
+    /**
+     * The cells, including the border.
+     */
+    final byte[] cells;
+
+    /**
+     * The width and height of the map, not including the border.
+     */
+    final int width, height;
+
+    /**
+     * The index of the cell at (0, 0).
+     */
+    final int origin;
+
+    /**
+     * The index distances between vertical and horizontal neighbours.
+     */
+    final int rowStep, columnStep;
+
+    /**
+     * Creates a view of the given cells.
+     */
+    Grid(byte[] cells, int width, int height, int origin, int rowStep, int columnStep) {
+        this.cells = cells;
+        this.width = width;
+        this.height = height;
+        this.origin = origin;
+        this.rowStep = rowStep;
+        this.columnStep = columnStep;
+    }
+
+    /**
+     * Creates a new grid of the given size, surrounded by a border of the
+     * given thickness. All cells, including the border, are set to the given
+     * fill value.
+     */
+    public Grid(int width, int height, int border, byte fill) {
+        this(new byte[(width + 2 * border) * (height + 2 * border)], width, height,
+                border * (width + 2 * border) + border, width + 2 * border, 1);
+
+        if (fill != 0) {
+            Arrays.fill(cells, fill);
+        }
+    }
+
+    /**
+     * Loads a grid from the given input, one row per line. Stops at the first
+     * empty line. The border is filled with the given sentinel value.
+     */
+    public static Grid load(Input in, int border, byte fill) {
+        int height = 0;
+        while (height < in.lines() && in.length(height) != 0) {
+            height++;
+        }
+
+        Grid g = new Grid(in.length(0), height, border, fill);
+
+        for (int i = 0; i < height; i++) {
+            in.buffer.get(in.start(i), g.cells, g.index(i, 0), g.width);
+        }
+
+        return g;
+    }
+
+    /**
+     * Returns the width of the map.
+     */
+    public int width() {
+        return width;
+    }
+
+    /**
+     * Returns the height of the map.
+     */
+    public int height() {
+        return height;
+    }
+
+    /**
+     * Returns the number of cells including the border, that is, an upper
+     * bound for all indexes.
+     */
+    public int length() {
+        return cells.length;
+    }
+
+    /**
+     * Returns the index of the cell at the given row and column. Rows and
+     * columns may go into the border, that is, below 0 or above the size.
+     */
+    public int index(int row, int column) {
+        return origin + row * rowStep + column * columnStep;
+    }
+
+    /**
+     * Returns the index offset for moving by the given number of rows and
+     * columns.
+     */
+    public int step(int rows, int columns) {
+        return rows * rowStep + columns * columnStep;
+    }
+
+    /**
+     * Returns the index offsets of the four direct neighbours, clockwise and
+     * starting north.
+     */
+    public int[] directions() {
+        return new int[] { -rowStep, columnStep, rowStep, -columnStep };
+    }
+
+    /**
+     * Returns the index offsets of all eight neighbours, clockwise and
+     * starting north.
+     */
+    public int[] neighbours() {
+        return new int[] {
+            -rowStep, -rowStep + columnStep, columnStep, rowStep + columnStep,
+            rowStep, rowStep - columnStep, -columnStep, -rowStep - columnStep
+        };
+    }
+
+    /**
+     * Returns the cell at the given index.
+     */
+    public byte get(int index) {
+        return cells[index];
+    }
+
+    /**
+     * Sets the cell at the given index.
+     */
+    public void set(int index, byte b) {
+        cells[index] = b;
+    }
+
+    /**
+     * Returns the cell at the given row and column.
+     */
+    public byte get(int row, int column) {
+        return cells[origin + row * rowStep + column * columnStep];
+    }
+
+    /**
+     * Sets the cell at the given row and column.
+     */
+    public void set(int row, int column, byte b) {
+        cells[origin + row * rowStep + column * columnStep] = b;
+    }
+
+    /**
+     * Returns a view of this grid that is rotated by 90 degrees clockwise.
+     * The view shares the cells with this grid, so changes show up in both.
+     */
+    public Grid rotate() {
+        return new Grid(cells, height, width, origin + (height - 1) * rowStep, columnStep, -rowStep);
+    }
+
+    /**
+     * Copies the given row into the given array.
+     */
+    public void row(int row, byte[] dst) {
+        if (columnStep == 1) {
+            System.arraycopy(cells, index(row, 0), dst, 0, width);
+        } else {
+            for (int j = 0; j < width; j++) {
+                dst[j] = get(row, j);
+            }
+        }
+    }
+
+    /**
+     * Copies the given column into the given array.
+     */
+    public void column(int column, byte[] dst) {
+        for (int i = 0; i < height; i++) {
+            dst[i] = get(i, column);
+        }
+    }
+
+    /**
+     * Copies the whole map (not including the border) into another grid, with
+     * its top left corner at the given row and column.
+     */
+    public void copyTo(Grid dst, int row, int column) {
+        for (int i = 0; i < height; i++) {
+            if (columnStep == 1 && dst.columnStep == 1) {
+                System.arraycopy(cells, index(i, 0), dst.cells, dst.index(row + i, column), width);
+            } else {
+                for (int j = 0; j < width; j++) {
+                    dst.set(row + i, column + j, get(i, j));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the map (not including the border) as text, one line per row.
+     */
+    @Override
+    public String toString() {
+        byte[] b = new byte[(width + 1) * height];
+        byte[] line = new byte[width];
+
+        for (int i = 0; i < height; i++) {
+            row(i, line);
+            System.arraycopy(line, 0, b, i * (width + 1), width);
+            b[i * (width + 1) + width] = '\n';
+        }
+
+        return new String(b, StandardCharsets.ISO_8859_1);
+    }
+}
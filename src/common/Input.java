@@ -0,0 +1,351 @@
+package common;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Provides zero-copy access to an input file, which is memory-mapped instead
+ * of being read line by line. Lines are addressed by number and bytes by
+ * offset, so days can parse their input without creating a String per line.
+ * The line index is built with a single scan when the input is opened. A
+ * cursor supports sequential parsing of integer tokens; it is a Tokenizer
+ * over a view of the bytes, so there is one parser for lines and buffers.
+ * The file name "-" stands for standard input, which can't be mapped and is
+ * read into memory instead; days that process their input line by line use
+ * a reader on it.
+ */
+public class Input {
+
+    /**
+     * The file name that stands for standard input.
+     */
+    public static final String STDIN = "-";
+
+    /**
+     * The most bytes windows() maps per window before moving on to the next
+     * newline, well below the 2 GB a single mapping can hold, so a window
+     * still fits when its last line is long.
+     */
+    static final long WINDOW = 1L << 30;
+
+    /**
+     * The content of the input.
+     */
+    final ByteBuffer buffer;
+
+    /**
+     * The start offsets of all lines, plus one entry past the last line.
+     */
+    final int[] starts;
+
+    /**
+     * The number of lines.
+     */
+    final int lines;
+
+    /**
+     * The cursor, parsing integer tokens out of the bytes.
+     */
+    final Tokenizer cursor;
+
+    /**
+     * Presents the bytes of a buffer as characters, one per byte, so a
+     * Tokenizer can parse them.
+     */
+    static class Chars implements CharSequence {
+
+        /**
+         * The bytes.
+         */
+        final ByteBuffer buffer;
+
+        /**
+         * Creates a view of the given bytes.
+         */
+        Chars(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int length() {
+            return buffer.limit();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (buffer.get(index) & 0xff);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            byte[] b = new byte[end - start];
+            buffer.get(start, b);
+            return new String(b, StandardCharsets.ISO_8859_1);
+        }
+
+        @Override
+        public String toString() {
+            return subSequence(0, length()).toString();
+        }
+    }
+
+    /**
+     * Creates a new input on top of the given buffer.
+     */
+    public Input(ByteBuffer buffer) {
+        this.buffer = buffer;
+
+        int size = buffer.limit();
+        int[] a = new int[1024];
+        int n = 0;
+
+        int start = 0;
+        while (start < size) {
+            if (n == a.length - 1) {
+                a = Arrays.copyOf(a, a.length * 2);
+            }
+
+            a[n++] = start;
+
+            int i = start;
+            while (i < size && buffer.get(i) != '\n') {
+                i++;
+            }
+
+            start = i + 1;
+        }
+
+        a[n] = start;
+
+        starts = a;
+        lines = n;
+        cursor = new Tokenizer().reset(new Chars(buffer));
+    }
+
+    /**
+     * Creates an input on top of the given buffer and line index.
+     */
+    Input(ByteBuffer buffer, int[] starts, int lines) {
+        this.buffer = buffer;
+        this.starts = starts;
+        this.lines = lines;
+        cursor = new Tokenizer().reset(new Chars(buffer));
+    }
+
+    /**
+     * Memory-maps the given file, or reads standard input into memory.
+     */
+    public static Input map(String file) throws IOException {
+        if (STDIN.equals(file)) {
+            return wrap(System.in.readAllBytes());
+        }
+
+        try (FileChannel c = FileChannel.open(Path.of(file), StandardOpenOption.READ)) {
+            return new Input(c.map(FileChannel.MapMode.READ_ONLY, 0, c.size()));
+        }
+    }
+
+    /**
+     * Memory-maps the given file as a number of windows of whole lines, for
+     * days that process lines independently and on inputs of any size, even
+     * beyond the 2 GB a single mapping can hold. The file is cut at evenly
+     * spaced offsets, at least the given number of windows and more if
+     * needed to keep them within WINDOW bytes, and each cut is moved forward
+     * just past the next newline. Only the bytes around the cuts are read
+     * here; there is no line index, so each window can be scanned on its own
+     * thread. Windows may be empty.
+     */
+    public static ByteBuffer[] windows(String file, int windows) throws IOException {
+        try (FileChannel c = FileChannel.open(Path.of(file), StandardOpenOption.READ)) {
+            long size = c.size();
+            int n = (int) Math.max(windows, (size + WINDOW - 1) / WINDOW);
+
+            long[] cuts = new long[n + 1];
+            cuts[n] = size;
+            for (int k = 1; k < n; k++) {
+                cuts[k] = Math.max(cuts[k - 1], next(c, size / n * k));
+            }
+
+            ByteBuffer[] result = new ByteBuffer[n];
+            for (int k = 0; k < n; k++) {
+                long length = cuts[k + 1] - cuts[k];
+                if (length > Integer.MAX_VALUE) {
+                    throw new IOException("Line too long to map at offset " + cuts[k] + " of " + file);
+                }
+                result[k] = c.map(FileChannel.MapMode.READ_ONLY, cuts[k], length);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Returns the offset of the first line that starts at or after the given
+     * offset in the given file, or the size of the file if there is none.
+     */
+    static long next(FileChannel c, long offset) throws IOException {
+        if (offset == 0) {
+            return 0;
+        }
+
+        ByteBuffer b = ByteBuffer.allocate(4096);
+        long position = offset - 1;
+        while (true) {
+            b.clear();
+            int n = c.read(b, position);
+            if (n <= 0) {
+                return c.size();
+            }
+
+            for (int i = 0; i < n; i++) {
+                if (b.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += n;
+        }
+    }
+
+    /**
+     * Wraps the given bytes, for input that doesn't come from a file.
+     */
+    public static Input wrap(byte[] bytes) {
+        return new Input(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Returns a reader on the given file, or on standard input, for days
+     * that process their input incrementally.
+     */
+    public static BufferedReader open(String file) throws IOException {
+        return STDIN.equals(file) ? new BufferedReader(new InputStreamReader(System.in)) : new BufferedReader(new FileReader(file));
+    }
+
+    /**
+     * Returns an input sharing the content and line index with this one, but
+     * with a cursor of its own, so several threads can parse it at once.
+     */
+    public Input duplicate() {
+        return new Input(buffer.duplicate(), starts, lines);
+    }
+
+    /**
+     * Returns the size of the input in bytes.
+     */
+    public int size() {
+        return buffer.limit();
+    }
+
+    /**
+     * Returns the byte at the given offset.
+     */
+    public byte get(int offset) {
+        return buffer.get(offset);
+    }
+
+    /**
+     * Returns the number of lines.
+     */
+    public int lines() {
+        return lines;
+    }
+
+    /**
+     * Returns the offset of the first byte of the given line.
+     */
+    public int start(int line) {
+        return starts[line];
+    }
+
+    /**
+     * Returns the offset just past the last byte of the given line, not
+     * counting the line terminator.
+     */
+    public int end(int line) {
+        int end = Math.min(starts[line + 1] - 1, buffer.limit());
+        if (end > starts[line] && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Returns the length of the given line.
+     */
+    public int length(int line) {
+        return end(line) - starts[line];
+    }
+
+    /**
+     * Returns the byte at the given line and column, treating the input as a
+     * grid.
+     */
+    public byte get(int line, int column) {
+        return buffer.get(starts[line] + column);
+    }
+
+    /**
+     * Returns the given line as a string. Meant for diagnostics and for
+     * puzzles that genuinely need strings.
+     */
+    public String line(int line) {
+        return string(starts[line], end(line));
+    }
+
+    /**
+     * Returns the bytes between the given offsets as a string.
+     */
+    public String string(int from, int to) {
+        byte[] b = new byte[to - from];
+        buffer.get(from, b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the offset of the given byte between the given offsets, or -1
+     * if it doesn't occur there.
+     */
+    public int indexOf(byte b, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the current position of the cursor.
+     */
+    public int position() {
+        return cursor.position();
+    }
+
+    /**
+     * Moves the cursor to the given offset.
+     */
+    public void seek(int offset) {
+        cursor.seek(offset);
+    }
+
+    /**
+     * Parses the next integer token after the cursor. See Tokenizer.
+     */
+    public long nextLong() {
+        return cursor.nextLong();
+    }
+
+    /**
+     * Parses the next integer token after the cursor. See Tokenizer.
+     */
+    public int nextInt() {
+        return cursor.nextInt();
+    }
+}
@@ -0,0 +1,159 @@
+package common;
+
+import java.util.Arrays;
+
+/**
+ * A map from int to int with open addressing and linear probing, for hot
+ * loops that would otherwise box both keys and values into a HashMap. Keys
+ * and values live in two parallel arrays, so lookups touch no objects.
+ * Removal shifts later entries of the same probe run back, so there are no
+ * tombstones and lookups stay short.
+ */
+public class IntIntMap {
+
+    /**
+     * The keys and values of the slots, their length always a power of two.
+     */
+    int[] keys, values;
+
+    /**
+     * Reflects for each slot whether it holds an entry.
+     */
+    boolean[] used;
+
+    /**
+     * The number of entries.
+     */
+    int size;
+
+    /**
+     * Creates an empty map.
+     */
+    public IntIntMap() {
+        keys = new int[16];
+        values = new int[16];
+        used = new boolean[16];
+    }
+
+    /**
+     * Returns the slot where the given key starts probing.
+     */
+    int slot(int key) {
+        int h = key * 0x9e3779b9;
+        return (h ^ h >>> 16) & (keys.length - 1);
+    }
+
+    /**
+     * Returns the slot of the given key, or -1 if it is not in the map.
+     */
+    int find(int key) {
+        int mask = keys.length - 1;
+        for (int i = slot(key); used[i]; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the value for the given key, or the given default if there is
+     * none.
+     */
+    public int get(int key, int missing) {
+        int i = find(key);
+        return i != -1 ? values[i] : missing;
+    }
+
+    /**
+     * Reflects whether the map has a value for the given key.
+     */
+    public boolean containsKey(int key) {
+        return find(key) != -1;
+    }
+
+    /**
+     * Sets the value for the given key.
+     */
+    public void put(int key, int value) {
+        if (2 * (size + 1) > keys.length) {
+            grow();
+        }
+
+        int mask = keys.length - 1;
+        int i = slot(key);
+        while (used[i] && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+
+        if (!used[i]) {
+            used[i] = true;
+            keys[i] = key;
+            size++;
+        }
+        values[i] = value;
+    }
+
+    /**
+     * Removes the given key and returns its value, or the given default if
+     * there was none.
+     */
+    public int remove(int key, int missing) {
+        int i = find(key);
+        if (i == -1) {
+            return missing;
+        }
+
+        int result = values[i];
+        int mask = keys.length - 1;
+
+        // Moves later entries of the run into the gap if they may live there
+        for (int j = (i + 1) & mask; used[j]; j = (j + 1) & mask) {
+            int k = slot(keys[j]);
+            if (((j - k) & mask) >= ((j - i) & mask)) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                i = j;
+            }
+        }
+
+        used[i] = false;
+        size--;
+        return result;
+    }
+
+    /**
+     * Returns the number of entries.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all entries, keeping the capacity.
+     */
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    /**
+     * Doubles the capacity and re-inserts all entries.
+     */
+    void grow() {
+        int[] k = keys;
+        int[] v = values;
+        boolean[] u = used;
+
+        keys = new int[k.length * 2];
+        values = new int[k.length * 2];
+        used = new boolean[k.length * 2];
+        size = 0;
+
+        for (int i = 0; i < k.length; i++) {
+            if (u[i]) {
+                put(k[i], v[i]);
+            }
+        }
+    }
+}
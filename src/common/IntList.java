@@ -0,0 +1,93 @@
+package common;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of ints, for collections that would otherwise box each
+ * element into an ArrayList. Small lists doubling as sets (a few neighbours,
+ * a few candidates) are searched linearly, which beats hashing at that size.
+ */
+public class IntList {
+
+    /**
+     * The elements, first to last.
+     */
+    int[] elements;
+
+    /**
+     * The number of elements.
+     */
+    int size;
+
+    /**
+     * Creates an empty list.
+     */
+    public IntList() {
+        elements = new int[8];
+    }
+
+    /**
+     * Appends the given value.
+     */
+    public void add(int value) {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, size * 2);
+        }
+
+        elements[size++] = value;
+    }
+
+    /**
+     * Returns the value at the given index.
+     */
+    public int get(int index) {
+        return elements[index];
+    }
+
+    /**
+     * Returns the number of elements.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Reflects whether the list is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Reflects whether the list contains the given value.
+     */
+    public boolean contains(int value) {
+        for (int i = 0; i < size; i++) {
+            if (elements[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes all values not contained in the given list, keeping the order
+     * of the others.
+     */
+    public void retainAll(IntList other) {
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            if (other.contains(elements[i])) {
+                elements[n++] = elements[i];
+            }
+        }
+        size = n;
+    }
+
+    /**
+     * Removes all elements, keeping the capacity.
+     */
+    public void clear() {
+        size = 0;
+    }
+}
@@ -0,0 +1,72 @@
+package common;
+
+/**
+ * A growable first-in-first-out queue of ints, kept in a ring buffer, for
+ * breadth-first traversals and simulations that would otherwise queue an
+ * object per item.
+ */
+public class IntQueue {
+
+    /**
+     * The ring buffer, its length always a power of two.
+     */
+    int[] elements;
+
+    /**
+     * The index of the first element.
+     */
+    int head;
+
+    /**
+     * The number of elements.
+     */
+    int size;
+
+    /**
+     * Creates an empty queue.
+     */
+    public IntQueue() {
+        elements = new int[1024];
+    }
+
+    /**
+     * Adds the given value at the end.
+     */
+    public void add(int value) {
+        if (size == elements.length) {
+            int[] a = new int[size * 2];
+            int n = size - head;
+            System.arraycopy(elements, head, a, 0, n);
+            System.arraycopy(elements, 0, a, n, head);
+            elements = a;
+            head = 0;
+        }
+
+        elements[(head + size++) & (elements.length - 1)] = value;
+    }
+
+    /**
+     * Removes and returns the first value.
+     */
+    public int remove() {
+        int value = elements[head];
+        head = (head + 1) & (elements.length - 1);
+        size--;
+        return value;
+    }
+
+    /**
+     * Reflects whether the queue is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all elements, keeping the capacity.
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+}
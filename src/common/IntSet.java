@@ -0,0 +1,111 @@
+package common;
+
+import java.util.Arrays;
+
+/**
+ * A set of ints with open addressing and linear probing, like IntIntMap
+ * without the values, for membership tests that would otherwise box each
+ * element into a HashSet.
+ */
+public class IntSet {
+
+    /**
+     * The elements of the slots, their length always a power of two.
+     */
+    int[] elements;
+
+    /**
+     * Reflects for each slot whether it holds an element.
+     */
+    boolean[] used;
+
+    /**
+     * The number of elements.
+     */
+    int size;
+
+    /**
+     * Creates an empty set.
+     */
+    public IntSet() {
+        elements = new int[16];
+        used = new boolean[16];
+    }
+
+    /**
+     * Returns the slot where the given value starts probing.
+     */
+    int slot(int value) {
+        int h = value * 0x9e3779b9;
+        return (h ^ h >>> 16) & (elements.length - 1);
+    }
+
+    /**
+     * Reflects whether the set contains the given value.
+     */
+    public boolean contains(int value) {
+        int mask = elements.length - 1;
+        for (int i = slot(value); used[i]; i = (i + 1) & mask) {
+            if (elements[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds the given value. Returns true if it was not in the set before.
+     */
+    public boolean add(int value) {
+        if (2 * (size + 1) > elements.length) {
+            grow();
+        }
+
+        int mask = elements.length - 1;
+        int i = slot(value);
+        while (used[i]) {
+            if (elements[i] == value) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+
+        used[i] = true;
+        elements[i] = value;
+        size++;
+        return true;
+    }
+
+    /**
+     * Returns the number of elements.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all elements, keeping the capacity.
+     */
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    /**
+     * Doubles the capacity and re-inserts all elements.
+     */
+    void grow() {
+        int[] e = elements;
+        boolean[] u = used;
+
+        elements = new int[e.length * 2];
+        used = new boolean[e.length * 2];
+        size = 0;
+
+        for (int i = 0; i < e.length; i++) {
+            if (u[i]) {
+                add(e[i]);
+            }
+        }
+    }
+}
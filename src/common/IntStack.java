@@ -0,0 +1,61 @@
+package common;
+
+import java.util.Arrays;
+
+/**
+ * A growable stack of ints, for traversals that keep their pending work on
+ * the heap instead of recursing, so they don't depend on a large thread
+ * stack. Work items of several ints (like an index and a direction) are
+ * pushed one int at a time and popped in reverse order.
+ */
+public class IntStack {
+
+    /**
+     * The elements, bottom first.
+     */
+    int[] elements;
+
+    /**
+     * The number of elements.
+     */
+    int size;
+
+    /**
+     * Creates an empty stack.
+     */
+    public IntStack() {
+        elements = new int[1024];
+    }
+
+    /**
+     * Pushes the given value.
+     */
+    public void push(int value) {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, size * 2);
+        }
+
+        elements[size++] = value;
+    }
+
+    /**
+     * Pops the topmost value.
+     */
+    public int pop() {
+        return elements[--size];
+    }
+
+    /**
+     * Reflects whether the stack is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all elements, keeping the capacity.
+     */
+    public void clear() {
+        size = 0;
+    }
+}
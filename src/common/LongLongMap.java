@@ -0,0 +1,157 @@
+package common;
+
+import java.util.Arrays;
+
+/**
+ * A map from long to long, like IntIntMap, for memo tables whose keys pack
+ * several small numbers into a long and whose values are counts that need
+ * 64 bits.
+ */
+public class LongLongMap {
+
+    /**
+     * The keys and values of the slots, their length always a power of two.
+     */
+    long[] keys, values;
+
+    /**
+     * Reflects for each slot whether it holds an entry.
+     */
+    boolean[] used;
+
+    /**
+     * The number of entries.
+     */
+    int size;
+
+    /**
+     * Creates an empty map.
+     */
+    public LongLongMap() {
+        keys = new long[16];
+        values = new long[16];
+        used = new boolean[16];
+    }
+
+    /**
+     * Returns the slot where the given key starts probing.
+     */
+    int slot(long key) {
+        long h = key * 0x9e3779b97f4a7c15L;
+        return (int) (h ^ h >>> 32) & (keys.length - 1);
+    }
+
+    /**
+     * Returns the slot of the given key, or -1 if it is not in the map.
+     */
+    int find(long key) {
+        int mask = keys.length - 1;
+        for (int i = slot(key); used[i]; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the value for the given key, or the given default if there is
+     * none.
+     */
+    public long get(long key, long missing) {
+        int i = find(key);
+        return i != -1 ? values[i] : missing;
+    }
+
+    /**
+     * Reflects whether the map has a value for the given key.
+     */
+    public boolean containsKey(long key) {
+        return find(key) != -1;
+    }
+
+    /**
+     * Sets the value for the given key.
+     */
+    public void put(long key, long value) {
+        if (2 * (size + 1) > keys.length) {
+            grow();
+        }
+
+        int mask = keys.length - 1;
+        int i = slot(key);
+        while (used[i] && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+
+        if (!used[i]) {
+            used[i] = true;
+            keys[i] = key;
+            size++;
+        }
+        values[i] = value;
+    }
+
+    /**
+     * Removes the given key and returns its value, or the given default if
+     * there was none.
+     */
+    public long remove(long key, long missing) {
+        int i = find(key);
+        if (i == -1) {
+            return missing;
+        }
+
+        long result = values[i];
+        int mask = keys.length - 1;
+
+        // Moves later entries of the run into the gap if they may live there
+        for (int j = (i + 1) & mask; used[j]; j = (j + 1) & mask) {
+            int k = slot(keys[j]);
+            if (((j - k) & mask) >= ((j - i) & mask)) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                i = j;
+            }
+        }
+
+        used[i] = false;
+        size--;
+        return result;
+    }
+
+    /**
+     * Returns the number of entries.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all entries, keeping the capacity.
+     */
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    /**
+     * Doubles the capacity and re-inserts all entries.
+     */
+    void grow() {
+        long[] k = keys;
+        long[] v = values;
+        boolean[] u = used;
+
+        keys = new long[k.length * 2];
+        values = new long[k.length * 2];
+        used = new boolean[k.length * 2];
+        size = 0;
+
+        for (int i = 0; i < k.length; i++) {
+            if (u[i]) {
+                put(k[i], v[i]);
+            }
+        }
+    }
+}
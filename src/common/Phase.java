@@ -0,0 +1,89 @@
+package common;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * One phase of a puzzle, like parsing, building a graph or the main search,
+ * recorded as a JDK Flight Recorder event (see PhaseEvent) with the duration,
+ * the number of items the phase processed and the bytes the current thread
+ * allocated in the meantime. Phases are off unless the aoc.phases system
+ * property is set or the launcher enables them (--jfr, --memory). While they
+ * are off, begin returns a shared phase that does nothing, and the Flight
+ * Recorder isn't even loaded. Typical usage:
+ *
+ *     Phase phase = Phase.begin(23, "findNodes");
+ *     ...
+ *     phase.end(nodes.size());
+ */
+public class Phase {
+
+    /**
+     * Provides allocation numbers for the current thread.
+     */
+    static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * Reflects whether phases are recorded. Set before any day runs.
+     */
+    static boolean enabled = Boolean.getBoolean("aoc.phases");
+
+    /**
+     * The phase returned while phases are off.
+     */
+    static final Phase NONE = new Phase(null);
+
+    /**
+     * The event of this phase, or null if phases are off.
+     */
+    final PhaseEvent event;
+
+    /**
+     * Creates a phase recording the given event.
+     */
+    Phase(PhaseEvent event) {
+        this.event = event;
+    }
+
+    /**
+     * Starts a new phase of the given day.
+     */
+    public static Phase begin(int day, String phase) {
+        if (!enabled) {
+            return NONE;
+        }
+
+        PhaseEvent e = new PhaseEvent();
+
+        if (e.isEnabled()) {
+            e.day = day;
+            e.phase = phase;
+            e.allocated = THREADS.getCurrentThreadAllocatedBytes();
+            e.begin();
+        }
+
+        return new Phase(e);
+    }
+
+    /**
+     * Ends the phase after processing the given number of items and commits
+     * the event.
+     */
+    public void end(long items) {
+        if (event != null && event.isEnabled()) {
+            event.end();
+
+            if (event.shouldCommit()) {
+                event.items = items;
+                event.allocated = THREADS.getCurrentThreadAllocatedBytes() - event.allocated;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Turns recording phases on or off.
+     */
+    public static void enable(boolean on) {
+        enabled = on;
+    }
+}
@@ -0,0 +1,47 @@
+package common;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The JDK Flight Recorder event behind a Phase. Kept apart from Phase, since
+ * loading the first Event subclass starts up the Flight Recorder, which takes
+ * longer than most days do. Only loaded once phases are enabled.
+ */
+@Name("aoc.Phase")
+@Label("Puzzle Phase")
+@Category("Advent of Code")
+@Description("A phase of a puzzle, with items processed and bytes allocated")
+@StackTrace(false)
+class PhaseEvent extends Event {
+
+    /**
+     * The day of the puzzle.
+     */
+    @Label("Day")
+    int day;
+
+    /**
+     * The name of the phase, usually the name of the method.
+     */
+    @Label("Phase")
+    String phase;
+
+    /**
+     * The number of items (lines, nodes, steps, ...) processed.
+     */
+    @Label("Items")
+    long items;
+
+    /**
+     * The number of bytes allocated by the current thread.
+     */
+    @Label("Allocated")
+    @DataAmount
+    long allocated;
+}
@@ -0,0 +1,13 @@
+package common;
+
+/**
+ * Represents the answers for both parts of a puzzle. Days without a second
+ * part (or where it can't be computed) report 0 for it.
+ */
+public record Result(long part1, long part2) {
+
+    @Override
+    public String toString() {
+        return "Part 1: " + part1 + ", Part 2: " + part2;
+    }
+}
@@ -0,0 +1,18 @@
+package common;
+
+import java.io.IOException;
+
+/**
+ * Common interface of all puzzles, so they can be run (and timed) by the
+ * launcher without going through their main methods.
+ */
+public interface Solver {
+
+    /**
+     * Solves the puzzle for the given input file and returns both parts. Some
+     * days accept "-" (see Input.STDIN) as file to read standard input. In
+     * quiet mode no diagnostic output is rendered at all, so timings reflect
+     * the algorithm and not the terminal.
+     */
+    Result solve(String file, boolean quiet) throws IOException;
+}
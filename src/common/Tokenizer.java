@@ -0,0 +1,132 @@
+package common;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Parses integer tokens out of text with a cursor, so days need neither a
+ * regex split nor a String per number. Days that read their input line by
+ * line reset a single tokenizer for each line; Input's cursor is a
+ * tokenizer over a view of its bytes. A token is a run of digits, negative
+ * if a minus sign is directly in front of it; everything else separates
+ * tokens.
+ */
+public class Tokenizer {
+
+    /**
+     * The longest text the error messages quote.
+     */
+    static final int QUOTE = 200;
+
+    /**
+     * The text being parsed.
+     */
+    CharSequence text;
+
+    /**
+     * The current position of the cursor.
+     */
+    int position;
+
+    /**
+     * Starts parsing the given text from its beginning. Returns this
+     * tokenizer, for chaining.
+     */
+    public Tokenizer reset(CharSequence text) {
+        this.text = text;
+        position = 0;
+        return this;
+    }
+
+    /**
+     * Returns the current position of the cursor.
+     */
+    public int position() {
+        return position;
+    }
+
+    /**
+     * Moves the cursor to the given offset.
+     */
+    public void seek(int offset) {
+        position = offset;
+    }
+
+    /**
+     * Checks if the character at the given offset is a digit.
+     */
+    boolean isDigit(int offset) {
+        return offset < text.length() && text.charAt(offset) >= '0' && text.charAt(offset) <= '9';
+    }
+
+    /**
+     * Returns the offset of the first token at or after the given offset, or
+     * the length of the text if there is none.
+     */
+    int skip(int offset) {
+        int length = text.length();
+        while (offset < length && !isDigit(offset) && !(text.charAt(offset) == '-' && isDigit(offset + 1))) {
+            offset++;
+        }
+        return offset;
+    }
+
+    /**
+     * Reflects whether there is another token after the cursor.
+     */
+    public boolean hasNext() {
+        position = skip(position);
+        return position < text.length();
+    }
+
+    /**
+     * Returns the number of tokens after the cursor, without moving it.
+     */
+    public int count() {
+        int result = 0;
+        int i = skip(position);
+        while (i < text.length()) {
+            result++;
+            i++;
+            while (isDigit(i)) {
+                i++;
+            }
+            i = skip(i);
+        }
+        return result;
+    }
+
+    /**
+     * Parses the next integer token after the cursor, skipping anything that
+     * isn't one. Leaves the cursor just behind the token.
+     */
+    public long nextLong() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more numbers at offset " + position + (text.length() <= QUOTE ? " of '" + text + "'" : ""));
+        }
+
+        boolean negative = text.charAt(position) == '-';
+        if (negative) {
+            position++;
+        }
+
+        long result = 0;
+        while (isDigit(position)) {
+            result = result * 10 + text.charAt(position++) - '0';
+        }
+
+        return negative ? -result : result;
+    }
+
+    /**
+     * Parses the next integer token after the cursor. See nextLong(). Throws
+     * a NumberFormatException if the token doesn't fit into an int, like
+     * Integer.parseInt does.
+     */
+    public int nextInt() {
+        long result = nextLong();
+        if (result != (int) result) {
+            throw new NumberFormatException("Not an int: " + result);
+        }
+        return (int) result;
+    }
+}
@@ -0,0 +1,165 @@
+package common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * The worker threads days use to split up their own work, like the entry
+ * beams of day 16 or the lines of day 12. The work is cut into chunks,
+ * several per thread so uneven chunks even out, and the chunks are run on a
+ * shared pool. The pool size is configurable so the scaling can be measured
+ * (see benchmark.Threads): the aoc.workers system property sets the initial
+ * size, the number of processors by default, and threads(int) changes it.
+ * With a single thread all chunks run on the caller's thread, so there is no
+ * overhead, and the launcher's CPU time and allocation per day, which are
+ * measured on the day's own thread, stay exact. Interrupting the thread
+ * waiting for the chunks stops the work: chunks not started yet are skipped,
+ * running ones see the request through Cancelled.requested(), and the
+ * waiting thread gives up at once with a Cancelled.
+ */
+public class Workers {
+
+    /**
+     * The number of chunks per thread.
+     */
+    static final int CHUNKS = 4;
+
+    /**
+     * The number of worker threads.
+     */
+    static int threads = Integer.getInteger("aoc.workers", Runtime.getRuntime().availableProcessors());
+
+    /**
+     * The pool, created when first needed.
+     */
+    static ForkJoinPool pool;
+
+    /**
+     * The stop flag of the work the current worker thread runs a chunk of.
+     */
+    static final ThreadLocal<AtomicBoolean> stop = new ThreadLocal();
+
+    /**
+     * Returns the number of worker threads.
+     */
+    public static synchronized int threads() {
+        return threads;
+    }
+
+    /**
+     * Sets the number of worker threads. Work already running finishes on
+     * the old pool.
+     */
+    public static synchronized void threads(int n) {
+        if (n < 1) {
+            throw new IllegalArgumentException("Need at least one worker thread, not " + n);
+        }
+
+        if (n != threads) {
+            if (pool != null) {
+                pool.shutdown();
+                pool = null;
+            }
+            threads = n;
+        }
+    }
+
+    /**
+     * Returns the pool, creating it if needed.
+     */
+    static synchronized ForkJoinPool pool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(threads);
+        }
+        return pool;
+    }
+
+    /**
+     * Returns the number of chunks to cut the given number of work items
+     * into: one if the work shouldn't run in parallel (like when the day
+     * prints diagnostics, which need to stay in order), a few per thread
+     * otherwise, but never more than there are items.
+     */
+    public static int chunks(int items, boolean parallel) {
+        return Math.max(1, Math.min(items, parallel ? threads() * CHUNKS : 1));
+    }
+
+    /**
+     * Returns the first work item of the given chunk, so chunk k covers the
+     * items from(k) up to but not including from(k + 1).
+     */
+    public static int from(int chunk, int chunks, int items) {
+        return (int) ((long) items * chunk / chunks);
+    }
+
+    /**
+     * Reflects whether the work the current worker thread runs a chunk of
+     * has been stopped.
+     */
+    static boolean stopped() {
+        AtomicBoolean s = stop.get();
+        return s != null && s.get();
+    }
+
+    /**
+     * Runs the given task for each chunk and returns the results in the
+     * order of the chunks. Tasks run concurrently, so they must not share
+     * mutable state. Throws a Cancelled if the calling thread is interrupted
+     * meanwhile.
+     */
+    public static <T> List<T> map(int chunks, IntFunction<T> task) {
+        if (chunks == 1 || threads() == 1) {
+            ArrayList<T> result = new ArrayList();
+            for (int k = 0; k < chunks; k++) {
+                if (k > 0 && Cancelled.requested()) {
+                    throw new Cancelled(k + " of " + chunks + " chunks done");
+                }
+                result.add(task.apply(k));
+            }
+            return result;
+        }
+
+        AtomicBoolean stopped = new AtomicBoolean();
+        AtomicInteger done = new AtomicInteger();
+
+        IntFunction<T> chunk = k -> {
+            AtomicBoolean outer = stop.get();
+            stop.set(stopped);
+            try {
+                if (Cancelled.requested()) {
+                    throw new Cancelled(done.get() + " of " + chunks + " chunks done");
+                }
+                T t = task.apply(k);
+                done.incrementAndGet();
+                return t;
+            } finally {
+                stop.set(outer);
+            }
+        };
+
+        ForkJoinTask<List<T>> f = pool().submit(() -> IntStream.range(0, chunks).parallel().mapToObj(chunk).toList());
+        try {
+            return f.get();
+        } catch (InterruptedException e) {
+            stopped.set(true);
+            f.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new Cancelled(done.get() + " of " + chunks + " chunks done");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException r) {
+                throw r;
+            }
+            if (e.getCause() instanceof Error r) {
+                throw r;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
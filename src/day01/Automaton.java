@@ -0,0 +1,168 @@
+package day01;
+
+import common.IntQueue;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Finds the first and the last of a set of words in a line of bytes, without
+ * a regex or a String. This is an Aho-Corasick automaton with its failure
+ * links folded into the transition table, so it reads each byte exactly once,
+ * with a single table lookup. There are two tables: one for the words, to
+ * find the first word scanning forward from the start of the line, and one
+ * for the reversed words, to find the last word scanning backward from the
+ * end. Scanning stops at the first word completed. That is the leftmost
+ * (rightmost) word as long as no word occurs inside another one other than
+ * at its end (start), which holds for digits and the names of digits.
+ */
+public class Automaton {
+
+    /**
+     * The number of different bytes.
+     */
+    static final int BYTES = 256;
+
+    /**
+     * The character class of each byte: every byte that occurs in a word has
+     * a class of its own, all other bytes share class 0. Keeps the tables
+     * small enough to stay in the L1 cache.
+     */
+    final byte[] classes = new byte[BYTES];
+
+    /**
+     * The number of character classes.
+     */
+    final int width;
+
+    /**
+     * The transitions for scanning forward and backward. The state after
+     * reading a byte of class c in state s is at s * width + c. A state
+     * that completes a word is stored as minus one minus the word's value
+     * instead, and ends the scan. The start state is 0.
+     */
+    final int[] forward, backward;
+
+    /**
+     * Creates an automaton for the given words with the given values.
+     */
+    Automaton(String[] words, int[] values) {
+        int n = 1;
+        for (String w: words) {
+            for (int i = 0; i < w.length(); i++) {
+                if (classes[w.charAt(i)] == 0) {
+                    classes[w.charAt(i)] = (byte) n++;
+                }
+            }
+        }
+        width = n;
+
+        forward = build(words, values, false);
+        backward = build(words, values, true);
+    }
+
+    /**
+     * Builds the transition table for the given words, reversed if
+     * requested. Builds the trie of the words first, then computes the
+     * failure links breadth first and replaces the missing transitions of
+     * each state with those of the state its failure link points to.
+     */
+    int[] build(String[] words, int[] values, boolean reversed) {
+        int states = 1;
+        for (String w: words) {
+            states += w.length();
+        }
+
+        int[] next = new int[states * width];
+        int[] value = new int[states];
+        int[] fail = new int[states];
+        int size = 1;
+
+        Arrays.fill(value, -1);
+
+        for (int k = 0; k < words.length; k++) {
+            int s = 0;
+            for (int i = 0; i < words[k].length(); i++) {
+                int c = classes[words[k].charAt(reversed ? words[k].length() - 1 - i : i)];
+                if (next[s * width + c] == 0) {
+                    next[s * width + c] = size++;
+                }
+                s = next[s * width + c];
+            }
+            value[s] = values[k];
+        }
+
+        IntQueue queue = new IntQueue();
+        for (int c = 0; c < width; c++) {
+            if (next[c] != 0) {
+                queue.add(next[c]);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            int s = queue.remove();
+            if (value[s] == -1) {
+                value[s] = value[fail[s]];
+            }
+
+            for (int c = 0; c < width; c++) {
+                int t = next[s * width + c];
+                if (t == 0) {
+                    next[s * width + c] = next[fail[s] * width + c];
+                } else {
+                    fail[t] = next[fail[s] * width + c];
+                    queue.add(t);
+                }
+            }
+        }
+
+        // States completing a word end the scan, so they are encoded in the
+        // transitions leading there
+        for (int i = 0; i < size * width; i++) {
+            if (value[next[i]] != -1) {
+                next[i] = -1 - value[next[i]];
+            }
+        }
+
+        return next;
+    }
+
+    /**
+     * Returns the value of the first word between the given offsets of the
+     * given bytes, or -1 if there is none.
+     */
+    int first(ByteBuffer in, int from, int to) {
+        int s = 0;
+        for (int i = from; i < to; i++) {
+            s = forward[s * width + classes[in.get(i) & 0xff]];
+            if (s < 0) {
+                return -1 - s;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the value of the last word between the given offsets of the
+     * given bytes, or -1 if there is none.
+     */
+    int last(ByteBuffer in, int from, int to) {
+        int s = 0;
+        for (int i = to - 1; i >= from; i--) {
+            s = backward[s * width + classes[in.get(i) & 0xff]];
+            if (s < 0) {
+                return -1 - s;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the calibration value between the given offsets of the given
+     * bytes: the values of the first and the last word as a two-digit
+     * number, or 0 if there are no words.
+     */
+    int number(ByteBuffer in, int from, int to) {
+        int first = first(in, from, to);
+        return first == -1 ? 0 : 10 * first + last(in, from, to);
+    }
+}
@@ -1,89 +1,158 @@
 package day01;
 
+import common.Cancelled;
+import common.Input;
+import common.Result;
+import common.Solver;
+import common.Workers;
 import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
-import java.util.regex.Pattern;
-import java.util.regex.Matcher;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
- * Day 01 "Trebuchet?!". Straightforward solution, mostly based on regular
- * expressions.
+ * Day 01 "Trebuchet?!". Finds the first and the last digit of each line with
+ * an automaton that scans the line's bytes once from each end (see
+ * Automaton), for part 2 also recognizing the names of digits.
  */
-public class Puzzle {
+public class Puzzle implements Solver {
 
     /**
-     * Digits.
+     * Suppresses all diagnostic output when set.
      */
-    static final Pattern PART_1_REGEX = Pattern.compile("[0-9]");
+    boolean quiet;
 
     /**
-     * Digits and text representations of digits.
+     * Finds digits.
      */
-    static final Pattern PART_2_REGEX = Pattern.compile("[0-9]|one|two|three|four|five|six|seven|eight|nine");
+    static final Automaton PART_1 = new Automaton(
+            new String[] { "0", "1", "2", "3", "4", "5", "6", "7", "8", "9" },
+            new int[] { 0, 1, 2, 3, 4, 5, 6, 7, 8, 9 });
 
     /**
-     * Returns the digit value for the given string.
+     * Finds digits and text representations of digits.
      */
-    int digit(String s) {
-        return switch (s) {
-            case "one"   -> 1;
-            case "two"   -> 2;
-            case "three" -> 3;
-            case "four"  -> 4;
-            case "five"  -> 5;
-            case "six"   -> 6;
-            case "seven" -> 7;
-            case "eight" -> 8;
-            case "nine"  -> 9;
-                
-            default -> Integer.parseInt(s);
-        };
-    }
-    
+    static final Automaton PART_2 = new Automaton(
+            new String[] { "0", "1", "2", "3", "4", "5", "6", "7", "8", "9",
+                    "one", "two", "three", "four", "five", "six", "seven", "eight", "nine" },
+            new int[] { 0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 1, 2, 3, 4, 5, 6, 7, 8, 9 });
+
     /**
-     * Returns the number for the given string and regex pattern.
+     * Solves the lines in the given window of the input. Returns the sums of
+     * the calibration values for both parts. The window is scanned once for
+     * the line ends, the automatons then only look at the ends of each line.
+     * Checks every 64K lines or so whether it has been asked to stop.
      */
-    int number(String s, Pattern p) {
-        if ("".equals(s)) return 0;
-        
-        Matcher m = p.matcher(s);
-        
-        if (m.find()) {
-            int first = digit(m.group());
-            int last = first;
-
-            while (m.find(m.start() + 1)) {
-                last = digit(m.group());
+    Result solve(ByteBuffer window) {
+        long part1 = 0;
+        long part2 = 0;
+        long lines = 0;
+
+        int size = window.limit();
+        int start = 0;
+        while (start < size) {
+            if ((++lines & 0xffff) == 0 && Cancelled.requested()) {
+                throw new Cancelled("solved " + lines + " lines of a window");
+            }
+
+            if (!quiet) {
+                System.out.print('.');
             }
-           
-            return 10 * first + last;
+
+            int end = start;
+            while (end < size && window.get(end) != '\n') {
+                end++;
+            }
+            int next = end + 1;
+            if (end > start && window.get(end - 1) == '\r') {
+                end--;
+            }
+
+            part1 += PART_1.number(window, start, end);
+            part2 += PART_2.number(window, start, end);
+            start = next;
+        }
+
+        return new Result(part1, part2);
+    }
+
+    /**
+     * Solves the puzzle for the given windows of the input. The lines are
+     * independent, so the windows are split up among the worker threads,
+     * each scanning its own, and the sums are added up. Inputs too large for
+     * a single window are cut into several even when printing diagnostics,
+     * but then they are scanned in order on this thread.
+     */
+    Result solve(ByteBuffer[] windows) {
+        long part1 = 0;
+        long part2 = 0;
+
+        List<Result> results = new ArrayList();
+        if (quiet) {
+            results = Workers.map(windows.length, k -> solve(windows[k]));
         } else {
-            return 0;        
-        }        
+            for (ByteBuffer w: windows) {
+                results.add(solve(w));
+            }
+        }
+
+        for (Result r: results) {
+            part1 += r.part1();
+            part2 += r.part2();
+        }
+
+        return result(part1, part2);
     }
 
     /**
-     * Solves the puzzle for the input coming from the given reader.
-     */    
-    void solve(BufferedReader r) throws IOException {
-        int part1 = 0;
-        int part2 = 0;
-        
+     * Solves the puzzle for the input coming from the given reader, one line
+     * at a time, so the input can be of any length. Checks every 64K lines
+     * or so whether it has been asked to stop.
+     */
+    Result solve(BufferedReader r) throws IOException {
+        long part1 = 0;
+        long part2 = 0;
+        long lines = 0;
+
         String s = r.readLine();
-        while (s != null) {    
-            System.out.print('.');
-            part1 += number(s, PART_1_REGEX);
-            part2 += number(s, PART_2_REGEX);
+        while (s != null) {
+            if ((++lines & 0xffff) == 0 && Cancelled.requested()) {
+                throw new Cancelled("solved " + lines + " lines");
+            }
+
+            if (!quiet) {
+                System.out.print('.');
+            }
+            ByteBuffer b = ByteBuffer.wrap(s.getBytes());
+            part1 += PART_1.number(b, 0, b.limit());
+            part2 += PART_2.number(b, 0, b.limit());
             s = r.readLine();
         }
 
-        System.out.println();
-        System.out.println();
-        System.out.printf("Part 1: %6d\n", part1);
-        System.out.printf("Part 2: %6d\n", part2);
+        return result(part1, part2);
     }
-    
+
+    /**
+     * Prints and returns the given answers.
+     */
+    Result result(long part1, long part2) {
+        if (!quiet) {
+            System.out.println();
+            System.out.println();
+            System.out.printf("Part 1: %6d\n", part1);
+            System.out.printf("Part 2: %6d\n", part2);
+        }
+
+        return new Result(part1, part2);
+    }
+
+    @Override
+    public Result solve(String file, boolean quiet) throws IOException {
+        this.quiet = quiet;
+        return Input.STDIN.equals(file) ? solve(Input.open(file)) : solve(Input.windows(file, Workers.chunks(Integer.MAX_VALUE, quiet)));
+    }
+
     /**
      * Provides the canonical entry point.
      */
@@ -91,9 +160,9 @@ public class Puzzle {
         System.out.println();
         System.out.println("*** AoC 2023.01 Trebuchet?! ***");
         System.out.println();
-        
-        new Puzzle().solve(new BufferedReader(new FileReader(args[0])));
-        
+
+        new Puzzle().solve(args[0], false);
+
         System.out.println();
     }
 }
@@ -1,13 +1,20 @@
 package day02;
 
+import common.Input;
+import common.Result;
+import common.Solver;
 import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
 
 /**
  * Day 02 "Cube Conundrum".
  */
-public class Puzzle {
+public class Puzzle implements Solver {
+
+    /**
+     * Suppresses all diagnostic output when set.
+     */
+    boolean quiet;
 
     /**
      * Represents a single game.
@@ -82,22 +89,26 @@ public class Puzzle {
     /**
      * Solves the puzzle for the input coming from the given reader.
      */    
-    void solve(BufferedReader r) throws IOException {
-        int part1 = 0;
-        int part2 = 0;
+    Result solve(BufferedReader r) throws IOException {
+        long part1 = 0;
+        long part2 = 0;
         
-        System.out.print("Num  R  G  B  P+P");
-        System.out.println(" | Num  R  G  B  P+P".repeat(3));
-        System.out.println("-".repeat(77));
+        if (!quiet) {
+            System.out.print("Num  R  G  B  P+P");
+            System.out.println(" | Num  R  G  B  P+P".repeat(3));
+            System.out.println("-".repeat(77));
+        }
         
         String s = r.readLine();
         while (s != null) {
             Game g = new Game(s);
-            System.out.print(g.toString());
-            if (g.getNumber() % 4 == 0) {
-                System.out.println("   ");
-            } else {
-                System.out.print(" | ");
+            if (!quiet) {
+                System.out.print(g.toString());
+                if (g.getNumber() % 4 == 0) {
+                    System.out.println("   ");
+                } else {
+                    System.out.print(" | ");
+                }
             }
             
             if (g.isPossible()) {
@@ -108,9 +119,19 @@ public class Puzzle {
             s = r.readLine();
         }
         
-        System.out.println();
-        System.out.println("Part 1: " + part1);
-        System.out.println("Part 2: " + part2);
+        if (!quiet) {
+            System.out.println();
+            System.out.println("Part 1: " + part1);
+            System.out.println("Part 2: " + part2);
+        }
+        
+        return new Result(part1, part2);
+    }
+    
+    @Override
+    public Result solve(String file, boolean quiet) throws IOException {
+        this.quiet = quiet;
+        return solve(Input.open(file));
     }
     
     /**
@@ -121,7 +142,7 @@ public class Puzzle {
         System.out.println("*** AoC 2023.02 Cube Conundrum ***");
         System.out.println();
         
-        new Puzzle().solve(new BufferedReader(new FileReader(args[0])));
+        new Puzzle().solve(args[0], false);
         
         System.out.println();
     }
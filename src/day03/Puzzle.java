@@ -1,77 +1,71 @@
 package day03;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
+import common.Grid;
+import common.Input;
+import common.Result;
+import common.Solver;
 import java.io.IOException;
 import java.util.HashSet;
 
 /**
  * Day 03 "Gear Ratios"
  */
-public class Puzzle {
+public class Puzzle implements Solver {
 
     /**
-     * Width and height of our (square) input.
+     * Suppresses all diagnostic output when set.
      */
-    int size;
-    
+    boolean quiet;
+
     /**
      * The input as read from the file plus a border of 1 character.
      */
-    char[][] schematic;
+    Grid schematic;
 
     /**
-     * Helps us keep track of which numbers have already been extracted.
+     * Helps us keep track of which numbers have already been extracted, by
+     * the index of the cell just before their first digit.
      */
-    HashSet<String> seen = new HashSet();
+    HashSet<Integer> seen = new HashSet();
 
     /**
-     * Loads the input from the given Reader.
+     * Checks if the cell at the given index holds a digit.
      */
-    void load(BufferedReader r) throws IOException {
-        String s = r.readLine();
-        
-        size = s.length();
-        schematic = new char[size + 2][];
-        
-        schematic[0] = " ".repeat(size + 2).toCharArray();
-        
-        for (int i = 1; i <= size; i++) {
-            s = " " + s + " ";
-            schematic[i] = s.toCharArray();
-            s = r.readLine();
-        }
-
-        schematic[size + 1] = schematic[0].clone();
+    boolean isDigit(int index) {
+        byte b = schematic.get(index);
+        return b >= '0' && b <= '9';
     }
     
     /**
-     * Extracts a number in line i, starting at column j, going  both backward
-     * and forward. Returns the number if successful. Returns 0 if there is no
-     * number to extract or we've already extracted that number.
+     * Extracts a number at the given index, going both backward and forward.
+     * Returns the number if successful. Returns 0 if there is no number to
+     * extract or we've already extracted that number. The border guarantees
+     * that numbers never continue into the next row.
      */
-    int extract(int i, int j) {
-        int start = j;
-        int end = j;
+    int extract(int index) {
+        int start = index;
+        int end = index;
         
-        while (Character.isDigit(schematic[i][start])) {    // To the left
+        while (isDigit(start)) {                            // To the left
             start--;
         }
 
-        while (Character.isDigit(schematic[i][end])) {      // To the right
+        while (isDigit(end)) {                              // To the right
             end++;
         }
         
         if (start != end) {
-            String key = i + "," + start + "-" + end;       // e.g. "5,12-14"
-            if (!seen.contains(key)) {
-                seen.add(key);
-
-                System.out.print('_');
+            if (seen.add(start)) {
+                if (!quiet) {
+                    System.out.print('_');
+                }
                 
-                String s = new String(schematic[i], start + 1, end - start - 1);
+                int result = 0;
+                for (int i = start + 1; i < end; i++) {
+                    result = result * 10 + schematic.get(i) - '0';
+                }
                 
-                return Integer.parseInt(s);
+                return result;
             }
         } 
             
@@ -79,30 +73,32 @@ public class Puzzle {
     }
     
     /**
-     * Solves the puzzle for the input coming from the given reader.
+     * Solves the puzzle for the given input.
      */    
-    void solve(BufferedReader r) throws IOException {
+    Result solve(Input in) {
         int part1 = 0;
         int part2 = 0;
         
-        load(r);
+        schematic = Grid.load(in, 1, (byte) ' ');
+        int[] neighbours = schematic.neighbours();
 
         /*
          * Part 1: Find symbols and try to extract numbers in all adjacent
          * locations. Don't "put back" the numbers because we don't want to see
          * any number more than once.
          */
-        for (int i = 1; i <= size; i++) {
-            for (int j = 1; j <= size; j++) {
-                char c = schematic[i][j];
+        for (int i = 0; i < schematic.height(); i++) {
+            for (int j = 0; j < schematic.width(); j++) {
+                int index = schematic.index(i, j);
+                char c = (char) schematic.get(index);
                 
-                if (c != '.' && !Character.isDigit(c)) {
-                    System.out.print(c);
+                if (c != '.' && !isDigit(index)) {
+                    if (!quiet) {
+                        System.out.print(c);
+                    }
                     
-                    for (int k = - 1; k <= 1; k++) {
-                        for (int l = -1; l <= 1; l++) {
-                            part1 += extract(i + k, j + l);
-                        }
+                    for (int n: neighbours) {
+                        part1 += extract(index + n);
                     }
                 }
             }
@@ -115,23 +111,23 @@ public class Puzzle {
          * and add them if the count is exactly 2. "Put back" numbers because
          * the same number might go into another gear ratio.
          */
-        for (int i = 1; i <= size; i++) {
-            for (int j = 1; j <= size; j++) {
-                char c = schematic[i][j];
+        for (int i = 0; i < schematic.height(); i++) {
+            for (int j = 0; j < schematic.width(); j++) {
+                int index = schematic.index(i, j);
                 
-                if (c == '*' ) {
-                    System.out.print('*');
+                if (schematic.get(index) == '*' ) {
+                    if (!quiet) {
+                        System.out.print('*');
+                    }
                     
                     int count = 0;
                     int ratio = 1;
                     
-                    for (int k = - 1; k <= 1; k++) {
-                        for (int l = -1; l <= 1; l++) {
-                            int m = extract(i + k, j + l);
-                            if (m != 0) {
-                                ratio = ratio * m;
-                                count++;
-                            }
+                    for (int n: neighbours) {
+                        int m = extract(index + n);
+                        if (m != 0) {
+                            ratio = ratio * m;
+                            count++;
                         }
                     }
                     
@@ -144,10 +140,20 @@ public class Puzzle {
             }
         }
         
-        System.out.println();
-        System.out.println();
-        System.out.println("Part 1: " + part1);
-        System.out.println("Part 2: " + part2);
+        if (!quiet) {
+            System.out.println();
+            System.out.println();
+            System.out.println("Part 1: " + part1);
+            System.out.println("Part 2: " + part2);
+        }
+        
+        return new Result(part1, part2);
+    }
+    
+    @Override
+    public Result solve(String file, boolean quiet) throws IOException {
+        this.quiet = quiet;
+        return solve(Input.map(file));
     }
     
     /**
@@ -158,7 +164,7 @@ public class Puzzle {
         System.out.println("*** AoC 2023.03 Gear Ratios ***");
         System.out.println();
         
-        new Puzzle().solve(new BufferedReader(new FileReader(args[0])));
+        new Puzzle().solve(args[0], false);
         
         System.out.println();
     }
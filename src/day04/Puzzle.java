@@ -1,24 +1,32 @@
 package day04;
 
+import common.Input;
+import common.IntSet;
+import common.LongLongMap;
+import common.Result;
+import common.Solver;
 import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.HashSet;
 
 /**
  * Day 4 "Scratchcards" simple, mostly procedural solution.
  */
-public class Puzzle {
+public class Puzzle implements Solver {
+
+    /**
+     * Suppresses all diagnostic output when set.
+     */
+    boolean quiet;
     
     /**
      * Solves the puzzle for the input coming from the given reader.
      */    
-    void solve(BufferedReader r) throws IOException {
-        int part1 = 0;
+    Result solve(BufferedReader r) throws IOException {
+        long part1 = 0;
+        long part2 = 0;
         
-        HashMap<Integer, Integer> cards = new HashMap();   // Instances per card
+        LongLongMap cards = new LongLongMap();  // Instances per upcoming card
+        IntSet wins = new IntSet();             // Winning numbers of current card
         
         String s = r.readLine();
         while (s != null) {
@@ -26,33 +34,49 @@ public class Puzzle {
             
             int id = Integer.parseInt(a[0].substring(4).trim());
             
-            // Store numbers in sets for quick access
-            HashSet<String> wins = new HashSet(Arrays.asList(a[1].split(" +")));
-            HashSet<String> mine = new HashSet(Arrays.asList(a[2].split(" +")));
+            // Store winning numbers in a set for quick access
+            wins.clear();
+            for (String t: a[1].trim().split(" +")) {
+                wins.add(Integer.parseInt(t));
+            }
             
             // Determine current card's score
-            wins.retainAll(mine);
-            int hits = wins.size();
+            int hits = 0;
+            for (String t: a[2].trim().split(" +")) {
+                if (wins.contains(Integer.parseInt(t))) {
+                    hits++;
+                }
+            }
             
             // Calculate effect on part1 and part2.
             if (hits != 0) {
-                part1 += 1 << (hits - 1);
+                part1 += 1L << (hits - 1);
             }
 
-            cards.put(id, cards.getOrDefault(id, 1));
+            // Done with this card, so only upcoming ones stay in the map
+            long count = cards.remove(id, 1);
+            part2 += count;
             
             for (int i = id + 1; i <= id + hits; i++) {
-                cards.put(i, cards.getOrDefault(i, 1) + cards.getOrDefault(id, 1));
+                cards.put(i, cards.get(i, 1) + count);
             }
             
             s = r.readLine();
         }
-
-        int part2 = cards.values().stream().reduce(0, Integer::sum);
         
-        System.out.println();
-        System.out.println("Part 1: " + part1);
-        System.out.println("Part 2: " + part2);
+        if (!quiet) {
+            System.out.println();
+            System.out.println("Part 1: " + part1);
+            System.out.println("Part 2: " + part2);
+        }
+        
+        return new Result(part1, part2);
+    }
+    
+    @Override
+    public Result solve(String file, boolean quiet) throws IOException {
+        this.quiet = quiet;
+        return solve(Input.open(file));
     }
     
     /**
@@ -63,7 +87,7 @@ public class Puzzle {
         System.out.println("*** AoC 2023.04 Scratchcards ***");
         System.out.println();
         
-        new Puzzle().solve(new BufferedReader(new FileReader(args[0])));
+        new Puzzle().solve(args[0], false);
         
         System.out.println();
     }
@@ -1,5 +1,8 @@
 package day05;
 
+import common.Result;
+import common.Solver;
+import common.Tokenizer;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
@@ -8,7 +11,17 @@ import java.util.ArrayList;
 /**
  * Day 5 "If You Give A Seed A Fertilizer" solution based on "range arithmetic".
  */
-public class Puzzle {
+public class Puzzle implements Solver {
+
+    /**
+     * Suppresses all diagnostic output when set.
+     */
+    boolean quiet;
+
+    /**
+     * Parses the numbers out of the input lines.
+     */
+    Tokenizer tokens = new Tokenizer();
 
     /**
      * Represents a range. Start is inclusive. End is exclusive.
@@ -59,10 +72,11 @@ public class Puzzle {
         }
         
         public void parseEntry(String s) {
-            String[] a = s.split(" ");
-            long start = Long.parseLong(a[1]);
-            long end = start + Long.parseLong(a[2]);
-            long delta = Long.parseLong(a[0]) - start;
+            tokens.reset(s);
+            long target = tokens.nextLong();
+            long start = tokens.nextLong();
+            long end = start + tokens.nextLong();
+            long delta = target - start;
 
             entries.add(new Entry(start, end, delta));
         }
@@ -124,14 +138,14 @@ public class Puzzle {
     /**
      * Solves the puzzle for the input coming from the given reader.
      */    
-    void solve(BufferedReader r) throws IOException {
+    Result solve(BufferedReader r) throws IOException {
         ArrayList<Mapping> mappings = new ArrayList();
         
         String s = r.readLine();
-        String[] a = s.split(" ");
-        long[] values = new long[a.length - 1];
+        tokens.reset(s);
+        long[] values = new long[tokens.count()];
         for (int i = 0; i < values.length; i++) {
-            values[i] = Long.parseLong(a[i + 1]);
+            values[i] = tokens.nextLong();
         }
         
         s = r.readLine();
@@ -149,17 +163,25 @@ public class Puzzle {
 
         Long part1 = Long.MAX_VALUE;
         for (long i: values) {
-            System.out.print(i);
+            if (!quiet) {
+                System.out.print(i);
+            }
             for (Mapping m: mappings) {
                 i = m.mapValue(i);
-                System.out.print(" -> " + i);
+                if (!quiet) {
+                    System.out.print(" -> " + i);
+                }
+            }
+            if (!quiet) {
+                System.out.println();
             }
-            System.out.println();
             
             part1 = Math.min(part1, i);
         }
 
-        System.out.println();
+        if (!quiet) {
+            System.out.println();
+        }
 
 //        Long part2 = Long.MAX_VALUE;
 //        for (int i = 0; i < values.length; i += 2) {
@@ -179,23 +201,39 @@ public class Puzzle {
             ArrayList<Range> ranges = new ArrayList();
             Range source = new Range(values[i], values[i] + values[i + 1]);
             ranges.add(source);
-            System.out.print(source);
+            if (!quiet) {
+                System.out.print(source);
+            }
             for (Mapping m: mappings) {
                 ranges = m.mapRanges(ranges);
-                System.out.print(" -> " + ranges.size() + "x");
+                if (!quiet) {
+                    System.out.print(" -> " + ranges.size() + "x");
+                }
             }
             
             long smallest = Long.MAX_VALUE;
             for (Range rr: ranges) {
                 smallest = Math.min(smallest, rr.start());
             }
-            System.out.println(" -> " + smallest);
+            if (!quiet) {
+                System.out.println(" -> " + smallest);
+            }
             part2 = Math.min(part2, smallest);
         }
         
-        System.out.println();
-        System.out.println("Part 1: " + part1);
-        System.out.println("Part 2: " + part2);
+        if (!quiet) {
+            System.out.println();
+            System.out.println("Part 1: " + part1);
+            System.out.println("Part 2: " + part2);
+        }
+        
+        return new Result(part1, part2);
+    }
+    
+    @Override
+    public Result solve(String file, boolean quiet) throws IOException {
+        this.quiet = quiet;
+        return solve(new BufferedReader(new FileReader(file)));
     }
     
     /**
@@ -206,7 +244,7 @@ public class Puzzle {
         System.out.println("*** AoC 2023.05 If You Give A Seed A Fertilizer ***");
         System.out.println();
         
-        new Puzzle().solve(new BufferedReader(new FileReader(args[0])));
+        new Puzzle().solve(args[0], false);
         
         System.out.println();
     }
@@ -1,5 +1,7 @@
 package day06;
 
+import common.Result;
+import common.Solver;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
@@ -7,7 +9,12 @@ import java.io.IOException;
 /**
  * Day 6 "Wait For It".
  */
-public class Puzzle {
+public class Puzzle implements Solver {
+
+    /**
+     * Suppresses all diagnostic output when set.
+     */
+    boolean quiet;
 
     /**
      * Return the number of solutions for the given race. Iterates through all
@@ -46,7 +53,7 @@ public class Puzzle {
     /**
      * Solves the puzzle for the input coming from the given reader.
      */    
-    void solve(BufferedReader r) throws IOException {
+    Result solve(BufferedReader r) throws IOException {
         String s = r.readLine();
         String t = r.readLine();
         
@@ -70,8 +77,18 @@ public class Puzzle {
 
         long part2 = cleverWays(Long.parseLong(c), Long.parseLong(d));
         
-        System.out.println("Part 1: " + part1);
-        System.out.println("Part 2: " + part2);
+        if (!quiet) {
+            System.out.println("Part 1: " + part1);
+            System.out.println("Part 2: " + part2);
+        }
+        
+        return new Result(part1, part2);
+    }
+    
+    @Override
+    public Result solve(String file, boolean quiet) throws IOException {
+        this.quiet = quiet;
+        return solve(new BufferedReader(new FileReader(file)));
     }
     
     /**
@@ -82,7 +99,7 @@ public class Puzzle {
         System.out.println("*** AoC 2023.06 Wait For It ***");
         System.out.println();
         
-        new Puzzle().solve(new BufferedReader(new FileReader(args[0])));
+        new Puzzle().solve(args[0], false);
         
         System.out.println();
     }
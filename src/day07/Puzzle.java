@@ -1,13 +1,34 @@
 package day07;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
+import common.Input;
+import common.Result;
+import common.Solver;
 import java.io.IOException;
 
 /**
  * Day 7 "Camel Cards".
  */
-public class Puzzle {
+public class Puzzle implements Solver {
+    
+    @Override
+    public Result solve(String file, boolean quiet) throws IOException {
+        Input in = Input.map(file);
+
+        Puzzle1 p1 = new Puzzle1();
+        p1.quiet = quiet;
+        long part1 = p1.solve(in);
+
+        Puzzle2 p2 = new Puzzle2();
+        p2.quiet = quiet;
+        long part2 = p2.solve(in);
+
+        if (!quiet) {
+            System.out.println("Part 1: " + part1);
+            System.out.println("Part 2: " + part2);
+        }
+        
+        return new Result(part1, part2);
+    }
     
     /**
      * Provides the canonical entry point.
@@ -17,11 +38,7 @@ public class Puzzle {
         System.out.println("*** AoC 2023.07 Camel Cards ***");
         System.out.println();
 
-        long part1 = new Puzzle1().solve(new BufferedReader(new FileReader(args[0])));
-        long part2 = new Puzzle2().solve(new BufferedReader(new FileReader(args[0])));
-
-        System.out.println("Part 1: " + part1);
-        System.out.println("Part 2: " + part2);
+        new Puzzle().solve(args[0], false);
         
         System.out.println();
     }
@@ -1,15 +1,19 @@
 package day07;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Collections;
+import common.Input;
+import common.Workers;
+import java.util.Arrays;
 
 /**
  * Day 7 "Camel Cards" part 1.
  */
 public class Puzzle1 {
 
+    /**
+     * Suppresses all diagnostic output when set.
+     */
+    boolean quiet;
+
     /**
      * The different ranks that can occur.
      */
@@ -21,6 +25,16 @@ public class Puzzle1 {
     public static final int ONE_PAIR        = 1;
     public static final int HIGH_CARD       = 0;
 
+    /**
+     * Counts how often each card occurs in the current hand.
+     */
+    int[] cards = new int[13];
+
+    /**
+     * Counts how many cards occur n times in the current hand.
+     */
+    int[] counts = new int[6];
+
     /**
      * Returns the order for a given card.
      */
@@ -35,57 +49,34 @@ public class Puzzle1 {
     }
 
     /**
-     * Sorts the hand, so all identical cards are neighbours.
+     * Counts the cards of the hand starting at the given offset.
      */
-    String sort(String s) {
-        StringBuilder b = new StringBuilder();
-        
+    void count(Input in, int from) {
+        Arrays.fill(cards, 0);
+        Arrays.fill(counts, 0);
+
         for (int i = 0; i < 5; i++) {
-            char c = s.charAt(i);
-            
-            int j = 0;
-            while (j < b.length() && order(c) > order(b.charAt(j))) {
-                j++;
-            }
-            
-            b.insert(j, c);
+            cards[order((char) in.get(from + i))]++;
         }
-        
-        return b.toString();
     }
-    
+
     /**
-     * Translates the hand to something that we can easily sort later.
+     * Returns the rank of the hand starting at the given offset.
      */
-    String translate(String s) {
-        StringBuilder b = new StringBuilder();
-        for (int i = 0; i < 5; i++) {
-            char c = s.charAt(i);
-            b.append((char)('z' - order(c)));
+    int getType(Input in, int from) {
+        count(in, from);
+
+        for (int n: cards) {
+            counts[n]++;
         }
-        
-        return b.toString();
+
+        return getType();
     }
-    
+
     /**
-     * Returns the rank of this hand.
+     * Returns the rank matching the current counts.
      */
-    int getType(String s) {
-        int[] counts = new int[6];
-        
-        char c = s.charAt(0);
-        int n = 1;
-        for (int i = 1; i < s.length(); i++) {
-            if (s.charAt(i) == c) {
-                n++;
-            } else {
-                counts[n]++;
-                c = s.charAt(i);
-                n = 1;
-            }
-        }
-        counts[n]++;
-        
+    int getType() {
         if (counts[5] != 0) {
             return FIVE_OF_A_KIND;
         } else if (counts[4] != 0) {
@@ -107,43 +98,65 @@ public class Puzzle1 {
     }
     
     /**
-     * Solves the puzzle for the input coming from the given reader.
-     */    
-    long solve(BufferedReader r) throws IOException {
-        ArrayList<String> all = new ArrayList();
-        
-        String s = r.readLine();
-        while (s != null) {
-            String cards = s.substring(0, 5);
-            String bid = s.substring(6);
+     * Returns a fresh instance with the same settings and its own counters,
+     * so it can pack hands on another thread.
+     */
+    Puzzle1 fork() {
+        Puzzle1 p = new Puzzle1();
+        p.quiet = quiet;
+        return p;
+    }
 
-            String sorted = sort(cards);
-            int t = getType(sorted);
+    /**
+     * Packs the hands on the given range of lines of the given input into
+     * the given array. Each hand is packed into a long, with its rank in the
+     * topmost bits, followed by the strengths of its five cards (4 bits each)
+     * and its bid in the lower 32 bits. Sorting these longs sorts the hands.
+     */
+    void pack(Input in, int from, int to, long[] all) {
+        for (int i = from; i < to; i++) {
+            int start = in.start(i);
+            long key = getType(in, start);
 
-            cards = ("" + (char)('a' + t)) + ' ' + translate(cards) + ' ' + bid;
+            for (int j = 0; j < 5; j++) {
+                key = key * 16 + 12 - order((char) in.get(start + j));
+            }
 
-            System.out.println(s + " -> " + sorted + " -> " + t + " -> " + cards);
+            in.seek(start + 5);
+            all[i] = key << 32 | in.nextInt();
 
-            all.add(cards);
-            
-            s = r.readLine();
+            if (!quiet) {
+                System.out.printf("%s -> %d -> %06x\n", in.line(i), key >> 20, key);
+            }
         }
+    }
+    
+    /**
+     * Solves the puzzle for the given input. The hands are packed on the
+     * worker threads, each packing its share of the lines with a fork of this
+     * instance and its own cursor on the input, then sorted and scored.
+     */    
+    long solve(Input in) {
+        long[] all = new long[in.lines()];
+        int chunks = Workers.chunks(all.length, quiet);
         
-        System.out.println();
+        Workers.map(chunks, k -> {
+            fork().pack(in.duplicate(), Workers.from(k, chunks, all.length), Workers.from(k + 1, chunks, all.length), all);
+            return null;
+        });
         
-        Collections.sort(all);
+        if (!quiet) {
+            System.out.println();
+        }
+        
+        Arrays.sort(all);
 
         long score = 0;
-        long rank = 1;
 
-        for (String ss: all) {
-            System.out.println(ss);
-            score += rank * Long.parseLong(ss.substring(8));
-            rank++;
+        for (int i = 0; i < all.length; i++) {
+            score += (i + 1) * (all[i] & 0xffffffffL);
         }
 
-        System.out.println();
-        
         return score;
     }
     
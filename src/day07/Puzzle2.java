@@ -1,15 +1,19 @@
 package day07;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Collections;
+import common.Input;
 
 /**
  * Day 7 "Camel Cards" part 2.
  */
 public class Puzzle2 extends Puzzle1 {
     
+    @Override
+    Puzzle1 fork() {
+        Puzzle2 p = new Puzzle2();
+        p.quiet = quiet;
+        return p;
+    }
+    
     @Override
     int order(char c) {
         int i = "AKQT98765432J".indexOf(c);
@@ -21,50 +25,33 @@ public class Puzzle2 extends Puzzle1 {
         return i;
     }
 
-    
+    /**
+     * Returns the rank of the hand starting at the given offset. Jokers don't
+     * count as cards of their own, instead each joker upvotes the rank of the
+     * remaining cards by one step.
+     */
     @Override
-    int getType(String s) {
-        int[] counts = new int[6];
-        
-        char c = s.charAt(0);
-        int n = 1;
-        for (int i = 1; i < 5; i++) {
-            if (s.charAt(i) == c) {
-                n++;
-            } else {
-                counts[n]++;
-                c = s.charAt(i);
-                n = 1;
-            }
-        }
-        
-        if (c != 'J') {
+    int getType(Input in, int from) {
+        count(in, from);
+
+        int jokers = cards[order('J')];
+        cards[order('J')] = 0;
+
+        for (int n: cards) {
             counts[n]++;
         }
-        
-        if (counts[5] != 0) {
-            if (c == 'J') {
-                return HIGH_CARD;
-            } else {
-                return FIVE_OF_A_KIND;
-            }
-        } else if (counts[4] != 0) {
-            return FOUR_OF_A_KIND;
-        } else if (counts[3] != 0) {
-            if (counts[2] != 0) {
-                return FULL_HOUSE;
-            } else {
-                return THREE_OF_A_KIND;
-            }
-        } else if (counts[2] == 2) {
-            return TWO_PAIRS;
-        } else if (counts[2] == 1) {
-            return ONE_PAIR;
-        } else {
-            return HIGH_CARD;
+
+        int t = getType();
+        for (int i = 0; i < jokers; i++) {
+            t = upvote(t);
         }
+
+        return t;
     }
-          
+
+    /**
+     * Returns the next better rank that one additional joker yields.
+     */
     int upvote(int type) {
         switch (type) {
             case FIVE_OF_A_KIND: return FIVE_OF_A_KIND;
@@ -77,52 +64,4 @@ public class Puzzle2 extends Puzzle1 {
         
         throw new RuntimeException("Oops: " + type);
     }
-    
-    /**
-     * Solves the puzzle for the input coming from the given reader.
-     */    
-    @Override
-    long solve(BufferedReader r) throws IOException {
-        ArrayList<String> all = new ArrayList();
-        
-        String s = r.readLine();
-        while (s != null) {
-            String cards = s.substring(0, 5);
-            String bid = s.substring(6);
-
-            String sorted = sort(cards);
-            int jokers = 5 - sorted.replace("J", "").length();
-            int t = getType(sorted);
-            System.out.println(sorted + " is type " + t + " and has " + jokers + " jokers");
-            for (int i = 0; i < jokers; i++) {
-                t = upvote(t);
-            }
-
-            cards = ("" + (char)('a' + t)) + ' ' + translate(cards) + ' ' + bid;
-
-            System.out.println(s + " -> " + sorted + " -> " + t + " -> " + cards);
-
-            all.add(cards);
-            
-            s = r.readLine();
-        }
-
-        System.out.println();
-                
-        Collections.sort(all);
-
-        long score = 0;
-        long rank = 1;
-
-        for (String ss: all) {
-            System.out.println(ss);
-            score += rank * Long.parseLong(ss.substring(8));
-            rank++;
-        }
-
-        System.out.println();
-        
-        return score;
-    }
-
 }
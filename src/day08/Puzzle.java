@@ -1,19 +1,28 @@
 package day08;
 
+import common.Graph;
+import common.Phase;
+import common.Result;
+import common.Solver;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
-import java.util.HashMap;
 
 /**
  * Day 8 "Haunted Wasteland".
  */
-public class Puzzle {
+public class Puzzle implements Solver {
 
     /**
-     * The list of instructions.
+     * Suppresses all diagnostic output when set.
      */
-    char[] instructions;
+    boolean quiet;
+
+    /**
+     * The list of instructions, as offsets of the edge to take: 0 for left
+     * and 1 for right.
+     */
+    int[] instructions;
     
     /**
      * Our step counter.
@@ -21,60 +30,67 @@ public class Puzzle {
     int steps;
     
     /**
-     * A helper class for nodes.
+     * The network. Each node has two edges, first left, then right.
      */
-    class Node {
-        final String name, left, right;
-        
-        /**
-         * Creates a node from a line of text.
-         */
-        Node(String s) {
-            name = s.substring(0, 3);
-            left = s.substring(7, 10);
-            right = s.substring(12, 15);
-        }
-
-        /**
-         * Gets the next node according to the instructions, increases steps.
-         */
-        String getNext() {
-            return instructions[steps++ % instructions.length] == 'L' ? left : right;
-        }
-    }
+    Graph nodes;
+    
+    /**
+     * Reflects for each node whether its name ends with 'A' or 'Z'.
+     */
+    boolean[] starts, ends;
 
     /**
-     * A mapping of names to nodes.
+     * Gets the next node according to the instructions, increases steps.
      */
-    HashMap<String, Node> nodes = new HashMap();
+    int getNext(int n) {
+        return nodes.target(nodes.start(n) + instructions[steps++ % instructions.length]);
+    }
 
     /**
-     * Creates puzzle object, loads puzzle input from given reader.
+     * Loads puzzle input from given reader.
      */    
-    Puzzle(BufferedReader r) throws IOException {
-        instructions = r.readLine().toCharArray();
+    void load(BufferedReader r) throws IOException {
+        Phase phase = Phase.begin(8, "load");
+        instructions = r.readLine().chars().map(c -> c == 'L' ? 0 : 1).toArray();
         
         r.readLine(); // Blank line
         
+        Graph.Builder b = new Graph.Builder();
+        
         String s = r.readLine();
         while (s != null) {
-            Node n = new Node(s);
-            nodes.put(n.name, n);
+            int n = b.vertex(s.substring(0, 3));
+            b.edge(n, b.vertex(s.substring(7, 10)));
+            b.edge(n, b.vertex(s.substring(12, 15)));
             s = r.readLine();
         }
+        
+        nodes = b.build();
+        
+        starts = new boolean[nodes.size()];
+        ends = new boolean[nodes.size()];
+        for (int n = 0; n < nodes.size(); n++) {
+            starts[n] = nodes.name(n).endsWith("A");
+            ends[n] = nodes.name(n).endsWith("Z");
+        }
+        
+        phase.end(nodes.size());
     }
 
     /**
      * Solves part 1.
      */
     long part1() {
-        Node n = nodes.get("AAA");
+        Phase phase = Phase.begin(8, "part1");
+        int n = nodes.id("AAA");
+        int goal = nodes.id("ZZZ");
         steps = 0;
         
-        while (!"ZZZ".equals(n.name)) {
-            n = nodes.get(n.getNext());
+        while (n != goal) {
+            n = getNext(n);
         }
         
+        phase.end(steps);
         return steps;
     }
 
@@ -101,24 +117,44 @@ public class Puzzle {
      * Solves part 2.
      */    
     long part2() throws IOException {
+        Phase phase = Phase.begin(8, "part2");
+        long total = 0;
         long result = 1;
 
-        for (String id: nodes.keySet()) {
-            if (id.endsWith("A")) {
-                Node n = nodes.get(id);
+        for (int id = 0; id < nodes.size(); id++) {
+            if (starts[id]) {
+                int n = id;
                 steps = 0;
 
-                while (!n.name.endsWith("Z")) {
-                    n = nodes.get(n.getNext());
+                while (!ends[n]) {
+                    n = getNext(n);
                 }
 
                 result = lcm(result, steps);
+                total += steps;
             }
         }
 
+        phase.end(total);
         return result;
     }
     
+    @Override
+    public Result solve(String file, boolean quiet) throws IOException {
+        this.quiet = quiet;
+        load(new BufferedReader(new FileReader(file)));
+        
+        long part1 = part1();
+        long part2 = part2();
+        
+        if (!quiet) {
+            System.out.println("Part 1: " + part1);
+            System.out.println("Part 2: " + part2);
+        }
+        
+        return new Result(part1, part2);
+    }
+    
     /**
      * Provides the canonical entry point.
      */
@@ -127,9 +163,7 @@ public class Puzzle {
         System.out.println("*** AoC 2023.08 Haunted Wasteland ***");
         System.out.println();
         
-        Puzzle p = new Puzzle(new BufferedReader(new FileReader(args[0])));
-        System.out.println("Part 1: " + p.part1());
-        System.out.println("Part 1: " + p.part2());
+        new Puzzle().solve(args[0], false);
         
         System.out.println();
     }
@@ -1,13 +1,26 @@
 package day09;
 
+import common.Input;
+import common.Result;
+import common.Solver;
+import common.Tokenizer;
 import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
 
 /**
  * Day 9 "Mirage Maintenance".
  */
-public class Puzzle {
+public class Puzzle implements Solver {
+
+    /**
+     * Suppresses all diagnostic output when set.
+     */
+    boolean quiet;
+
+    /**
+     * Parses the numbers out of the input lines.
+     */
+    Tokenizer tokens = new Tokenizer();
    
     record Pair(int left, int right) {
     
@@ -21,12 +34,11 @@ public class Puzzle {
      * Parses an input line into an int array.
      */
     int[] parse(String s) {
-        String[] array = s.split(" ");            
-        int length = array.length;
-        int[] values = new int[length];
+        tokens.reset(s);
+        int[] values = new int[tokens.count()];
 
-        for (int i = 0; i < length; i++) {
-           values[i] = Integer.parseInt(array[i]);
+        for (int i = 0; i < values.length; i++) {
+           values[i] = tokens.nextInt();
         }
         
         return values;
@@ -46,12 +58,18 @@ public class Puzzle {
                 zero = false;
             }
             
-            System.out.print(diffs[i] + " ");
+            if (!quiet) {
+                System.out.print(diffs[i] + " ");
+            }
+        }
+        if (!quiet) {
+            System.out.println("(zero=" + zero + ")");
         }
-        System.out.println("(zero=" + zero + ")");
         
         Pair p = zero ? new Pair(0, 0) : extra(diffs);
-        System.out.print(p + " => ");
+        if (!quiet) {
+            System.out.print(p + " => ");
+        }
         
         return new Pair(values[0] - p.left, values[values.length - 1] + p.right);
     }
@@ -59,26 +77,40 @@ public class Puzzle {
     /**
      * Solves the puzzle for the input coming from the given reader.
      */
-    void solve(BufferedReader r) throws IOException {
-        int part1 = 0;
-        int part2 = 0;
+    Result solve(BufferedReader r) throws IOException {
+        long part1 = 0;
+        long part2 = 0;
         
         String s = r.readLine();
         while (s != null) {
-            System.out.println(s);
+            if (!quiet) {
+                System.out.println(s);
+            }
             
             Pair p = extra(parse(s));
             part1 += p.right;
             part2 += p.left;
             
-            System.out.println(p);
-            System.out.println();
+            if (!quiet) {
+                System.out.println(p);
+                System.out.println();
+            }
             
             s = r.readLine();
         }
         
-        System.out.println("Part 1: " + part1);
-        System.out.println("Part 2: " + part2);
+        if (!quiet) {
+            System.out.println("Part 1: " + part1);
+            System.out.println("Part 2: " + part2);
+        }
+        
+        return new Result(part1, part2);
+    }
+    
+    @Override
+    public Result solve(String file, boolean quiet) throws IOException {
+        this.quiet = quiet;
+        return solve(Input.open(file));
     }
     
     /**
@@ -89,7 +121,7 @@ public class Puzzle {
         System.out.println("*** AoC 2023.09 Mirage Maintenance ***");
         System.out.println();
         
-        new Puzzle().solve(new BufferedReader(new FileReader(args[0])));
+        new Puzzle().solve(args[0], false);
         
         System.out.println();
     }
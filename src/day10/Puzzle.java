@@ -1,23 +1,26 @@
 package day10;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
+import common.Grid;
+import common.Input;
+import common.IntStack;
+import common.Result;
+import common.Solver;
 import java.io.IOException;
 
 /**
  * Day 10 "Pipe Maze".
  */
-public class Puzzle {
-   
+public class Puzzle implements Solver {
+
     /**
-     * Holds the map.
+     * Suppresses all diagnostic output when set.
      */
-    char[][] map;
-    
+    boolean quiet;
+   
     /**
-     * The width/height of the (square) map.
+     * Holds the map, including a border of 1 empty field.
      */
-    int size;
+    Grid map;
 
     /**
      * The starting row of the loop.
@@ -33,32 +36,23 @@ public class Puzzle {
      * Dumps the map.
      */
     void dump() {
-        for (char[] c: map) {
-            System.out.println(new String(c));
-        }
-        System.out.println();
+        System.out.println(map);
     }
 
     /**
-     * Loads the puzzle input from the given reader.
+     * Loads the puzzle input from the given input.
      */
-    void load(BufferedReader rd) throws IOException {        
-        String s = "." + rd.readLine() + ".";
-        size = s.length();
-        map = new char[size][];
-        
-        map[0] = (".".repeat(size)).toCharArray();
-        for (int i = 1; i < size - 1; i++) {
-            map[i] = s.toCharArray();
-            int j = s.indexOf('S');
-            if (j != -1) {
-                startRow = i;
-                startColumn = j;
+    void load(Input in) {        
+        map = Grid.load(in, 1, (byte) '.');
+        
+        for (int i = 0; i < map.height(); i++) {
+            for (int j = 0; j < map.width(); j++) {
+                if (map.get(i, j) == 'S') {
+                    startRow = i;
+                    startColumn = j;
+                }
             }
-            
-            s = "." + rd.readLine() + ".";
         }
-        map[size - 1] = (".".repeat(size)).toCharArray();
     }
         
     /**
@@ -78,84 +72,111 @@ public class Puzzle {
     }
     
     /**
-     * Inflates the whole map.
+     * Inflates the whole map, including its border. The inflated map gets a
+     * border of '#' fields, which stops both flood-fills.
      */
     void inflate() {
-        char[][] newMap = new char[size * 3][size * 3];
-        for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size ; j++) {
-                char c = map[i][j];
+        int width = map.width() + 2;
+        int height = map.height() + 2;
+        
+        Grid newMap = new Grid(3 * width, 3 * height, 1, (byte) '#');
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                char c = (char) map.get(i - 1, j - 1);
                 
                 String[] s = inflate(c);
                 
-                for (int k =0; k < 3; k++) {
-                    System.arraycopy(s[k].toCharArray(), 0, newMap[3 * i + k], 3 * j, 3);
+                for (int k = 0; k < 3; k++) {
+                    for (int l = 0; l < 3; l++) {
+                        newMap.set(3 * i + k, 3 * j + l, (byte) s[k].charAt(l));
+                    }
                 }
             }
         }
         
         map = newMap;
-        size = 3 * size;
-        startRow = 3 * startRow + 1;
-        startColumn = 3 * startColumn + 1;
+        startRow = 3 * (startRow + 1) + 1;
+        startColumn = 3 * (startColumn + 1) + 1;
     }
     
     /**
-     * Performs a recursive flood-fill with given fill and stop characters.
+     * Performs a flood-fill with given fill and stop characters. Keeps the
+     * fields still to visit on an explicit stack, so it doesn't depend on
+     * the size of the thread stack. Fields are filled when pushed, so each is
+     * pushed only once.
      */
-    void flood(int x, int y, char fill, char stop) {
-        if (x < 0 || y < 0 || x == size || y == size) {
-            return;
-        }
-        
-        char c = map[x][y];
+    void flood(int index, int[] directions, byte fill, byte stop) {
+        byte c = map.get(index);
         
         if (c == fill || c == stop) {
             return;
         }
                 
-        map[x][y] = fill;
+        IntStack stack = new IntStack();
+        map.set(index, fill);
+        stack.push(index);
         
-        flood(x - 1, y, fill, stop);
-        flood(x + 1, y, fill, stop);
-        flood(x, y - 1, fill, stop);
-        flood(x, y + 1, fill, stop);
+        while (!stack.isEmpty()) {
+            int i = stack.pop();
+            
+            for (int d: directions) {
+                c = map.get(i + d);
+                if (c != fill && c != stop) {
+                    map.set(i + d, fill);
+                    stack.push(i + d);
+                }
+            }
+        }
     }
     
     /**
-     * Solves the puzzle for the input coming from the given reader.
+     * Solves the puzzle for the given input.
      */
-    void solve(BufferedReader r) throws IOException {
-        load(r);
-        dump();
+    Result solve(Input in) {
+        load(in);
+        
+        if (!quiet) {
+            dump();
 
-        System.out.println("Map size is " + size + " x " + size + ".");
-        System.out.println("Starting position is (" + startRow + ", " + startColumn + ").");
-        System.out.println();        
+            System.out.println("Map size is " + map.width() + " x " + map.height() + ".");
+            System.out.println("Starting position is (" + startRow + ", " + startColumn + ").");
+            System.out.println();        
 
-        System.out.println("Inflating map...");
-        System.out.println();
+            System.out.println("Inflating map...");
+            System.out.println();
+        }
         
         inflate();
-        dump();
+        
+        if (!quiet) {
+            dump();
 
-        System.out.println("Filling loop...");
-        System.out.println();
+            System.out.println("Filling loop...");
+            System.out.println();
+        }
         
-        flood(startRow, startColumn, '#', '.');
-        dump();
+        int[] directions = map.directions();
         
-        System.out.println("Filling outside...");
-        System.out.println();
+        flood(map.index(startRow, startColumn), directions, (byte) '#', (byte) '.');
+        
+        if (!quiet) {
+            dump();
         
-        flood(0, 0, 'O', '#');
-        dump();
+            System.out.println("Filling outside...");
+            System.out.println();
+        }
+        
+        flood(map.index(0, 0), directions, (byte) 'O', (byte) '#');
+        
+        if (!quiet) {
+            dump();
+        }
 
         int part1 = 0;
         int part2 = 0;
-        for (int i = 1; i < size; i += 3) {
-            for (int j = 1; j < size; j += 3) {
-                char c = map[i][j];
+        for (int i = 1; i < map.height(); i += 3) {
+            for (int j = 1; j < map.width(); j += 3) {
+                byte c = map.get(i, j);
                 if (c == '#') {
                     part1++;
                 } else if (c != 'O') {
@@ -164,8 +185,18 @@ public class Puzzle {
             }
         }
         
-        System.out.println("Part 1: " + part1 / 2);
-        System.out.println("Part 2: " + part2);
+        if (!quiet) {
+            System.out.println("Part 1: " + part1 / 2);
+            System.out.println("Part 2: " + part2);
+        }
+        
+        return new Result(part1 / 2, part2);
+    }
+    
+    @Override
+    public Result solve(String file, boolean quiet) throws IOException {
+        this.quiet = quiet;
+        return solve(Input.map(file));
     }
     
     /**
@@ -176,7 +207,7 @@ public class Puzzle {
         System.out.println("*** AoC 2023.10 Pipe Maze ***");
         System.out.println();
         
-        new Puzzle().solve(new BufferedReader(new FileReader(args[0])));
+        new Puzzle().solve(args[0], false);
         
         System.out.println();
     }
@@ -1,24 +1,28 @@
 package day11;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
+import common.Grid;
+import common.Input;
+import common.Phase;
+import common.Result;
+import common.Solver;
+import common.Workers;
 import java.io.IOException;
 import java.util.ArrayList;
 
 /**
  * Day 11 "Cosmic Expansion".
  */
-public class Puzzle {
-    
+public class Puzzle implements Solver {
+
     /**
-     * The raw map as we read it from the input file (plus some annotations).
+     * Suppresses all diagnostic output when set.
      */
-    char[][] map;
-
+    boolean quiet;
+    
     /**
-     * The size of the map (we know it to be square).
+     * The raw map as we read it from the input file (plus some annotations).
      */
-    int size;
+    Grid map;
 
     /**
      * Something to properly represent a galaxy.
@@ -46,103 +50,139 @@ public class Puzzle {
     ArrayList<Galaxy> universe = new ArrayList();
     
     /**
-     * Loads the input coming from the given reader, annotates it and builds a
-     * universe that we can use later.
+     * Checks whether the given row or column contains no galaxy.
      */
-    void load(BufferedReader r) throws IOException {
-
-        // Step 1: Load 2D map
-        String s = r.readLine();
-        size = s.length();
-        map = new char[size][];
-        
-        for (int i = 0; i < size; i++) {
-            if ("".equals(s.replace('.', ' ').trim())) {
-                s = "-".repeat(s.length());
+    boolean isEmpty(byte[] cells) {
+        for (byte b: cells) {
+            if (b == '#') {
+                return false;
             }
-            map[i] = s.toCharArray();
-            s = r.readLine();
         }
+        
+        return true;
+    }
+    
+    /**
+     * Loads the given input, annotates it and builds a universe that we can
+     * use later.
+     */
+    void load(Input in) {
 
+        // Step 1: Load 2D map
+        Phase phase = Phase.begin(11, "load");
+        map = Grid.load(in, 0, (byte) 0);
+        
+        int width = map.width();
+        int height = map.height();
+        
         // Step 2: Annotate expansions
-        for (int i = 0; i < size; i++) {
-            boolean empty = true;
-            for (int j = 0; j < size; j++) {
-                if (map[j][i] == '#') {
-                    empty = false;
-                    break;
+        byte[] row = new byte[width];
+        for (int i = 0; i < height; i++) {
+            map.row(i, row);
+            if (isEmpty(row)) {
+                for (int j = 0; j < width; j++) {
+                    map.set(i, j, (byte) '-');
                 }
             }
-            if (empty) {
-                for (int j = 0; j < size; j++) {
-                    char c = map[j][i];
-                    if (c == '.') {
-                        map[j][i] = '|';
-                    } else {
-                        map[j][i] = '+';
-                    }
+        }
+        
+        byte[] column = new byte[height];
+        for (int i = 0; i < width; i++) {
+            map.column(i, column);
+            if (isEmpty(column)) {
+                for (int j = 0; j < height; j++) {
+                    map.set(j, i, column[j] == '.' ? (byte) '|' : (byte) '+');
                 }
             }
         }   
         
         // Step 3: Build galaxies
         int ex = 0;
-        for (int i = 0; i < size; i++) {
-            if (map[i][0] == '-') {
+        for (int i = 0; i < height; i++) {
+            if (map.get(i, 0) == '-') {
                 ex ++;
             } else {
                 int ey = 0;
             
-                for (int j = 0; j < size; j++) {
-                    if (map[0][j] == '|') {
+                for (int j = 0; j < width; j++) {
+                    if (map.get(0, j) == '|') {
                         ey++;
-                    } else if (map[i][j] == '#') {
+                    } else if (map.get(i, j) == '#') {
                         universe.add(new Galaxy(i - ex, j - ey, ex, ey));
                     }
                 }
             }
 
         }
+        
+        phase.end(universe.size());
     }
     
     /**
      * Dumps the map.
      */
     void dump() {
-        for (int i = 0; i < size; i++) {
-            System.out.println(new String(map[i]));
-        }
-        
-        System.out.println();
+        System.out.println(map);
         System.out.println("The universe contains " + universe.size() + " galaxies.");
     }
     
     /**
-     * Queries the universe for a solution with a given expansion factor.
+     * Queries the universe for a solution with a given expansion factor. The
+     * pairs are split up among the worker threads.
      */
     long query(long factor) {
-        long result =0;
-        for (int i = 0; i < universe.size(); i++) {
+        Phase phase = Phase.begin(11, "query");
+        int chunks = Workers.chunks(universe.size(), true);
+        long result = 0;
+        for (long sum: Workers.map(chunks, k -> query(factor, k, chunks))) {
+            result = result + sum;
+        }
+        
+        phase.end((long) universe.size() * (universe.size() - 1) / 2);
+        return result;
+    }
+    
+    /**
+     * Sums the distances between every stride-th galaxy, starting with the
+     * given one, and all galaxies after it. Striding gives each chunk a fair
+     * share of the early galaxies, which have the most pairs.
+     */
+    long query(long factor, int first, int stride) {
+        long result = 0;
+        for (int i = first; i < universe.size(); i += stride) {
             Galaxy g = universe.get(i);
             for (int j = i + 1; j < universe.size(); j++) {
                 Galaxy h = universe.get(j);
                 result = result + g.distance(h, factor);
             }
         }
-        
         return result;
     }
 
     /**
      * Solves both parts.
      */
-    void solve(BufferedReader r) throws IOException {
-        load(r);
-        dump();
+    Result solve(Input in) {
+        load(in);
         
-        System.out.println();
-        System.out.println("Part 1: " + query(2));
-        System.out.println("Part 2: " + query(1000000));
+        long part1 = query(2);
+        long part2 = query(1000000);
+        
+        if (!quiet) {
+            dump();
+        
+            System.out.println();
+            System.out.println("Part 1: " + part1);
+            System.out.println("Part 2: " + part2);
+        }
+        
+        return new Result(part1, part2);
+    }
+    
+    @Override
+    public Result solve(String file, boolean quiet) throws IOException {
+        this.quiet = quiet;
+        return solve(Input.map(file));
     }
     
     /**
@@ -153,7 +193,7 @@ public class Puzzle {
         System.out.println("*** AoC 2023.11 Cosmic Expansion ***");
         System.out.println();
         
-        new Puzzle().solve(new BufferedReader(new FileReader(args[0])));
+        new Puzzle().solve(args[0], false);
         
         System.out.println();
     }
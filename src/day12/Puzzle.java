@@ -1,21 +1,50 @@
 package day12;
 
+import common.Cancelled;
+import common.Counters;
+import common.Counters.Counter;
+import common.Input;
+import common.LongLongMap;
+import common.Result;
+import common.Solver;
+import common.Workers;
 import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
-import java.util.HashMap;
 
 /**
  * Day 12 "Hot Springs". Solution transforms the right side numbers into strings
  * of hash signs and tries to parse left and right simultaneously, recursively
  * handling all permutations on the way.
  */
-public class Puzzle {
+public class Puzzle implements Solver {
 
     /**
-     * Provides a much needed cache for speeding up part 2.
+     * Counts the calls of the recursion answered from the cache.
      */
-    HashMap<String, Long> seen = new HashMap();
+    static final Counter HITS = Counters.counter(12, "memo hits");
+
+    /**
+     * Counts the calls of the recursion that had to be computed.
+     */
+    static final Counter MISSES = Counters.counter(12, "memo misses");
+
+    /**
+     * Suppresses all diagnostic output when set.
+     */
+    boolean quiet;
+
+    /**
+     * Provides a much needed cache for speeding up part 2. Within one call of
+     * the recursion, both sides are always suffixes of the original ones, so
+     * their lengths and the group flag identify a call, packed into a long.
+     */
+    LongLongMap seen = new LongLongMap();
+    
+    /**
+     * The cache hits and misses of the current line, added to the counters
+     * once the line is done.
+     */
+    long hits, misses;
     
     /**
      * Solves the given left/right sides recursively. Returns the number of
@@ -24,11 +53,14 @@ public class Puzzle {
      * a hash sign aka a broken spring).
      */
     long solve(String l, String r, boolean group) {
-        String key = l + "-" + r + "-" + group;         // Consult cache
-        if (seen.containsKey(key)) {
-            return seen.get(key);
+        long key = (long) l.length() << 32 | r.length() << 1 | (group ? 1 : 0);
+        long cached = seen.get(key, -1);                // Consult cache
+        if (cached != -1) {
+            hits++;
+            return cached;
         }
         
+        misses++;
         String heads = "" + l.charAt(0) + r.charAt(0);  // Heads to consider
         
         if (r.length() > l.length()) {                  // Shortcut
@@ -59,46 +91,145 @@ public class Puzzle {
     }
     
     /**
-     * Solves the puzzle for the input coming from the given reader.
+     * Solves the given line of the given input. Returns the numbers of
+     * solutions for both parts. The cache only holds for one pair of sides,
+     * so it is cleared after each part, which also keeps memory constant.
+     */
+    Result solve(Input in, int i) {
+        int from = in.start(i);
+        int to = in.end(i);
+        int space = in.indexOf((byte) ' ', from, to);
+
+        String left = in.string(from, space);   // Take left side as-is
+
+        StringBuilder b = new StringBuilder();  // Convert numbers to characters
+        in.seek(space);
+        while (in.position() < to) {
+            if (b.length() != 0) {
+                b.append(',');
+            }
+            b.repeat('#', in.nextInt());
+        }
+        
+        String right = b.toString();
+
+        long result1 = solve(left + "$", right + "$", false);
+        seen.clear();
+        if (!quiet) {
+            System.out.printf("%35s -> %20s -> %5d", in.line(i), right, result1);
+        }
+        
+        left = left + ("?" + left).repeat(4) + "$";
+        right = right + ("," + right).repeat(4) + "$";
+                    
+        long result2 = solve(left, right, false);
+        if (!quiet) {
+            System.out.printf(" %15d\n", result2);
+        }
+        
+        seen.clear();
+        
+        HITS.add(hits);
+        MISSES.add(misses);
+        hits = 0;
+        misses = 0;
+        
+        return new Result(result1, result2);
+    }
+    
+    /**
+     * Returns a fresh puzzle with the same settings, with a cache of its own,
+     * so it can solve lines on another thread.
+     */
+    Puzzle fork() {
+        Puzzle p = new Puzzle();
+        p.quiet = quiet;
+        return p;
+    }
+    
+    /**
+     * Solves the given range of lines of the given input. Returns the sums of
+     * the numbers of solutions for both parts.
      */
-    void solve(BufferedReader r) throws IOException {
+    Result solve(Input in, int from, int to) {
         long part1 = 0;
         long part2 = 0;
         
+        for (int i = from; i < to; i++) {
+            if (Cancelled.requested()) {
+                throw new Cancelled("solved " + (i - from) + " of " + (to - from) + " lines");
+            }
+
+            Result r = solve(in, i);
+            part1 += r.part1();
+            part2 += r.part2();
+        }
+        
+        return new Result(part1, part2);
+    }
+    
+    /**
+     * Solves the puzzle for the given input. The lines are independent, so
+     * they are split up among the worker threads, each solving its share
+     * with a fork of this puzzle and its own cursor on the input.
+     */
+    Result solve(Input in) {
+        long part1 = 0;
+        long part2 = 0;
+        
+        int lines = in.lines();
+        int chunks = Workers.chunks(lines, quiet);
+        
+        for (Result r: Workers.map(chunks, k -> fork().solve(in.duplicate(), Workers.from(k, chunks, lines), Workers.from(k + 1, chunks, lines)))) {
+            part1 += r.part1();
+            part2 += r.part2();
+        }
+        
+        return result(part1, part2);
+    }
+    
+    /**
+     * Solves the puzzle for the input coming from the given reader, one line
+     * at a time, so the input can be of any length.
+     */
+    Result solve(BufferedReader r) throws IOException {
+        long part1 = 0;
+        long part2 = 0;
+        
+        long lines = 0;
         String s = r.readLine();
         while (s != null) {
-            String[] a = s.split(" ");          // Split input lines in halves
-
-            String left = a[0];                 // Take left side as-is
-
-            String[] t = a[1].split(",");
-            
-            String right = "";                  // Convert numbers to characters
-            for (String t1 : t) {
-                if (right.length() != 0) {
-                    right = right + ',';
-                }
-                right = right + "#".repeat(Integer.parseInt(t1));
+            if (Cancelled.requested()) {
+                throw new Cancelled("solved " + lines + " lines");
             }
 
-            long result1 = solve(left + "$", right + "$", false);
-            System.out.printf("%35s -> %20s -> %5d", s, right, result1);
-            
-            left = left + ("?" + left).repeat(4) + "$";
-            right = right + ("," + right).repeat(4) + "$";
-                        
-            long result2 = solve(left, right, false);
-            System.out.printf(" %15d\n", result2);
-            
-            part1 += result1;
-            part2 += result2;
-           
+            Result l = solve(Input.wrap(s.getBytes()), 0);
+            lines++;
+            part1 += l.part1();
+            part2 += l.part2();
             s = r.readLine();
-        }        
+        }
         
-        System.out.println();
-        System.out.println("Part 1: " + part1);
-        System.out.println("Part 2: " + part2);
+        return result(part1, part2);
+    }
+    
+    /**
+     * Prints and returns the given answers.
+     */
+    Result result(long part1, long part2) {
+        if (!quiet) {
+            System.out.println();
+            System.out.println("Part 1: " + part1);
+            System.out.println("Part 2: " + part2);
+        }
+        
+        return new Result(part1, part2);
+    }
+    
+    @Override
+    public Result solve(String file, boolean quiet) throws IOException {
+        this.quiet = quiet;
+        return Input.STDIN.equals(file) ? solve(Input.open(file)) : solve(Input.map(file));
     }
     
     /**
@@ -109,7 +240,7 @@ public class Puzzle {
         System.out.println("*** AoC 2023.12 Hot Springs ***");
         System.out.println();
         
-        new Puzzle().solve(new BufferedReader(new FileReader(args[0])));
+        new Puzzle().solve(args[0], false);
         
         System.out.println();
     }
@@ -1,23 +1,30 @@
 package day13;
 
+import common.Cancelled;
+import common.Input;
+import common.IntList;
+import common.Result;
+import common.Solver;
 import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.Iterator;
 
 /**
  * Day 13 "Point of Incidence".
  */
-public class Puzzle {
+public class Puzzle implements Solver {
 
     /**
-     * Returns all symmetries for a given string, as a set of integers denoting
-     * the reflection points.
+     * Suppresses all diagnostic output when set.
      */
-    HashSet<Integer> getSymmetries(String s) {
-        HashSet<Integer> result = new HashSet();
+    boolean quiet;
+
+    /**
+     * Returns all symmetries for a given string, as an ascending list of
+     * integers denoting the reflection points.
+     */
+    IntList getSymmetries(String s) {
+        IntList result = new IntList();
         String t = new StringBuilder(s).reverse().toString();
         int l = s.length();
 
@@ -40,20 +47,23 @@ public class Puzzle {
      * rule for result values (i.e. * 100 for horizontal reflections).
      */
     int getNormalSymmetry(ArrayList<String> a, int nogo) {
-        for (String s: a) {
-            System.out.println(s);
+        if (!quiet) {
+            for (String s: a) {
+                System.out.println(s);
+            }
         }
         
-        HashSet<Integer> h = getSymmetries(a.get(0));
+        IntList h = getSymmetries(a.get(0));
         for (int i = 1; i < a.size(); i++) {
             h.retainAll(getSymmetries(a.get(i)));
         }
 
-        Iterator <Integer> it = h.iterator();
-        while (it.hasNext()) {
-            int x = it.next();
+        for (int k = 0; k < h.size(); k++) {
+            int x = h.get(k);
             if (x != nogo) {
-               System.out.println("Vertical at " + x);
+               if (!quiet) {
+                   System.out.println("Vertical at " + x);
+               }
                return x;
             }
         }
@@ -74,11 +84,12 @@ public class Puzzle {
             }
         }
 
-        it = h.iterator();
-        while (it.hasNext()) {
-            int x = it.next();
+        for (int k = 0; k < h.size(); k++) {
+            int x = h.get(k);
             if (100 * x != nogo) {
-                System.out.println("Horizontal at " + x);
+                if (!quiet) {
+                    System.out.println("Horizontal at " + x);
+                }
                 return 100 * x;
             }
         }
@@ -95,7 +106,9 @@ public class Puzzle {
         for (int i = 0; i < a.size(); i++) {
             StringBuilder sb = new StringBuilder(a.get(i));
             for (int j = 0; j < a.get(0).length(); j++) {
-                System.out.println("" + i + "/" + j);
+                if (!quiet) {
+                    System.out.println("" + i + "/" + j);
+                }
                 char c = sb.charAt(j);
                 char d = c == '.' ? '#' : '.';
 
@@ -118,13 +131,18 @@ public class Puzzle {
     /**
      * Solves the puzzle for the input coming from the given reader.
      */
-    void solve(BufferedReader r) throws IOException {
-        int part1 = 0;
-        int part2 = 0;
+    Result solve(BufferedReader r) throws IOException {
+        long part1 = 0;
+        long part2 = 0;
+        long patterns = 0;
                 
         String s = r.readLine();
         
         while (s != null) {
+            if (Cancelled.requested()) {
+                throw new Cancelled("solved " + patterns + " patterns");
+            }
+
             ArrayList<String> a = new ArrayList();
             a.add(s);
             s = r.readLine();
@@ -137,14 +155,27 @@ public class Puzzle {
             
             part1 += old;
             part2 += getSmudgeSymmetry(a, old);
+            patterns++;
 
             s = r.readLine();
-            System.out.println();
+            if (!quiet) {
+                System.out.println();
+            }
         }        
         
-        System.out.println();
-        System.out.println("Part 1: " + part1);
-        System.out.println("Part 2: " + part2);
+        if (!quiet) {
+            System.out.println();
+            System.out.println("Part 1: " + part1);
+            System.out.println("Part 2: " + part2);
+        }
+        
+        return new Result(part1, part2);
+    }
+    
+    @Override
+    public Result solve(String file, boolean quiet) throws IOException {
+        this.quiet = quiet;
+        return solve(Input.open(file));
     }
     
     /**
@@ -155,7 +186,7 @@ public class Puzzle {
         System.out.println("*** AoC 2023.13 Point of Incidence ***");
         System.out.println();
         
-        new Puzzle().solve(new BufferedReader(new FileReader(args[0])));
+        new Puzzle().solve(args[0], false);
         
         System.out.println();
     }
@@ -1,67 +1,93 @@
 package day14;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
+import common.Cancelled;
+import common.Grid;
+import common.Input;
+import common.LongLongMap;
+import common.Result;
+import common.Solver;
 import java.io.IOException;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * Day 14 "Parabolic Reflector Dish".
  */
-public class Puzzle {
+public class Puzzle implements Solver {
+
+    /**
+     * Suppresses all diagnostic output when set.
+     */
+    boolean quiet;
     
     /**
      * The state of the 2D map
      */
-    char[][] map; 
+    Grid map; 
 
     /**
-     * Width and height of the map
+     * The map rotated by 0, 90, 180 and 270 degrees clockwise. These are views
+     * sharing the cells of the map, so tilting in any direction is tilting
+     * north in the matching view, and nothing needs to be copied.
      */
-    int size;
+    Grid[] views = new Grid[4];
     
     /**
-     * A cache for speeding up part 2 (or, rather, making it possible).
+     * A cache for speeding up part 2 (or, rather, making it possible). Maps
+     * the fingerprint of each state to the first cycle it was seen in.
+     */
+    LongLongMap memory = new LongLongMap();
+
+    /**
+     * The exact state after each cycle, as the positions of the rocks, to
+     * check a fingerprint match against.
      */
-    HashMap<String, Long> memory = new HashMap();
+    ArrayList<int[]> states = new ArrayList();
 
     /**
-     * Dumps the current state of the map and returns the total load.
+     * The number of rocks, which never changes.
      */
-    int dump() {
+    int count;
+
+    /**
+     * Returns the total load for the current state of the map.
+     */
+    int totalLoad() {
         int result = 0;
         
-        for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++) {
-            char c = map[i][j];
-                System.out.print(c);
-                if (c == 'O') {
-                    result = result + size - i;
+        for (int i = 0; i < map.height(); i++) {
+            for (int j = 0; j < map.width(); j++) {
+                if (map.get(i, j) == 'O') {
+                    result = result + map.height() - i;
                 }
             }
-            System.out.println();
         }
-        System.out.println();
         
         return result;
     }
 
     /**
-     * Lets all rocks fall north (as in part 1).
+     * Dumps the current state of the map.
+     */
+    void dump() {
+        System.out.println(map);
+    }
+
+    /**
+     * Lets all rocks fall north (as in part 1) in the given view of the map.
      */
-    void drop() {
-        for (int i = 1; i < size; i++) {
-            for (int j = 0; j < size; j++) {
-                char c = map[i][j];
-                if (c == 'O') {
+    void drop(Grid g) {
+        for (int i = 1; i < g.height(); i++) {
+            for (int j = 0; j < g.width(); j++) {
+                if (g.get(i, j) == 'O') {
                     int k = i;
-                    while (k > 0 && map[k - 1][j] == '.') {
+                    while (k > 0 && g.get(k - 1, j) == '.') {
                         k--;
                     }
                     
                     if (k != i) {
-                        map[i][j] = '.';
-                        map[k][j] = 'O';
+                        g.set(i, j, (byte) '.');
+                        g.set(k, j, (byte) 'O');
                     }
                 }
             }
@@ -69,83 +95,144 @@ public class Puzzle {
     }
     
     /**
-     * Rotates the map by 90 degrees clockwise.
+     * Returns the current state of the map: the positions of all rocks, in
+     * reading order, so equal states give equal arrays.
      */
-    void turn() {
-        char[][] result = new char[size][size];
-
-        for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++) {
-                result[j][size - i - 1] = map[i][j];
+    int[] rocks() {
+        int[] result = new int[count];
+        int n = 0;
+        
+        for (int i = 0; i < map.height(); i++) {
+            for (int j = 0; j < map.width(); j++) {
+                if (map.get(i, j) == 'O') {
+                    result[n++] = i * map.width() + j;
+                }
             }
         }
-
-        map = result;
+        
+        return result;
     }
     
     /**
-     * Returns a hashable fingerprint for the current state of the map.
+     * Returns a fingerprint for the given state: the sum of a scrambled
+     * 64-bit value per rock position (Zobrist hashing), so we don't need to
+     * build a string of the whole map per cycle.
      */
-    String fingerprint() {
-        StringBuilder sb = new StringBuilder();
+    long fingerprint(int[] rocks) {
+        long result = 0;
         
-        for (char[] c: map) {
-            sb.append(new String(c));
+        for (int r: rocks) {
+            long h = (r + 1) * 0x9e3779b97f4a7c15L;
+            h = (h ^ h >>> 32) * 0xd6e8feb86659fd93L;
+            result += h ^ h >>> 32;
         }
         
-        return sb.toString();
+        return result;
     }
     
     /**
-     * Solves the puzzle for the input coming from the given reader.
+     * Returns the first cycle after which the map was in the given state, or
+     * -1 if it never was. The fingerprint only points to a candidate, which
+     * is checked exactly; a collision falls back to comparing all states.
      */
-    void solve(BufferedReader r) throws IOException {
-        String s = r.readLine();
-        size = s.length();
-        map = new char[size][];
+    long seen(int[] rocks, long fp) {
+        long j = memory.get(fp, -1);
+        if (j == -1 || Arrays.equals(states.get((int) j), rocks)) {
+            return j;
+        }
         
-        for (int i = 0; i < size; i++) {
-            map[i] = s.toCharArray();
-            s = r.readLine();
-        }        
+        for (int k = 0; k < states.size(); k++) {
+            if (Arrays.equals(states.get(k), rocks)) {
+                return k;
+            }
+        }
         
-        drop();
+        return -1;
+    }
+    
+    /**
+     * Solves the puzzle for the given input.
+     */
+    Result solve(Input in) {
+        map = Grid.load(in, 0, (byte) 0);
+        
+        views[0] = map;
+        for (int k = 1; k < 4; k++) {
+            views[k] = views[k - 1].rotate();
+        }
         
-        int part1 = dump();
+        for (int i = 0; i < map.height(); i++) {
+            for (int j = 0; j < map.width(); j++) {
+                if (map.get(i, j) == 'O') {
+                    count++;
+                }
+            }
+        }
+        
+        drop(map);
+        
+        int part1 = totalLoad();
         int part2 = 0;
         
+        if (!quiet) {
+            dump();
+        }
+        
         long i = 0;
         boolean cycle = false;
         while (i <= 1000000000) {
-            System.out.println("After cycle " + i + ":");
-            part2 = dump();
+            if (!cycle && Cancelled.requested()) {
+                throw new Cancelled("spun " + i + " cycles without finding a repetition");
+            }
+
+            part2 = totalLoad();
+            
+            if (!quiet) {
+                System.out.println("After cycle " + i + ":");
+                dump();
+            }
 
             if (!cycle) {
-                String fp = fingerprint();
-                if (memory.containsKey(fp)) {
-                    long j = memory.get(fp);
+                int[] rocks = rocks();
+                long fp = fingerprint(rocks);
+                long j = seen(rocks, fp);
+                if (j != -1) {
                     long l = i - j;
                     
-                    System.out.println("Been here before in cycle " + j + ", length is " + l + ". Fast forward...");
-                    System.out.println();
+                    if (!quiet) {
+                        System.out.println("Been here before in cycle " + j + ", length is " + l + ". Fast forward...");
+                        System.out.println();
+                    }
                     
                     i = j + (1000000000 - j) / l * l; // <--- Integer division.
                     cycle = true;
                 } else {
-                    memory.put(fp, i);
+                    if (!memory.containsKey(fp)) {
+                        memory.put(fp, i);
+                    }
+                    states.add(rocks);
                 }
             }
 
-            for (int k = 0; k < 4; k++) {
-                drop();
-                turn(); 
+            for (Grid g: views) {
+                drop(g);
             }
             
             i++;
         }
         
-        System.out.println("Part 1: " + part1);
-        System.out.println("Part 2: " + part2);
+        if (!quiet) {
+            System.out.println("Part 1: " + part1);
+            System.out.println("Part 2: " + part2);
+        }
+        
+        return new Result(part1, part2);
+    }
+    
+    @Override
+    public Result solve(String file, boolean quiet) throws IOException {
+        this.quiet = quiet;
+        return solve(Input.map(file));
     }
     
     /**
@@ -156,7 +243,7 @@ public class Puzzle {
         System.out.println("*** AoC 2023.14 Parabolic Reflector Dish ***");
         System.out.println();
         
-        new Puzzle().solve(new BufferedReader(new FileReader(args[0])));
+        new Puzzle().solve(args[0], false);
         
         System.out.println();
     }
@@ -1,14 +1,21 @@
 package day15;
 
+import common.Input;
+import common.Result;
+import common.Solver;
 import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
 
 /**
  * Day 12 "Lens Library".
  */
-public class Puzzle {
+public class Puzzle implements Solver {
+
+    /**
+     * Suppresses all diagnostic output when set.
+     */
+    boolean quiet;
 
     /**
      * Represents a single lens.
@@ -23,7 +30,7 @@ public class Puzzle {
     /**
      * Creates the puzzle, initializes the data structure.
      */
-    Puzzle() {
+    public Puzzle() {
         for (int i = 0; i < boxes.length; i++) {
             boxes[i] = new ArrayList();
         }
@@ -55,6 +62,25 @@ public class Puzzle {
         return -1;
     }
     
+    /**
+     * Returns the next step from the given reader, or null at the end. Steps
+     * are read one at a time instead of reading the whole line, so the
+     * input can be of any length.
+     */
+    static String next(BufferedReader r) throws IOException {
+        StringBuilder b = new StringBuilder();
+        
+        int c = r.read();
+        while (c != -1 && (c != ',' && c != '\n' || b.isEmpty())) {
+            if (c != ',' && c != '\n' && c != '\r') {
+                b.append((char) c);
+            }
+            c = r.read();
+        }
+        
+        return b.isEmpty() ? null : b.toString();
+    }
+    
     /**
      * Dumps everything in the same format that the puzzle website uses.
      */
@@ -76,8 +102,8 @@ public class Puzzle {
     /**
      * Calculates the result value (sum of focusing powers, weird formula).
      */
-    int value() {
-        int result = 0;
+    long value() {
+        long result = 0;
         
         for (int i = 0; i < 256; i++) {
             for (int j = 0; j < boxes[i].size(); j++) {
@@ -91,13 +117,11 @@ public class Puzzle {
     /**
      * Solves the puzzle for the input coming from the given reader.
      */
-    void solve(BufferedReader r) throws IOException {
-        int part1 = 0;
+    Result solve(BufferedReader r) throws IOException {
+        long part1 = 0;
                 
-        String s = r.readLine();        
-        String[] a = s.split(",");
-        
-        for (String t: a) {
+        String t = next(r);
+        while (t != null) {
             part1 = part1 + hash(t);
             
             int p = t.indexOf('=');
@@ -122,14 +146,28 @@ public class Puzzle {
                 }
             }
             
-            dump(t);
+            if (!quiet) {
+                dump(t);
+            }
+            
+            t = next(r);
         }
 
-        int part2 = value();
+        long part2 = value();
         
-        System.out.println("Part 1: " + part1);
-        System.out.println("Part 2: " + part2);
-        System.out.println();
+        if (!quiet) {
+            System.out.println("Part 1: " + part1);
+            System.out.println("Part 2: " + part2);
+            System.out.println();
+        }
+        
+        return new Result(part1, part2);
+    }
+    
+    @Override
+    public Result solve(String file, boolean quiet) throws IOException {
+        this.quiet = quiet;
+        return solve(Input.open(file));
     }
     
     /**
@@ -140,6 +178,6 @@ public class Puzzle {
         System.out.println("*** AoC 2023.15 Lens Library ***");
         System.out.println();
         
-        new Puzzle().solve(new BufferedReader(new FileReader(args[0])));
+        new Puzzle().solve(args[0], false);
     }
 }
@@ -1,51 +1,90 @@
 package day16;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
+import common.Cancelled;
+import common.Grid;
+import common.Input;
+import common.IntStack;
+import common.Result;
+import common.Solver;
+import common.Workers;
 import java.io.IOException;
+import java.util.Arrays;
 
 /**
  * Day 16 "The Floor Will Be Lava".
  */
-public class Puzzle {
+public class Puzzle implements Solver {
 
     /**
-     * Size of our (square) map.
+     * Suppresses all diagnostic output when set.
      */
-    int size;
+    boolean quiet;
+
+    /**
+     * The map itself, with a border of 1 zero byte that stops all beams.
+     */
+    Grid map;
     
     /**
-     * The map itself.
+     * Bitmap of ways we've gone through this field already, by index.
      */
-    char[][] map;
+    int[] seen;
     
     /**
-     * Bitmap of ways we've gone through this field already.
+     * The beams still to simulate, as triples of index, dx and dy.
      */
-    int[][] seen;
+    IntStack beams = new IntStack();
     
     /**
-     * Simulates a beam originating at (x,y) traveling with (dx,dy). Returns the
-     * number of newly energized fields. Keeps track of which fields we've
-     * already traveled and in which directions, so we don't do it again (in
-     * order to avoid unnecessary work or even infinite loops). Spawns two
-     * recursive calls of the method when encountering a splitter "flat".
+     * Simulates a beam originating at the given index traveling with (dx,dy).
+     * Returns the number of newly energized fields. Keeps track of which
+     * fields we've already traveled and in which directions, so we don't do it
+     * again (in order to avoid unnecessary work or even infinite loops).
+     * Spawns two new beams when encountering a splitter "flat", which are
+     * kept on an explicit stack instead of recursing, so the method doesn't
+     * depend on the size of the thread stack.
      */
-    int beam(int x, int y, int dx, int dy) {
+    int beam(int index, int dx, int dy) {
         int result = 0;
         
-        while (x >= 0 && x < size && y >= 0 && y < size) {
-            char c = map[x][y];
-
-            if (seen[x][y] == 0) {
+        push(index, dx, dy);
+        while (!beams.isEmpty()) {
+            dy = beams.pop();
+            dx = beams.pop();
+            index = beams.pop();
+            result += trace(index, dx, dy);
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Pushes a beam starting at the given index traveling with (dx,dy).
+     */
+    void push(int index, int dx, int dy) {
+        beams.push(index);
+        beams.push(dx);
+        beams.push(dy);
+    }
+    
+    /**
+     * Follows a single beam until it leaves the map, runs into a known path
+     * or is split. Returns the number of newly energized fields.
+     */
+    int trace(int index, int dx, int dy) {
+        int result = 0;
+        
+        char c = (char) map.get(index);
+        while (c != 0) {
+            if (seen[index] == 0) {
                 result++;
             }
                 
             int k = dx == -1 ? 1 : dy == - 1 ? 2 : dx == 1 ? 4 : 8;
-            if ((seen[x][y] & k) != 0) {
+            if ((seen[index] & k) != 0) {
                 break;                                  // Been here, done that.
             }
-            seen[x][y] |= k;
+            seen[index] |= k;
         
             if (c == '/') {
                 int z = -dy;                            // Mirror type 1
@@ -56,57 +95,106 @@ public class Puzzle {
                 dy = dx;
                 dx = z;
             } else if (c == '-' && dx != 0) {           // Horizontal splitter 
-                return result + beam(x, y - 1, 0, -1) 
-                              + beam(x, y + 1, 0, 1);
+                push(index + map.step(0, 1), 0, 1);
+                push(index + map.step(0, -1), 0, -1);
+                return result;
             } else if (c == '|' && dy != 0) {           // Vertical splitter
-                return result + beam(x - 1, y, -1, 0)
-                              + beam(x + 1, y, 1, 0);
+                push(index + map.step(1, 0), 1, 0);
+                push(index + map.step(-1, 0), -1, 0);
+                return result;
             }
 
-            x = x + dx;
-            y = y + dy;            
+            index = index + map.step(dx, dy);
+            c = (char) map.get(index);
         }
         
         return result;
     }
     
     /**
-     * Solves the puzzle for the input coming from the given reader.
+     * Returns a puzzle sharing the map with this one, but with its own seen
+     * fields and beams, so it can simulate beams on another thread.
+     */
+    Puzzle fork() {
+        Puzzle p = new Puzzle();
+        p.quiet = quiet;
+        p.map = map;
+        p.seen = new int[map.length()];
+        return p;
+    }
+    
+    /**
+     * Simulates the beam entering at the given position on the edge and
+     * returns the number of fields it energizes. The entries are numbered
+     * left edge, right edge, top edge, bottom edge.
      */
-    void solve(BufferedReader r) throws IOException {
-        String s = r.readLine();
-        size = s.length();
-        map = new char[size][size];
-        seen = new int[size][size];
+    int entry(int e) {
+        int width = map.width();
+        int height = map.height();
         
-        for (int i = 0; i < size; i++) {
-            map[i] = s.toCharArray();
-            s = r.readLine();
+        Arrays.fill(seen, 0);
+        
+        if (e < height) {
+            if (!quiet) {
+                System.out.print('.');
+            }
+            return beam(map.index(e, 0), 0, 1);
+        } else if (e < 2 * height) {
+            return beam(map.index(e - height, width - 1), 0, -1);
+        } else if (e < 2 * height + width) {
+            return beam(map.index(0, e - 2 * height), 1, 0);
+        } else {
+            return beam(map.index(height - 1, e - 2 * height - width), -1, 0);
         }
+    }
+    
+    /**
+     * Returns the most fields energized by any of the given entries.
+     */
+    int entries(int from, int to) {
+        int result = 0;
+        for (int e = from; e < to; e++) {
+            if (Cancelled.requested()) {
+                throw new Cancelled("tried " + (e - from) + " of " + (to - from) + " entries");
+            }
+            result = Math.max(result, entry(e));
+        }
+        return result;
+    }
+    
+    /**
+     * Solves the puzzle for the given input. The entries for part 2 are
+     * independent, so they are split up among the worker threads, each
+     * simulating beams with a fork of this puzzle.
+     */
+    Result solve(Input in) {
+        map = Grid.load(in, 1, (byte) 0);
+        seen = new int[map.length()];
         
-        int part1 = beam(0, 0, 0, 1);
+        int part1 = beam(map.index(0, 0), 0, 1);
         int part2 = 0;
 
-        for (int i = 0; i < size; i++) {
-            System.out.print('.');
-            
-            seen = new int[size][size];
-            part2 = Math.max(part2, beam(i, 0, 0, 1));
-            
-            seen = new int[size][size];
-            part2 = Math.max(part2, beam(i, size - 1, 0, -1));
-            
-            seen = new int[size][size];
-            part2 = Math.max(part2, beam(0, i, 1, 0));
-            
-            seen = new int[size][size];
-            part2 = Math.max(part2, beam(size - 1, i, -1, 0));
+        int entries = 2 * (map.width() + map.height());
+        int chunks = Workers.chunks(entries, quiet);
+        
+        for (int max: Workers.map(chunks, k -> fork().entries(Workers.from(k, chunks, entries), Workers.from(k + 1, chunks, entries)))) {
+            part2 = Math.max(part2, max);
         }
         
-        System.out.println();
-        System.out.println();
-        System.out.println("Part 1: " + part1);
-        System.out.println("Part 2: " + part2);
+        if (!quiet) {
+            System.out.println();
+            System.out.println();
+            System.out.println("Part 1: " + part1);
+            System.out.println("Part 2: " + part2);
+        }
+        
+        return new Result(part1, part2);
+    }
+    
+    @Override
+    public Result solve(String file, boolean quiet) throws IOException {
+        this.quiet = quiet;
+        return solve(Input.map(file));
     }
     
     /**
@@ -117,7 +205,7 @@ public class Puzzle {
         System.out.println("*** AoC 2023.16 The Floor Will Be Lava ***");
         System.out.println();
         
-        new Puzzle().solve(new BufferedReader(new FileReader(args[0])));
+        new Puzzle().solve(args[0], false);
         
         System.out.println();
     }
@@ -1,9 +1,14 @@
 package day17;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
+import common.Cancelled;
+import common.Counters;
+import common.Counters.Counter;
+import common.Grid;
+import common.Input;
+import common.Phase;
+import common.Result;
+import common.Solver;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.regex.Pattern;
@@ -11,7 +16,22 @@ import java.util.regex.Pattern;
 /**
  * Day 17 "Clumsy Crucible".
  */
-public class Puzzle {
+public class Puzzle implements Solver {
+
+    /**
+     * Counts the rounds of thinking.
+     */
+    static final Counter ROUNDS = Counters.counter(17, "rounds");
+
+    /**
+     * Counts the updates of a best known cost.
+     */
+    static final Counter RELAXED = Counters.counter(17, "states relaxed");
+
+    /**
+     * Suppresses all diagnostic output when set.
+     */
+    boolean quiet;
     
     /**
      * Represents a coordinate on the map (for in collections).
@@ -31,7 +51,7 @@ public class Puzzle {
     /**
      * The map itself.
      */
-    char[][] map;
+    Grid map;
 
     /**
      * A 2D array of hashmaps mapping traces to best cost. Because of the puzzle
@@ -49,6 +69,11 @@ public class Puzzle {
      */
     int length;
     
+    /**
+     * The number of updates of a best known cost so far.
+     */
+    long relaxed;
+    
     /**
      * Invalid trace regex for part 1.
      */
@@ -68,11 +93,18 @@ public class Puzzle {
         this.length = length;
     }
 
+    /**
+     * Creates a puzzle instance for the part 1 rules.
+     */
+    public Puzzle() {
+        this(PART_1, 3);
+    }
+
     /**
      * Gets the cost for traveling the given field. The usual ASCII trick.
      */
     int getCost(int row, int column) {
-        return map[row][column] - '0';
+        return map.get(row, column) - '0';
     }
 
     /**
@@ -82,6 +114,7 @@ public class Puzzle {
     boolean update(int row, int column, String trace, int cost) {
         if (best[row][column].getOrDefault(trace, 999999) > cost) {
             best[row][column].put(trace, cost);
+            relaxed++;
             return true;
         }
         
@@ -109,55 +142,74 @@ public class Puzzle {
      * Performs a single iteration, trying to find better cost values for all
      * fields by considering to come there from any of the four neighbours.
      * Returns true to indicate a change was made (and we need another round).
+     * The counters are updated even if we get cancelled, as that's when they
+     * are most interesting.
      */
     void think() {
+        Phase phase = Phase.begin(17, "think");
+        int rounds = 0;
         HashSet<XY> queue = new HashSet();
         
         queue.add(new XY(0, 0));
 
-        while (!queue.isEmpty()) {
-            System.out.print('.');
+        try {
+            while (!queue.isEmpty()) {
+                if (!quiet) {
+                    System.out.print('.');
+                }
 
-            HashSet<XY> queue2 = new HashSet();
+                if (Cancelled.requested()) {
+                    throw new Cancelled(rounds + " rounds, " + queue.size() + " fields still to update");
+                }
+
+                HashSet<XY> queue2 = new HashSet();
             
-            for (XY xy: queue) {
-                int i = xy.x;
-                int j = xy.y;
+                for (XY xy: queue) {
+                    int i = xy.x;
+                    int j = xy.y;
                 
-                HashMap<String, Integer> h = best[i][j];
-                for (String s: h.keySet()) {
-                    if (i > 0) {
-                        String t = check("^" + s);
-                        if (t != null && update(i - 1, j, t, h.get(s) + getCost(i - 1, j))) {
-                            queue2.add(new XY(i - 1, j));
+                    HashMap<String, Integer> h = best[i][j];
+                    for (String s: h.keySet()) {
+                        if (i > 0) {
+                            String t = check("^" + s);
+                            if (t != null && update(i - 1, j, t, h.get(s) + getCost(i - 1, j))) {
+                                queue2.add(new XY(i - 1, j));
+                            }
                         }
-                    }
 
-                    if (j > 0) {
-                        String t = check("<" + s);
-                        if (t != null && update(i, j - 1, t, h.get(s) + getCost(i, j - 1))) {
-                            queue2.add(new XY(i, j - 1));
+                        if (j > 0) {
+                            String t = check("<" + s);
+                            if (t != null && update(i, j - 1, t, h.get(s) + getCost(i, j - 1))) {
+                                queue2.add(new XY(i, j - 1));
+                            }
                         }
-                    }
                     
-                    if (i < height - 1) {
-                        String t = check("v" + s);                        
-                        if (t != null && update(i + 1, j, t, h.get(s) + getCost(i + 1, j))) {
-                            queue2.add(new XY(i + 1, j));
+                        if (i < height - 1) {
+                            String t = check("v" + s);                        
+                            if (t != null && update(i + 1, j, t, h.get(s) + getCost(i + 1, j))) {
+                                queue2.add(new XY(i + 1, j));
+                            }
                         }
-                    }
 
-                    if (j < width - 1) {
-                        String t = check(">" + s);
-                        if (t != null && update(i, j + 1, t, h.get(s) + getCost(i, j + 1))) {
-                            queue2.add(new XY(i, j + 1));
+                        if (j < width - 1) {
+                            String t = check(">" + s);
+                            if (t != null && update(i, j + 1, t, h.get(s) + getCost(i, j + 1))) {
+                                queue2.add(new XY(i, j + 1));
+                            }
                         }
                     }
                 }
-            }
             
-            queue = queue2;
+                queue = queue2;
+                rounds++;
+            }
+        } finally {
+            ROUNDS.add(rounds);
+            RELAXED.add(relaxed);
+            relaxed = 0;
         }
+        
+        phase.end(rounds);
     }
     
     /**
@@ -167,7 +219,7 @@ public class Puzzle {
     void draw(int x, int y, String t, int cost) {
         while (x != 0 || y != 0) {
             int c = getCost(x, y);
-            map[x][y] = t.charAt(0);
+            map.set(x, y, (byte) t.charAt(0));
             
             
             switch (t.charAt(0)) {
@@ -189,21 +241,14 @@ public class Puzzle {
     }
     
     /**
-     * Solves the puzzle for the input coming from the given reader.
+     * Loads the map from the given input and prepares the cost tables.
      */
-    int solve(BufferedReader r) throws IOException {
-        String s = r.readLine();
-        width = s.length();
-
-        ArrayList<char[]> temp = new ArrayList();
-        
-        while (s != null) {
-            temp.add(s.toCharArray());
-            s = r.readLine();
-        }
+    void load(Input in) {
+        Phase phase = Phase.begin(17, "load");
+        map = Grid.load(in, 0, (byte) 0);
         
-        height = temp.size();
-        map = temp.toArray(new char[height][]);
+        width = map.width();
+        height = map.height();
         
         best = new HashMap[height][width];
 
@@ -213,6 +258,15 @@ public class Puzzle {
             }
         }
         
+        phase.end(width * height);
+    }
+    
+    /**
+     * Solves the puzzle for the given input.
+     */
+    int solve(Input in) {
+        load(in);
+        
         var start = best[0][0];
         var end = best[height - 1][width - 1];
                 
@@ -220,8 +274,10 @@ public class Puzzle {
         
         think();
 
-        System.out.println();
-        System.out.println();
+        if (!quiet) {
+            System.out.println();
+            System.out.println();
+        }
 
         int result = 999999;
         String trace = null;
@@ -233,24 +289,48 @@ public class Puzzle {
             }
         }
         
-        draw(height - 1, width - 1, trace, result);
-        
-        for (char[] c: map) {
-            for (char d: c) {
-                if (Character.isDigit(d)) {
-                    System.out.print(d);
-                } else {
-                    System.out.print("\033[7m" + d + "\033[m");
+        if (!quiet) {
+            draw(height - 1, width - 1, trace, result);
+
+            for (int i = 0; i < height; i++) {
+                for (int j = 0; j < width; j++) {
+                    char d = (char) map.get(i, j);
+                    if (Character.isDigit(d)) {
+                        System.out.print(d);
+                    } else {
+                        System.out.print("\033[7m" + d + "\033[m");
+                    }
                 }
+                System.out.println();
             }
+
             System.out.println();
         }
         
-        System.out.println();
-        
         return result;
     }
     
+    @Override
+    public Result solve(String file, boolean quiet) throws IOException {
+        this.quiet = quiet;
+        Input in = Input.map(file);
+        int part1 = solve(in);
+        if (!quiet) {
+            System.out.println("Part 1: " + part1);
+            System.out.println();
+        }
+        
+        Puzzle p = new Puzzle(PART_2, 10);
+        p.quiet = quiet;
+        int part2 = p.solve(in);
+        if (!quiet) {
+            System.out.println("Part 2: " + part2);
+            System.out.println();
+        }
+        
+        return new Result(part1, part2);
+    }
+    
     /**
      * Provides the canonical entry point.
      */
@@ -259,12 +339,6 @@ public class Puzzle {
         System.out.println("*** AoC 2023.17 Clumsy Crucible ***");
         System.out.println();
         
-        int part1 = new Puzzle(PART_1, 3).solve(new BufferedReader(new FileReader(args[0])));
-        System.out.println("Part 1: " + part1);
-        System.out.println();
-        
-        int part2 = new Puzzle(PART_2, 10).solve(new BufferedReader(new FileReader(args[0])));
-        System.out.println("Part 2: " + part2);
-        System.out.println();
+        new Puzzle().solve(args[0], false);
     }
 }
@@ -1,5 +1,9 @@
 package day18;
 
+import common.IntStack;
+import common.Phase;
+import common.Result;
+import common.Solver;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
@@ -9,7 +13,12 @@ import java.util.Arrays;
 /**
  * Day 11 "Lavaduct Lagoon".
  */
-public class Puzzle {
+public class Puzzle implements Solver {
+
+    /**
+     * Suppresses all diagnostic output when set.
+     */
+    boolean quiet;
 
     /**
      * A record to hold an instruction from our file.
@@ -25,6 +34,7 @@ public class Puzzle {
      * Read the input file.
      */
     void setup(BufferedReader r) throws IOException {        
+        Phase phase = Phase.begin(18, "setup");
         String s = r.readLine();
         while (s != null) {
             String[] a = s.split(" ");
@@ -35,18 +45,25 @@ public class Puzzle {
             
             plan.add(new Instruction(dir, len, rgb));
             
-            System.out.printf(".");
+            if (!quiet) {
+                System.out.printf(".");
+            }
             
             s = r.readLine();
         }
         
-        System.out.printf("\n\nPlan contains %d instructions.\n", plan.size());
+        if (!quiet) {
+            System.out.printf("\n\nPlan contains %d instructions.\n", plan.size());
+        }
+        
+        phase.end(plan.size());
     }
     
     /**
-     * Performs a recursive flood-fill. Required for part 1.
+     * Fills the given field, if it is on the map and not filled yet, and
+     * pushes it to the given stack. Returns the number of fields filled.
      */
-    int flood(char[][] map, int x, int y) {
+    int fill(char[][] map, int x, int y, IntStack stack) {
         if (x < 0 || x >= map.length || y < 0 || y >= map.length) {
             return 0;
         }
@@ -56,17 +73,38 @@ public class Puzzle {
         }
         
         map[x][y] = '#';
+        stack.push(x * map.length + y);
+        return 1;
+    }
+    
+    /**
+     * Performs a flood-fill and returns the number of fields filled. Keeps
+     * the fields still to visit on an explicit stack, so it doesn't depend on
+     * the size of the thread stack. Required for part 1.
+     */
+    int flood(char[][] map, int x, int y) {
+        IntStack stack = new IntStack();
+        int result = fill(map, x, y, stack);
         
-        return 1 + flood(map, x - 1, y) 
-                 + flood(map, x, y - 1) 
-                 + flood(map, x + 1, y) 
-                 + flood(map, x, y + 1);
+        while (!stack.isEmpty()) {
+            int i = stack.pop();
+            x = i / map.length;
+            y = i % map.length;
+            
+            result += fill(map, x - 1, y, stack) 
+                    + fill(map, x, y - 1, stack) 
+                    + fill(map, x + 1, y, stack) 
+                    + fill(map, x, y + 1, stack);
+        }
+        
+        return result;
     }
     
     /**
      * Solves part 1 using flood-fill.
      */
     int part1() throws IOException {
+        Phase phase = Phase.begin(18, "part1");
         int size = 1000;
         
         char[][] map = new char[size][size];
@@ -109,13 +147,16 @@ public class Puzzle {
             }
         }
             
-        return size * size - flood(map, 0, 0);
+        int result = size * size - flood(map, 0, 0);
+        phase.end(plan.size());
+        return result;
     }
     
     /**
      * Solves part 2 using Gauss' triangle (aka shoelace) formula.
      */
     long part2() {
+        Phase phase = Phase.begin(18, "part2");
         record Point(long x ,long y) { }
 
         ArrayList<Point> points = new ArrayList();
@@ -146,9 +187,27 @@ public class Puzzle {
             a = a + (p.y + q.y) * (p.x - q.x);
         }
         
+        phase.end(plan.size());
         return Math.abs(a / 2) + z / 2 + 1;
     }
     
+    @Override
+    public Result solve(String file, boolean quiet) throws IOException {
+        this.quiet = quiet;
+        setup(new BufferedReader(new FileReader(file)));
+        
+        int part1 = part1();
+        long part2 = part2();
+        
+        if (!quiet) {
+            System.out.println();
+            System.out.println("Part 1: " + part1);
+            System.out.println("Part 2: " + part2);
+        }
+        
+        return new Result(part1, part2);
+    }
+    
     /**
      * Provides the canonical entry point.
      */
@@ -157,14 +216,7 @@ public class Puzzle {
         System.out.println("*** AoC 2023.12 Lavaduct Lagoon ***");
         System.out.println();
         
-        Puzzle p = new Puzzle();
-        p.setup(new BufferedReader(new FileReader(args[0])));
-        int i = p.part1();
-        long l = p.part2();
-                
-        System.out.println();
-        System.out.println("Part 1: " + i);
-        System.out.println("Part 2: " + l);
+        new Puzzle().solve(args[0], false);
         
         System.out.println();
     }
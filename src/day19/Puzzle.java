@@ -1,14 +1,28 @@
 package day19;
 
+import common.Result;
+import common.Solver;
+import common.Tokenizer;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.HashMap;
 
 /**
  * Day 19 "Aplenty".
  */
-public class Puzzle {
+public class Puzzle implements Solver {
+
+    /**
+     * Suppresses all diagnostic output when set.
+     */
+    boolean quiet;
+
+    /**
+     * Parses the numbers out of the input lines.
+     */
+    Tokenizer tokens = new Tokenizer();
 
     /**
      * Represents a rule inside a workflow.
@@ -39,12 +53,10 @@ public class Puzzle {
          * Creates a rule from the textual representation.
          */
         public Rule(String s) {
-            String[] a = s.splitWithDelimiters("[\\<\\>\\:]", 0);
-            
-            field    = "xmas".indexOf(a[0].charAt(0));
-            relation = a[1].charAt(0);
-            value    = Integer.parseInt(a[2]);
-            then     = a[4];
+            field    = "xmas".indexOf(s.charAt(0));
+            relation = s.charAt(1);
+            value    = tokens.reset(s).nextInt();
+            then     = s.substring(tokens.position() + 1);
         }
     }
         
@@ -108,10 +120,9 @@ public class Puzzle {
        Part(String s) {
            values = new int[4];
            
-           String[] a = s.substring(1, s.length() - 1).split(",");
+           tokens.reset(s);
            for (int i = 0; i < 4; i++) {
-               String[] b = a[i].split("=");
-               values[i] = Integer.parseInt(b[1]);
+               values[i] = tokens.nextInt();
            }
         }
         
@@ -159,10 +170,14 @@ public class Puzzle {
         int filter(String s) {
             if ("A".equals(s)) {
                 int i = rating();
-                System.out.printf("Part      %45s is \033[42;37maccepted\033[0m.  --> %5d\n", toString(), i);
+                if (!quiet) {
+                    System.out.printf("Part      %45s is \033[42;37maccepted\033[0m.  --> %5d\n", toString(), i);
+                }
                 return i;
             } else if ("R".equals(s)) {
-                System.out.printf("Part      %45s is \033[41;37mrejected\033[0m.\n", toString());
+                if (!quiet) {
+                    System.out.printf("Part      %45s is \033[41;37mrejected\033[0m.\n", toString());
+                }
                 return 0;
             } else {
                 Workflow wf = workflows.get(s);
@@ -262,33 +277,54 @@ public class Puzzle {
         }
 
         /**
-         * Recursively explores all workflows, splitting multiparts into two
-         * repeatedly on the way, until each multipart is either accepted or
-         * rejected. Returns the total number of equivalent simple parts that
-         * were accepted.
+         * Explores all workflows, splitting multiparts into two repeatedly on
+         * the way, until each multipart is either accepted or rejected.
+         * Returns the total number of equivalent simple parts that were
+         * accepted. Keeps the pending work on an explicit stack instead of
+         * recursing, so it doesn't depend on the size of the thread stack.
+         * Each step is a multipart, its workflow and the next rule to apply.
+         * The part that matches a rule is explored completely before the
+         * remains go on with the next rule, just like depth-first recursion.
          */
         long explore(String s) {
-            if ("A".equals(s)) {
-                System.out.printf("Multipart %45s is \033[42;37maccepted\033[0m.  --> %15d\n", toString(), volume());
-                return volume();
-            } else if ("R".equals(s)) {
-                System.out.printf("Multipart %45s is \033[41;37mrejected\033[0m.\n", toString());
-                return 0;
-            } else {
-                Workflow wf = workflows.get(s);
+            record Step(MultiPart part, String workflow, int rule) { }
+            
+            ArrayDeque<Step> stack = new ArrayDeque();
+            stack.push(new Step(this, s, 0));
+            
+            long result = 0;
+            
+            while (!stack.isEmpty()) {
+                Step step = stack.pop();
+                MultiPart mp = step.part;
                 
-                long result = 0;
-
-                for (Rule r: wf.rules) {
-                    System.out.printf("Multipart %45s is split up.\n", this);
-                    MultiPart mp2 = split(r);
-                    result += mp2.explore(r.then);
+                if ("A".equals(step.workflow)) {
+                    if (!quiet) {
+                        System.out.printf("Multipart %45s is \033[42;37maccepted\033[0m.  --> %15d\n", mp.toString(), mp.volume());
+                    }
+                    result += mp.volume();
+                } else if ("R".equals(step.workflow)) {
+                    if (!quiet) {
+                        System.out.printf("Multipart %45s is \033[41;37mrejected\033[0m.\n", mp.toString());
+                    }
+                } else {
+                    Workflow wf = workflows.get(step.workflow);
+                    
+                    if (step.rule < wf.rules.length) {
+                        Rule r = wf.rules[step.rule];
+                        if (!quiet) {
+                            System.out.printf("Multipart %45s is split up.\n", mp);
+                        }
+                        MultiPart mp2 = mp.split(r);
+                        stack.push(new Step(mp, step.workflow, step.rule + 1));
+                        stack.push(new Step(mp2, r.then, 0));
+                    } else {
+                        stack.push(new Step(mp, wf.otherwise, 0));
+                    }
                 }
-
-                result += explore(wf.otherwise);
-
-                return result;
             }
+            
+            return result;
         }
         
     }
@@ -296,16 +332,20 @@ public class Puzzle {
     /**
      * Solves the puzzle for the input coming from the given reader.
      */
-    void solve(BufferedReader r) throws IOException {
+    Result solve(BufferedReader r) throws IOException {
         String s = r.readLine();
         while (!"".equals(s)) {
             Workflow wf = new Workflow(s);
-            System.out.printf("Workflow  %45s has %d rules.\n", s, wf.rules.length);
+            if (!quiet) {
+                System.out.printf("Workflow  %45s has %d rules.\n", s, wf.rules.length);
+            }
             workflows.put(wf.name, wf);
             s = r.readLine();
         }
 
-        System.out.println();
+        if (!quiet) {
+            System.out.println();
+        }
 
         int part1 = 0;
         s = r.readLine();
@@ -316,14 +356,26 @@ public class Puzzle {
             s = r.readLine();
         }
 
-        System.out.println();
+        if (!quiet) {
+            System.out.println();
+        }
         
         MultiPart mp = new MultiPart(1, 4001, 1, 4001, 1, 4001, 1, 4001);
         long part2 = mp.explore("in");
                 
-        System.out.println();
-        System.out.println("Part 1: " + part1);
-        System.out.println("Part 2: " + part2);
+        if (!quiet) {
+            System.out.println();
+            System.out.println("Part 1: " + part1);
+            System.out.println("Part 2: " + part2);
+        }
+        
+        return new Result(part1, part2);
+    }
+    
+    @Override
+    public Result solve(String file, boolean quiet) throws IOException {
+        this.quiet = quiet;
+        return solve(new BufferedReader(new FileReader(file)));
     }
     
     /**
@@ -334,7 +386,7 @@ public class Puzzle {
         System.out.println("*** AoC 2023.19 Aplenty ***");
         System.out.println();
         
-        new Puzzle().solve(new BufferedReader(new FileReader(args[0])));
+        new Puzzle().solve(args[0], false);
         
         System.out.println();
     }
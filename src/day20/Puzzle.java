@@ -1,171 +1,132 @@
 package day20;
 
+import common.Counters;
+import common.Counters.Counter;
+import common.Graph;
+import common.IntQueue;
+import common.Phase;
+import common.Result;
+import common.Solver;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
-import java.util.ArrayDeque;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.Queue;
 
 /**
  * Day 20 "Pulse Propagation".
  */
-public class Puzzle {
+public class Puzzle implements Solver {
 
     /**
-     * Represents a module (flip-flop, conjunction or broadcaster).
+     * Counts the button presses.
      */
-    class Module {
+    static final Counter PRESSES = Counters.counter(20, "button presses");
 
-        /**
-         * The type of the module. % is flip-flop, & is conjunction, everything
-         * else is broadcaster.
-         */
-        char type = ' ';
+    /**
+     * Counts the pulses processed.
+     */
+    static final Counter PULSES = Counters.counter(20, "pulses processed");
 
-        /**
-         * Name of the module.
-         */
-        String id;
-        
-        /**
-         * Sources of this module, together with the most recent values.
-         */
-        HashMap<Module, Boolean> inputs = new HashMap();
-        
-        /**
-         * Targets of this module.
-         */
-        ArrayList<Module> outputs = new ArrayList();
-        
-        /**
-         * Most recent state of the module.
-         */
-        boolean state;
+    /**
+     * Suppresses all diagnostic output when set.
+     */
+    boolean quiet;
 
-        /**
-         * Creates a module with the given name.
-         */
-        Module(String s) {
-            id = s;
-        }
+    /**
+     * The network of modules, with an edge from each module to each of its
+     * outputs, in the order of the input. There is an extra "button" module
+     * with a single edge to the broadcaster.
+     */
+    Graph modules;
 
-        /**
-         * Sets the type of the module.
-         * @param c 
-         */
-        void setType(char c) {
-            type = c;
-        }
-        
-        /**
-         * Adds an output to this module.
-         */
-        void addOutput(Module m) {
-            outputs.add(m);
-            m.inputs.put(this, false);
-        }
-        
-        /**
-         * Dumps the module.
-         */
-        void dump() {
-            String i = "";
-            for (Module m: inputs.keySet()) {
-                i = i.isEmpty() ? m.id : i + "," + m.id;
-            }
+    /**
+     * The type of each module. % is flip-flop, & is conjunction, everything
+     * else is broadcaster.
+     */
+    char[] types;
 
-            String o = "";
-            for (Module m: outputs) {
-                o = o.isEmpty() ? m.id : o + "," + m.id;
-            }
-            
-            System.out.printf("%s %-15s : %-35s -> %-25s\n", type, id, i, o);
-        }
-        
-        /**
-         * Sends the given value to all outputs.
-         * @param value 
-         */
-        void send(boolean value) {
-            for (Module m: outputs) {
-                queue.add(new Pulse(this, m, value));
-            }
-        }
+    /**
+     * The most recent state of each module.
+     */
+    boolean[] states;
 
-        /**
-         * Receives a signal from a given source module.
-         */
-        void receive(Module m, boolean value) {
-            if (type == '%') {
-                if (!value) {
-                    state = !state;
-                    send(state);
-                }
-            } else if (type == '&') {
-                inputs.put(m, value);
-                
-                state = inputs.values().stream().allMatch(b -> b);
-                send(!state);
-            } else {
-                send(value);
-            }
-            
-        }
-        
-        /**
-         * Resets the module.
-         */
-        void reset() {
-            state = false;
-            for (Module m: inputs.keySet()) {
-                inputs.put(m, false);
-            }
-        }
+    /**
+     * The most recent value sent along each edge, which conjunctions need to
+     * remember for each input.
+     */
+    boolean[] memory;
 
-    }
-    
     /**
-     * Represents a pulse coming from a module and going to another one. We need
-     * this in collectible form.
+     * The number of inputs of each module, and how many of them most recently
+     * sent a high pulse.
      */
-    record Pulse (Module from, Module to, boolean value) {
-        
-        @Override
-        public String toString() {
-            return from.id + " -" + (value ? "high" : "low") + "-> " + to.id; 
-        }
-        
-    };
+    int[] inputs, highs;
 
     /**
-     * The message queue of pulses that still need to be processed.
+     * The edge from the button to the broadcaster.
      */
-    Queue<Pulse> queue = new ArrayDeque();
-    
+    int button;
+
     /**
-     * All known modules, by name.
+     * The message queue of pulses that still need to be processed. Each pulse
+     * is the index of the edge it travels along, times two, plus one if it is
+     * high.
      */
-    HashMap<String, Module> modules = new HashMap();
+    IntQueue queue = new IntQueue();
 
     /**
-     * Returns the module with the given name, creating it if necesary, which is
-     * concenient during the parsing phase.
+     * Sends the given value from the given module to all outputs.
      */
-    Module getModule(String s) {
-        Module m = modules.get(s);
-        if (m == null) {
-            m = new Module(s);
-            modules.put(s, m);
+    void send(int m, boolean value) {
+        for (int e = modules.start(m); e < modules.end(m); e++) {
+            queue.add(e * 2 + (value ? 1 : 0));
         }
-        return m;
     }
-    
+
+    /**
+     * Lets a module receive a signal along the given edge.
+     */
+    void receive(int e, boolean value) {
+        int m = modules.target(e);
+
+        if (types[m] == '%') {
+            if (!value) {
+                states[m] = !states[m];
+                send(m, states[m]);
+            }
+        } else if (types[m] == '&') {
+            if (memory[e] != value) {
+                memory[e] = value;
+                highs[m] += value ? 1 : -1;
+            }
+
+            states[m] = highs[m] == inputs[m];
+            send(m, !states[m]);
+        } else {
+            send(m, value);
+        }
+    }
+
+    /**
+     * Resets all modules.
+     */
+    void reset() {
+        Arrays.fill(states, false);
+        Arrays.fill(memory, false);
+        Arrays.fill(highs, 0);
+    }
+
     /**
      * Loads the puzzle input and builds the network of modules.
      */
     void load(BufferedReader r) throws IOException {
+        Phase phase = Phase.begin(20, "load");
+        Graph.Builder b = new Graph.Builder();
+        HashMap<String, Character> typesByName = new HashMap();
+
+        b.edge("button", "broadcaster");
+
         String s = r.readLine();
         while (s != null) {
             String[] a = s.split(" -> |, ");
@@ -178,24 +139,49 @@ public class Puzzle {
                 c = ' ';
             }
             
-            Module m = getModule(a[0]);
-            m.setType(c);
+            typesByName.put(a[0], c);
             
             for (int i = 1; i < a.length; i++) {
-                m.addOutput(getModule(a[i]));
+                b.edge(a[0], a[i]);
             }
             
             s = r.readLine();
         }
         
+        modules = b.build();
+        button = modules.start(modules.id("button"));
+
+        types = new char[modules.size()];
+        for (int m = 0; m < modules.size(); m++) {
+            types[m] = typesByName.getOrDefault(modules.name(m), ' ');
+        }
+
+        states = new boolean[modules.size()];
+        memory = new boolean[modules.edges()];
+        inputs = modules.inDegrees();
+        highs = new int[modules.size()];
+        
+        phase.end(modules.size());
     }
     
     /**
      * Dumps all modules.
      */
     void dump() {
-        for (Module m: modules.values()) {
-            m.dump();
+        for (int m = 0; m < modules.size(); m++) {
+            String i = "";
+            for (int e = 0; e < modules.edges(); e++) {
+                if (modules.target(e) == m) {
+                    i = i.isEmpty() ? modules.name(modules.source(e)) : i + "," + modules.name(modules.source(e));
+                }
+            }
+
+            String o = "";
+            for (int e = modules.start(m); e < modules.end(m); e++) {
+                o = o.isEmpty() ? modules.name(modules.target(e)) : o + "," + modules.name(modules.target(e));
+            }
+            
+            System.out.printf("%s %-15s : %-35s -> %-25s\n", types[m], modules.name(m), i, o);
         }
         System.out.println();
     }
@@ -204,29 +190,35 @@ public class Puzzle {
      * Solves part 1 of the puzzle for the input coming from the given reader.
      */
     long part1() {
-        Module bc = modules.get("broadcaster");
-        
+        Phase phase = Phase.begin(20, "part1");
         int low = 0;
         int high = 0;
         
         for (int i = 0; i < 1000; i++) {
-            queue.add(new Pulse(null, bc, false));
+            queue.add(button * 2);
             
             while (!queue.isEmpty()) {
-                Pulse p = queue.remove();
+                int p = queue.remove();
+                boolean value = (p & 1) != 0;
 
-                if (p.value()) {
+                if (value) {
                     high++;
                 } else {
                     low++;
                 }
 
-                p.to.receive(p.from, p.value);
+                receive(p >> 1, value);
             }
         }
 
-        System.out.println("Low is " + low + ", high is " + high + ".");
-        System.out.println();
+        if (!quiet) {
+            System.out.println("Low is " + low + ", high is " + high + ".");
+            System.out.println();
+        }
+        
+        phase.end(low + high);
+        PRESSES.add(1000);
+        PULSES.add(low + high);
         
         return low * high;
     }
@@ -236,33 +228,38 @@ public class Puzzle {
      * Finds a cycle for the given module, that is, the number of button
      * presses needed to make this module send a single low pulse.
      */
-    int findCycle(Module m) {
+    int findCycle(String name) {
         int count = 0;
+        long pulses = 0;
+        int m = modules.id(name);
         
-        if (m != null) {
-            Module bc = modules.get("broadcaster");
-
-            for (Module n: modules.values()) {
-                n.reset();
-            }
+        if (m != -1) {
+            reset();
 
             boolean done = false;
             while (!done) {
                 count++;
-                queue.add(new Pulse(null, bc, false));
+                queue.add(button * 2);
 
                 while (!queue.isEmpty()) {
-                    Pulse p = queue.remove();
-                    p.to.receive(p.from, p.value);
-                    if (p.to == m && !p.value) {
+                    int p = queue.remove();
+                    boolean value = (p & 1) != 0;
+                    pulses++;
+                    receive(p >> 1, value);
+                    if (modules.target(p >> 1) == m && !value) {
                         done = true;
                     }
                 }
             }
 
-            System.out.println("Cycle for '" + m.id + "' node is " + count + ".");
+            if (!quiet) {
+                System.out.println("Cycle for '" + name + "' node is " + count + ".");
+            }
         }
         
+        PRESSES.add(count);
+        PULSES.add(pulses);
+        
         return count;
     }
     
@@ -272,16 +269,41 @@ public class Puzzle {
      * output module depends on cycles of its four input modules match.
      */
     long part2() {
-        long xf = findCycle(modules.get("xf"));
-        long cm = findCycle(modules.get("cm"));
-        long gc = findCycle(modules.get("gc"));
-        long sz = findCycle(modules.get("sz"));
+        Phase phase = Phase.begin(20, "part2");
+        long xf = findCycle("xf");
+        long cm = findCycle("cm");
+        long gc = findCycle("gc");
+        long sz = findCycle("sz");
         
-        System.out.println();
+        if (!quiet) {
+            System.out.println();
+        }
         
+        phase.end(xf + cm + gc + sz);
         return xf * cm * gc * sz;
     }
     
+    @Override
+    public Result solve(String file, boolean quiet) throws IOException {
+        this.quiet = quiet;
+        load(new BufferedReader(new FileReader(file)));
+        
+        if (!quiet) {
+            dump();
+        }
+        
+        long part1 = part1();
+        long part2 = part2();
+        
+        if (!quiet) {
+            System.out.println("Part 1: " + part1);
+            System.out.println("Part 2: " + part2);
+            System.out.println();
+        }
+        
+        return new Result(part1, part2);
+    }
+    
     /**
      * Provides the canonical entry point.
      */
@@ -290,15 +312,6 @@ public class Puzzle {
         System.out.println("*** AoC 2023.20 Pulse Propagation ***");
         System.out.println();
         
-        Puzzle p = new Puzzle();
-        p.load(new BufferedReader(new FileReader(args[0])));
-        p.dump();
-        
-        long part1 = p.part1();
-        long part2 = p.part2();
-        
-        System.out.println("Part 1: " + part1);
-        System.out.println("Part 2: " + part2);
-        System.out.println();
+        new Puzzle().solve(args[0], false);
     }
 }
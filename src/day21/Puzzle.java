@@ -1,13 +1,21 @@
 package day21;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
+import common.Cancelled;
+import common.Grid;
+import common.Input;
+import common.Result;
+import common.Solver;
 import java.io.IOException;
 
 /**
  * Day 21 "Step Counter".
  */
-public class Puzzle {
+public class Puzzle implements Solver {
+
+    /**
+     * Suppresses all diagnostic output when set.
+     */
+    boolean quiet;
     
     /**
      * Number of repeats of the original map needed in each direction for
@@ -16,9 +24,15 @@ public class Puzzle {
     static final int REPEATS = 5;
     
     /**
-     * The full map.
+     * The full map, with a border of 1 rock.
      */
-    char[][] map;
+    Grid map;
+    
+    /**
+     * The map the next step is rendered into. Swapped with the full map after
+     * each step.
+     */
+    Grid next;
     
     /**
      * The size of the full map.
@@ -35,35 +49,38 @@ public class Puzzle {
      * plots to all their possible next locations.
      */
     void step() {
-        char[][] mapNew = new char[mapSize][mapSize];
+        int up = map.step(-1, 0);
+        int down = map.step(1, 0);
+        int left = map.step(0, -1);
+        int right = map.step(0, 1);
         
         for (int i = 0; i < mapSize; i++) {
+            int index = map.index(i, 0);
+            
             for (int j = 0; j < mapSize; j++) {
-                char c = map[i][j];
+                byte c = map.get(index);
                 
-                if (c == '#') {
-                    mapNew[i][j] = '#';
-                } else if (c == '.') {
-                    if (i > 0 && map[i - 1][j] == 'O') {
-                        c = 'O';
-                    } else if (i < mapSize - 1 && map[i + 1][j] == 'O') {
-                        c = 'O';
-                    } else if (j > 0 && map[i][j - 1] == 'O') {
-                        c = 'O';
-                    } else if (j < mapSize - 1 && map[i][j + 1] == 'O') {
+                if (c == '.') {
+                    if (map.get(index + up) == 'O' 
+                            || map.get(index + down) == 'O'
+                            || map.get(index + left) == 'O' 
+                            || map.get(index + right) == 'O') {
                         c = 'O';
                     }
-                    
-                    mapNew[i][j] = c;
                 } else if (c == 'O') {
-                    mapNew[i][j] = '.';
-                } else {
-                    throw new RuntimeException("Unexpected character: " + c);
+                    c = '.';
+                } else if (c != '#') {
+                    throw new RuntimeException("Unexpected character: " + (char) c);
                 }
+                
+                next.set(index, c);
+                index += right;
             }
         }
         
-        map = mapNew;
+        Grid g = map;
+        map = next;
+        next = g;
     }
     
     /**
@@ -71,9 +88,7 @@ public class Puzzle {
      */
     void dump() {
         System.out.println();
-        for (int i = 0; i < mapSize; i++) {
-            System.out.println(new String(map[i]));
-        }
+        System.out.print(map);
     }
 
     /**
@@ -84,7 +99,7 @@ public class Puzzle {
         
         for (int i = cellX * cellSize; i < (cellX + 1) * cellSize; i++) {
             for (int j = cellY * cellSize; j < (cellY + 1) * cellSize; j++) {
-              if (map[i][j] == 'O') {
+              if (map.get(i, j) == 'O') {
                   result++;
               }
             }
@@ -94,34 +109,42 @@ public class Puzzle {
     }
     
     /**
-     * Solves the puzzle for the input coming from the given reader.
+     * Solves the puzzle for the given input.
      */
-    void solve(BufferedReader r) throws IOException {
+    Result solve(Input in) {
         // Load the original map an duplicate it in horizontal and vertical
         // directions.
-        String s = r.readLine();
+        Grid cell = Grid.load(in, 0, (byte) 0);
         
-        cellSize = s.length();
+        cellSize = cell.width();
         mapSize = REPEATS * cellSize;
         
-        map = new char[mapSize][];
+        map = new Grid(mapSize, mapSize, 1, (byte) '#');
+        next = new Grid(mapSize, mapSize, 1, (byte) '#');
         
-        for (int i = 0; i < cellSize; i++) {
-            s = s.replace('S', '.').repeat(REPEATS);
-            
+        for (int i = 0; i < REPEATS; i++) {
             for (int j = 0; j < REPEATS; j++) {
-                map[j * cellSize + i] = s.toCharArray();
+                cell.copyTo(map, i * cellSize, j * cellSize);
+            }
+        }
+        
+        for (int i = 0; i < mapSize; i++) {
+            for (int j = 0; j < mapSize; j++) {
+                if (map.get(i, j) == 'S') {
+                    map.set(i, j, (byte) '.');
+                }
             }
-            
-            s = r.readLine();
         }
 
-        map[mapSize / 2][mapSize / 2] = 'O';
+        map.set(mapSize / 2, mapSize / 2, (byte) 'O');
 
         // Do exactly the number of steps needed to reach each of the four
         // edges.
         long part1 = 0;
         for (int i = 0; i < REPEATS / 2 * 131 + 65; i++) {
+            if (Cancelled.requested()) {
+                throw new Cancelled("took " + i + " steps");
+            }
             step();
             
             if (i == 63) {
@@ -131,14 +154,16 @@ public class Puzzle {
 
         // Dump the current state and collect the necessary information from the
         // 25 cells of the map.
-        dump();
+        if (!quiet) {
+            dump();
 
-        System.out.println();
-        for (int i = 0; i < REPEATS; i++) {
-            for (int j = 0; j < REPEATS; j++) {
-                System.out.printf("%10d ", count(i, j));
-            }
             System.out.println();
+            for (int i = 0; i < REPEATS; i++) {
+                for (int j = 0; j < REPEATS; j++) {
+                    System.out.printf("%10d ", count(i, j));
+                }
+                System.out.println();
+            }
         }
         
         long center1    = count(2, 2);
@@ -193,9 +218,19 @@ public class Puzzle {
         part2 += northWest1 + northEast1 + southWest1 + southEast1;
         
         // Done
-        System.out.println();
-        System.out.println("Part 1: " + part1);
-        System.out.println("Part 2: " + part2);
+        if (!quiet) {
+            System.out.println();
+            System.out.println("Part 1: " + part1);
+            System.out.println("Part 2: " + part2);
+        }
+        
+        return new Result(part1, part2);
+    }
+    
+    @Override
+    public Result solve(String file, boolean quiet) throws IOException {
+        this.quiet = quiet;
+        return solve(Input.map(file));
     }
     
     /**
@@ -206,7 +241,7 @@ public class Puzzle {
         System.out.println("*** AoC 2023.21 Step Counter ***");
         System.out.println();
         
-        new Puzzle().solve(new BufferedReader(new FileReader(args[0])));
+        new Puzzle().solve(args[0], false);
         
         System.out.println();
     }
@@ -1,16 +1,23 @@
 package day22;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
+import common.Input;
+import common.IntList;
+import common.IntSet;
+import common.Phase;
+import common.Result;
+import common.Solver;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
 
 /**
  * Day 22 "Sand Slabs".
  */
-public class Puzzle {
+public class Puzzle implements Solver {
+
+    /**
+     * Suppresses all diagnostic output when set.
+     */
+    boolean quiet;
 
     /**
      * Represents the "3D Tetris" map containing the parts.
@@ -18,20 +25,29 @@ public class Puzzle {
     int[][][] map = new int[10][10][500];
 
     /**
-     * The relation representing which parts a given part provides support for.
+     * The relation representing which parts a given part provides support for,
+     * indexed by part number. Null for parts without a level above them.
      */
-    HashMap<Integer, HashSet<Integer>> supportFor = new HashMap();
+    IntList[] supportFor;
     
     /**
-     * The relation representing which parts a given part gets support from.
+     * The relation representing which parts a given part gets support from,
+     * indexed by part number. Null for parts resting on the ground.
+     */
+    IntList[] supportedBy;
+
+    /**
+     * The parts falling in the current disintegration chain.
      */
-    HashMap<Integer, HashSet<Integer>> supportedBy = new HashMap();
+    IntSet falling = new IntSet();
 
     /**
      * Analyzes levels z and z+1 and updates the support relations.
      */
     void dependencies(int z) {
-        System.out.printf("Analyzing level %d:\n", z);
+        if (!quiet) {
+            System.out.printf("Analyzing level %d:\n", z);
+        }
         
         for (int x = 0; x < 10; x++) {
             for (int y = 0; y < 10; y++) {
@@ -39,18 +55,20 @@ public class Puzzle {
                 int b = map[x][y][z + 1];
                 
                 if (a != b) {
-                    if (a != 0 && !supportFor.containsKey(a)) {
-                        supportFor.put(a, new HashSet());
+                    if (a != 0 && supportFor[a] == null) {
+                        supportFor[a] = new IntList();
                     }
 
-                    if (b != 0 && !supportedBy.containsKey(b)) {
-                        supportedBy.put(b, new HashSet());
+                    if (b != 0 && supportedBy[b] == null) {
+                        supportedBy[b] = new IntList();
                     }
 
-                    if (a != 0 && b != 0 && !supportFor.get(a).contains(b)) {
-                        System.out.printf("- %d supports %d\n", a, b);
-                        supportFor.get(a).add(b);
-                        supportedBy.get(b).add(a);
+                    if (a != 0 && b != 0 && !supportFor[a].contains(b)) {
+                        if (!quiet) {
+                            System.out.printf("- %d supports %d\n", a, b);
+                        }
+                        supportFor[a].add(b);
+                        supportedBy[b].add(a);
                     }
                 }
             }
@@ -62,27 +80,42 @@ public class Puzzle {
      * supports are supported by at least one other brick.
      */
     int useless() {        
-        System.out.println("Finding useless bricks:");
+        if (!quiet) {
+            System.out.println("Finding useless bricks:");
+        }
+        Phase phase = Phase.begin(22, "useless");
         int redundant = 0;
+        int parts = 0;
         
-        for (int i: supportFor.keySet()) {
+        for (int i = 1; i < supportFor.length; i++) {
+            if (supportFor[i] == null) {
+                continue;
+            }
+            
             boolean needed = false;
+            parts++;
             
-            for (int j: supportFor.get(i)) {
-                if (supportedBy.get(j).size() == 1) {
+            for (int k = 0; k < supportFor[i].size(); k++) {
+                if (supportedBy[supportFor[i].get(k)].size() == 1) {
                     needed = true;
                     break;
                 }
             }
                 
             if (!needed) {
-                System.out.printf("%d ", i);
+                if (!quiet) {
+                    System.out.printf("%d ", i);
+                }
                 redundant++;
             }
         }            
         
-        System.out.println();
+        if (!quiet) {
+            System.out.println();
+        }
 
+        phase.end(parts);
+        
         return redundant;
     }
     
@@ -92,8 +125,10 @@ public class Puzzle {
      * disintegrated bricks.
      */
     int chain(int start, int number) {
-        System.out.printf("[%d]", start);
-        HashSet<Integer> falling = new HashSet();
+        if (!quiet) {
+            System.out.printf("[%d]", start);
+        }
+        falling.clear();
         falling.add(start);
         
         boolean live = true;
@@ -101,16 +136,18 @@ public class Puzzle {
             live = false;
             
             for (int i = 1; i <= number; i++) {
-                if (!falling.contains(i) && supportedBy.containsKey(i)) {
-                    int remaining = supportedBy.get(i).size();
-                    for (int j: supportedBy.get(i)) {
-                        if (falling.contains(j)) {                            
+                if (!falling.contains(i) && supportedBy[i] != null) {
+                    int remaining = supportedBy[i].size();
+                    for (int k = 0; k < supportedBy[i].size(); k++) {
+                        if (falling.contains(supportedBy[i].get(k))) {
                             remaining--;
                         }
                     }
                     
                     if (remaining == 0) {
-                        System.out.printf(" -> %d", i);
+                        if (!quiet) {
+                            System.out.printf(" -> %d", i);
+                        }
                         falling.add(i);
                         live = true;
                     }
@@ -118,7 +155,9 @@ public class Puzzle {
             }
         }
         
-        System.out.println();
+        if (!quiet) {
+            System.out.println();
+        }
         
         return falling.size() - 1;
     }
@@ -144,34 +183,38 @@ public class Puzzle {
     }
     
     /**
-     * Solves the puzzle for the input coming from the given reader.
+     * Solves the puzzle for the given input.
      */
-    void solve(BufferedReader r) throws IOException {
+    Result solve(Input in) {
 
         int number = 0;
         int height = 0;
 
         // Reads the snapshot of all bricks.
+        Phase phase = Phase.begin(22, "parse");
         ArrayList<int[]> all = new ArrayList();
-        String s = r.readLine();
-        while (s != null) {
-            String[] a = s.split(",|~");
+        for (int j = 0; j < in.lines(); j++) {
+            in.seek(in.start(j));
             int[] v = new int[6];
             
             for (int i = 0; i < 6; i++) {
-                v[i] = Integer.parseInt(a[i]);
+                v[i] = in.nextInt();
             }
             
             all.add(v);
-            System.out.printf("%4d,%4d,%4d -> %4d,%4d,%4d\n", v[0], v[1], v[2], v[3], v[4], v[5]);
-            
-                        
-            s = r.readLine();
+            if (!quiet) {
+                System.out.printf("%4d,%4d,%4d -> %4d,%4d,%4d\n", v[0], v[1], v[2], v[3], v[4], v[5]);
+            }
         }
         
-        System.out.println();
+        if (!quiet) {
+            System.out.println();
+        }
+        
+        phase.end(all.size());
         
         // Sorts bricks, so they fall in correct order.
+        phase = Phase.begin(22, "settle");
         all.sort((int[] o1, int[] o2) -> o1[2] - o2[2]);
 
         // Drops the bricks, one at a time.
@@ -241,37 +284,63 @@ public class Puzzle {
                 }
             }
             
-            System.out.printf("Part %d comes to rest at z=%d\n", number, v[2]);
+            if (!quiet) {
+                System.out.printf("Part %d comes to rest at z=%d\n", number, v[2]);
+            }
             height = Math.max(height, v[5]);
         }
         
-        System.out.println();
+        phase.end(number);
         
         // Dumps the whole map.
-        for (int z = height; z >= 0; z--) {
-            dump(z);
+        if (!quiet) {
+            System.out.println();
+        
+            for (int z = height; z >= 0; z--) {
+                dump(z);
+            }
         }
 
         // Analyzes dependencies on each level.
+        phase = Phase.begin(22, "dependencies");
+        supportFor = new IntList[number + 1];
+        supportedBy = new IntList[number + 1];
         for (int z = 0; z < height + 1; z++) {
             dependencies(z);
         }
+        phase.end(height + 1);
         
-        System.out.println();
+        if (!quiet) {
+            System.out.println();
+        }
 
         // Solves parts 1 and 2.
         long part1 = useless();
         long part2 = 0;
         
-        System.out.println();
-        System.out.println("Disintegrating:");
+        if (!quiet) {
+            System.out.println();
+            System.out.println("Disintegrating:");
+        }
+        phase = Phase.begin(22, "chain");
         for (int i = 1; i <= number; i++) {
             part2 = part2 + chain(i, number);
         }
+        phase.end(number);
         
-        System.out.println();
-        System.out.println("Part 1: " + part1);
-        System.out.println("Part 2: " + part2);
+        if (!quiet) {
+            System.out.println();
+            System.out.println("Part 1: " + part1);
+            System.out.println("Part 2: " + part2);
+        }
+        
+        return new Result(part1, part2);
+    }
+    
+    @Override
+    public Result solve(String file, boolean quiet) throws IOException {
+        this.quiet = quiet;
+        return solve(Input.map(file));
     }
     
     /**
@@ -282,7 +351,7 @@ public class Puzzle {
         System.out.println("*** AoC 2023.22 Sand Slabs ***");
         System.out.println();
         
-        new Puzzle().solve(new BufferedReader(new FileReader(args[0])));
+        new Puzzle().solve(args[0], false);
         
         System.out.println();
     }
@@ -1,16 +1,38 @@
 package day23;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
+import common.Cancelled;
+import common.Counters;
+import common.Counters.Counter;
+import common.Graph;
+import common.Grid;
+import common.Input;
+import common.IntStack;
+import common.Phase;
+import common.Result;
+import common.Solver;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Arrays;
 
 /**
  * Day 23 "A Long Walk".
  */
-public class Puzzle {
+public class Puzzle implements Solver {
+
+    /**
+     * Counts the nodes expanded by the search.
+     */
+    static final Counter EXPANDED = Counters.counter(23, "nodes expanded");
+
+    /**
+     * Counts the paths the search found to the goal.
+     */
+    static final Counter PATHS = Counters.counter(23, "paths found");
+
+    /**
+     * Suppresses all diagnostic output when set.
+     */
+    boolean quiet;
 
     /**
      * The size of the (square) map.
@@ -18,61 +40,20 @@ public class Puzzle {
     int size;
     
     /**
-     * The map itself.
+     * The map itself, with a border of 1 wall.
      */
-    char[][] map;
+    Grid map;
 
     /**
-     * Represents an edge in the graph we are building.
+     * Represents an edge found while building the graph, with the node it
+     * leads to and the cost of traveling it.
      */    
-    class Edge {
-        
-        /**
-         * Target node.
-         */
-        Node to;
-        
-        /**
-         * Cost of traveling this edge.
-         */
-        int cost;
-
-        /**
-         * Creates a new edge with the given target and cost.
-         */
-        Edge(Node to, int cost) {
-            this.to = to;
-            this.cost = cost;
-        }
-        
-        @Override
-        public String toString() {
-            return "--" + cost + "--> " + to;
-        }
-    }
+    record Edge(int to, int cost) { }
     
     /**
-     * Represents a node in the graph we are building.
+     * Represents a node found while building the graph.
      */    
-    class Node {
-        
-        /**
-         * The coordinates of the node.
-         */
-        int x, y;
-        
-        /**
-         * All edges originating from this node.
-         */
-        ArrayList<Edge> edges = new ArrayList();
-        
-        /**
-         * Create a new node for the given coordinates.
-         */
-        Node(int x, int y) {
-            this.x = x;
-            this.y = y;
-        }
+    record Node(int x, int y) {
         
         @Override
         public String toString() {
@@ -81,28 +62,42 @@ public class Puzzle {
     }
 
     /**
-     * All nodes in our graph, by their coordinate strings.
+     * All nodes in our graph, by number.
+     */
+    ArrayList<Node> nodes = new ArrayList();
+    
+    /**
+     * The number of the node at each map index, for the indexes marked as
+     * nodes.
      */
-    HashMap<String, Node> nodes = new HashMap();
+    int[] ids;
 
     /**
-     * The node representing the top left and bottom right corners.
+     * The graph of the nodes, with the costs as weights.
+     */
+    Graph graph;
+    
+    /**
+     * The nodes representing the top left and bottom right corners.
      */
-    Node start, goal;
+    int start, goal;
     
     /**
      * Create a new node for the given coordinates and marks the map
-     * accordingly.
+     * accordingly. Returns its number.
      */
-    Node createNode(int x, int y) {
+    int createNode(int x, int y) {
         Node n = new Node(x, y);
 
-        nodes.put(n.toString(), n);
-        map[x][y] = '+';
+        ids[map.index(x, y)] = nodes.size();
+        nodes.add(n);
+        map.set(x, y, (byte) '+');
         
-        System.out.println("New node " + n);
+        if (!quiet) {
+            System.out.println("New node " + n);
+        }
         
-        return n;
+        return nodes.size() - 1;
     }
     
     /**
@@ -111,24 +106,22 @@ public class Puzzle {
      * sort of crossing).
      */
     void findNodes() {
+        Phase phase = Phase.begin(23, "findNodes");
+        
         start = createNode(0, 1);
         goal = createNode(size - 1, size - 2);
         
+        int[] directions = map.directions();
+        
         for (int x = 1; x < size - 1; x++) {
             for (int y = 1; y < size - 1; y++) {
-                if (map[x][y] != '#') {
+                int index = map.index(x, y);
+                if (map.get(index) != '#') {
                     int walls = 0;
-                    if (map[x - 1][y] == '#') {
-                        walls++;
-                    }
-                    if (map[x][y - 1] == '#') {
-                        walls++;
-                    }
-                    if (map[x + 1][y] == '#') {
-                        walls++;
-                    }
-                    if (map[x][y + 1] == '#') {
-                        walls++;
+                    for (int d: directions) {
+                        if (map.get(index + d) == '#') {
+                            walls++;
+                        }
                     }
 
                     if (walls < 2) {
@@ -138,66 +131,84 @@ public class Puzzle {
             }
         }
         
-        System.out.println();
+        if (!quiet) {
+            System.out.println();
+        }
+        
+        phase.end(nodes.size());
     }
 
+    /**
+     * Pushes a step to the given position, coming from the given previous
+     * position with the given cost, to the given stack.
+     */
+    static void push(IntStack stack, int x, int y, int fromX, int fromY, int cost) {
+        stack.push(x);
+        stack.push(y);
+        stack.push(fromX);
+        stack.push(fromY);
+        stack.push(cost);
+    }
+    
     /**
      * Finds next nodes from a given position and a (known previous position, so
      * we don't walk back). Keeps track of cost. Whenever a node is found an
-     * edge is created that points to it.
+     * edge is created that points to it. Walks depth-first with an explicit
+     * stack of steps instead of recursing once per field, so long corridors
+     * don't depend on the size of the thread stack. The steps are pushed in
+     * reverse order, so they are tried in the same order as before.
      */
     Edge edgeToNextNode(int x, int y, int fromX, int fromY, int cost) {
-        char c = map[x][y];
+        IntStack stack = new IntStack();
+        push(stack, x, y, fromX, fromY, cost);
         
-        if (c == '#') {
-            return null;
-        }
+        while (!stack.isEmpty()) {
+            cost = stack.pop();
+            fromY = stack.pop();
+            fromX = stack.pop();
+            y = stack.pop();
+            x = stack.pop();
+            
+            char c = (char) map.get(x, y);
+            
+            if (c == '#') {
+                continue;
+            }
 
-        if (c == '^' && fromX < x) {
-            return null;
-        }
+            if (c == '^' && fromX < x) {
+                continue;
+            }
 
-        if (c == '<' && fromY < y) {
-            return null;
-        }
+            if (c == '<' && fromY < y) {
+                continue;
+            }
 
-        if (c == 'v' && fromX > x) {
-            return null;
-        }
+            if (c == 'v' && fromX > x) {
+                continue;
+            }
 
-        if (c == '>' && fromY > y) {
-            return null;
-        }
-        
-        if (c == '+') {
-            return new Edge(nodes.get("(" + x + "," + y + ")"), cost);
-        }
+            if (c == '>' && fromY > y) {
+                continue;
+            }
+            
+            if (c == '+') {
+                return new Edge(ids[map.index(x, y)], cost);
+            }
 
-        if (fromX != x - 1) {
-            Edge e = edgeToNextNode(x - 1, y, x, y, cost + 1);
-            if (e != null) {
-                return e;
+            if (fromY != y + 1) {
+                push(stack, x, y + 1, x, y, cost + 1);
             }
-        }
 
-        if (fromY != y - 1) {
-            Edge e = edgeToNextNode(x, y - 1, x, y, cost + 1);
-            if (e != null) {
-                return e;
+            if (fromX != x + 1) {
+                push(stack, x + 1, y, x, y, cost + 1);
             }
-        }
 
-        if (fromX != x + 1) {
-            Edge e = edgeToNextNode(x + 1, y, x, y, cost + 1);
-            if (e != null) {
-                return e;
+            if (fromY != y - 1) {
+                push(stack, x, y - 1, x, y, cost + 1);
             }
-        }
 
-        if (fromY != y + 1) {
-            Edge e = edgeToNextNode(x, y + 1, x, y, cost + 1);
-            if (e != null) {
-                return e;
+            if (fromX != x - 1) {
+                push(stack, x - 1, y, x, y, cost + 1);
             }
         }
         
@@ -205,64 +216,102 @@ public class Puzzle {
     }
     
     /**
-     * Explores the map and finds all edges.
+     * Explores the map and finds all edges, then builds the graph.
      */
     void findEdges() {
-        for (Node n: nodes.values()) {
-            if (n.x > 0) {
-                Edge e = edgeToNextNode(n.x - 1, n.y, n.x, n.y, 1);
-                if (e != null) {
-                    System.out.println("New edge " + n + " " + e);
-                    n.edges.add(e);
-                }
-            }
+        Phase phase = Phase.begin(23, "findEdges");
+        Graph.Builder b = new Graph.Builder();
+        b.vertex(nodes.size() - 1);
+        
+        for (int i = 0; i < nodes.size(); i++) {
+            Node n = nodes.get(i);
             
-            if (n.y > 0) {
-                Edge e = edgeToNextNode(n.x, n.y - 1, n.x, n.y, 1);
-                if (e != null) {
-                    System.out.println("New edge " + n + " " + e);
-                    n.edges.add(e);
-                }
-            }
-
-            if (n.x < size - 1) {
-                Edge e = edgeToNextNode(n.x + 1, n.y, n.x, n.y, 1);
-                if (e != null) {
-                    System.out.println("New edge " + n + " " + e);
-                    n.edges.add(e);
-                }
-            }
+            Edge[] a = {
+                n.x > 0 ? edgeToNextNode(n.x - 1, n.y, n.x, n.y, 1) : null,
+                n.y > 0 ? edgeToNextNode(n.x, n.y - 1, n.x, n.y, 1) : null,
+                n.x < size - 1 ? edgeToNextNode(n.x + 1, n.y, n.x, n.y, 1) : null,
+                n.y < size - 1 ? edgeToNextNode(n.x, n.y + 1, n.x, n.y, 1) : null
+            };
             
-            if (n.y < size - 1) {
-                Edge e = edgeToNextNode(n.x, n.y + 1, n.x, n.y, 1);
+            for (Edge e: a) {
                 if (e != null) {
-                    System.out.println("New edge " + n + " " + e);
-                    n.edges.add(e);
+                    if (!quiet) {
+                        System.out.println("New edge " + n + " --" + e.cost + "--> " + nodes.get(e.to));
+                    }
+                    b.edge(i, e.to, e.cost);
                 }
             }
         }
         
-        System.out.println();
+        graph = b.build();
+        
+        if (!quiet) {
+            System.out.println();
+        }
+        
+        phase.end(graph.edges());
+    }
+    
+    /**
+     * The number of steps explored so far, for reporting progress.
+     */
+    long steps;
+    
+    /**
+     * The number of paths to the goal found so far.
+     */
+    long paths;
+    
+    /**
+     * Explores the graph from the start node, returns the length of the
+     * longest path to the goal. The counters are updated even if we get
+     * cancelled.
+     */
+    int explore() {
+        Phase phase = Phase.begin(23, "explore");
+        long before = steps;
+        paths = 0;
+        
+        int result;
+        try {
+            result = explore(start, 0, 0, new boolean[graph.size()]);
+        } finally {
+            EXPANDED.add(steps - before);
+            PATHS.add(paths);
+        }
+        
+        phase.end(graph.size());
+        
+        return result;
     }
     
     /**
      * Recursively explores the graph and finds all paths from the given node
-     * to a goal node. Keeps track of cost, worst cost so far and the set of
-     * nodes already visited.
+     * to a goal node. Keeps track of cost, worst cost so far and the nodes
+     * already visited. Recursion depth is bounded by the number of nodes.
+     * Checks every million steps or so whether it has been asked to stop.
      */
-    int explore(Node node, int cost, int worst, HashSet<Node> seen) {
+    int explore(int node, int cost, int worst, boolean[] seen) {
+        if ((++steps & 0xfffff) == 0 && Cancelled.requested()) {
+            throw new Cancelled("explored " + steps + " steps, longest path so far " + worst);
+        }
+        
         if (node == goal) {
+            paths++;
             return Math.max(cost, worst);
         }
         
-        for (Edge edge: node.edges) {
-            if (!seen.contains(edge.to)) {
-                seen.add(node);
-                worst = explore(edge.to, cost + edge.cost, worst, seen);
-                seen.remove(node);
+        seen[node] = true;
+        
+        for (int e = graph.start(node); e < graph.end(node); e++) {
+            int to = graph.target(e);
+            if (!seen[to]) {
+                worst = explore(to, cost + graph.weight(e), worst, seen);
             }
         }
         
+        seen[node] = false;
+        
         return worst;
     }
     
@@ -270,56 +319,73 @@ public class Puzzle {
      * Dumps the map.
      */
     void dump() {
-        for (char[] c: map) {
-            System.out.println(new String(c));
-        }
-        
-        System.out.println();
+        System.out.println(map);
     }
     
     /**
-     * Solves the puzzle for the input coming from the given reader.
+     * Loads the map from the given input.
      */
-    void solve(BufferedReader r) throws IOException {
-        String s = r.readLine();
-        
-        size = s.length();
-        map = new char[size][];
-        
-        for (int i = 0; i < size; i++) {
-            map[i] = s.toCharArray();
-            s = r.readLine();
-        }
+    void load(Input in) {
+        Phase phase = Phase.begin(23, "load");
+        map = Grid.load(in, 1, (byte) '#');
+        size = map.width();
+        ids = new int[map.length()];
+        Arrays.fill(ids, -1);
+        phase.end(size);
+    }
+    
+    /**
+     * Solves the puzzle for the given input.
+     */
+    Result solve(Input in) {
+        load(in);
 
-        dump();
+        if (!quiet) {
+            dump();
+        }
         
         findNodes();
         findEdges();
         
-        dump();
+        if (!quiet) {
+            dump();
+        }
 
-        int part1 = explore(start, 0, 0, new HashSet());
+        int part1 = explore();
         
         // Part 2 is basically part 1 without the traffic signs.
         for (int i = 0; i < size; i++) {
             for (int j = 0; j < size; j++) {
-                if ("<>^v+".indexOf(map[i][j]) != -1) {
-                    map[i][j] = '.';
+                if ("<>^v+".indexOf(map.get(i, j)) != -1) {
+                    map.set(i, j, (byte) '.');
                 }
             }
         }
         
         nodes.clear();
+        Arrays.fill(ids, -1);
         
         findNodes();
         findEdges();
         
-        dump();
+        if (!quiet) {
+            dump();
+        }
+        
+        int part2 = explore();
         
-        int part2 = explore(start, 0, 0, new HashSet());
+        if (!quiet) {
+            System.out.println("Part 1: " + part1);
+            System.out.println("Part 2: " + part2);
+        }
         
-        System.out.println("Part 1: " + part1);
-        System.out.println("Part 2: " + part2);
+        return new Result(part1, part2);
+    }
+    
+    @Override
+    public Result solve(String file, boolean quiet) throws IOException {
+        this.quiet = quiet;
+        return solve(Input.map(file));
     }
     
     /**
@@ -330,7 +396,7 @@ public class Puzzle {
         System.out.println("*** AoC 2023.23 A Long Walk ***");
         System.out.println();
         
-        new Puzzle().solve(new BufferedReader(new FileReader(args[0])));
+        new Puzzle().solve(args[0], false);
         
         System.out.println();
     }
@@ -1,5 +1,9 @@
 package day24;
 
+import common.Result;
+import common.Solver;
+import common.Tokenizer;
+import common.Workers;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
@@ -9,7 +13,17 @@ import java.util.ArrayList;
 /**
  * Day 24 "Never Tell Me The Odds".
  */
-public class Puzzle {
+public class Puzzle implements Solver {
+
+    /**
+     * Suppresses all diagnostic output when set.
+     */
+    boolean quiet;
+
+    /**
+     * Parses the numbers out of the input lines.
+     */
+    Tokenizer tokens = new Tokenizer();
 
     /**
      * The min/max values for the accepted range.
@@ -127,14 +141,14 @@ public class Puzzle {
          * file.
          */
         Hailstone(String s) {
-            String[] a = s.split("\\s*(,|@)\\s*");
-            px = Long.parseLong(a[0]);
-            py = Long.parseLong(a[1]);
-            pz = Long.parseLong(a[2]);
+            tokens.reset(s);
+            px = tokens.nextLong();
+            py = tokens.nextLong();
+            pz = tokens.nextLong();
             
-            dx = Long.parseLong(a[3]);
-            dy = Long.parseLong(a[4]);
-            dz = Long.parseLong(a[5]);
+            dx = tokens.nextLong();
+            dy = tokens.nextLong();
+            dz = tokens.nextLong();
         }
 
         /**
@@ -154,10 +168,14 @@ public class Puzzle {
             g.set(1, 1, -other.dy);
             g.set(1, 2, other.py - py);
             
-            g.dump();
+            if (!quiet) {
+                g.dump();
+            }
             
             if (g.solve()) {
-                g.dump();
+                if (!quiet) {
+                    g.dump();
+                }
                 double t = g.get(0, 2);
                 double s = g.get(1, 2);
                 
@@ -167,18 +185,19 @@ public class Puzzle {
                 double x2 = other.px + s * other.dx;
                 double y2 = other.py + s * other.dy;
                 
-                System.out.printf("Solvable! x=%22.3f y=%22.3f ", x1, y1);
+                boolean within = t >= 0 && s >= 0 && MIN <= x1 && x1 <= MAX && MIN <= y1 && y1 <= MAX;
                 
-                if (t >= 0 && s >= 0 && MIN <= x1 && x1 <= MAX && MIN <= y1 && y1 <= MAX) {
-                    System.out.println("and within limits.\033[K");
-                    return true;
-                } else {
-                    System.out.println("but beyond limits.\033[K");
-                    return false;
+                if (!quiet) {
+                    System.out.printf("Solvable! x=%22.3f y=%22.3f ", x1, y1);
+                    System.out.println(within ? "and within limits.\033[K" : "but beyond limits.\033[K");
                 }
+                
+                return within;
             } else {
-                g.dump();
-                System.out.println("Unsolvable!\033[K");
+                if (!quiet) {
+                    g.dump();
+                    System.out.println("Unsolvable!\033[K");
+                }
                 return false;
             }
         }
@@ -203,16 +222,20 @@ public class Puzzle {
         String ss = stdInput.readLine();
         while (ss != null) {
             if (ss.startsWith("In[1]")) {
-                System.out.println(ss + equation);
+                if (!quiet) {
+                    System.out.println(ss + equation);
+                }
             } else if (ss.startsWith("Out[1]")) {
-                System.out.println(ss);
+                if (!quiet) {
+                    System.out.println(ss);
+                }
 
                 String[] sss = ss.split("-> |,");
 
                 a = Long.parseLong(sss[1]);
                 b = Long.parseLong(sss[3]);
                 c = Long.parseLong(sss[5]);
-            } else {
+            } else if (!quiet) {
                 System.out.println(ss);
             }
             
@@ -220,9 +243,11 @@ public class Puzzle {
         }
 
         if (a * b * c == 0) {
-            System.out.println("No response from Raspberry Pi. :( Please copy the following into Mathematica:");
-            System.out.println();
-            System.out.println(equation);
+            if (!quiet) {
+                System.out.println("No response from Raspberry Pi. :( Please copy the following into Mathematica:");
+                System.out.println();
+                System.out.println(equation);
+            }
 
             return 0;
         }
@@ -230,10 +255,32 @@ public class Puzzle {
         return a + b + c;
     }
     
+    /**
+     * Counts the intersections between every stride-th hailstone, starting
+     * with the given one, and all hailstones after it. Striding gives each
+     * chunk a fair share of the early hailstones, which have the most pairs.
+     */
+    int intersections(ArrayList<Hailstone> list, int first, int stride) {
+        int result = 0;
+        
+        for (int i = first; i < list.size(); i += stride) {
+            for (int j = i + 1; j < list.size(); j++) {
+                if (!quiet) {
+                    System.out.printf("\033[9ARunning Gaussian elimination for hailstones %3d and %3d...\n\n", i, j);
+                }
+                if (list.get(i).intersects(list.get(j))) {
+                    result++;
+                }
+            }
+        }
+        
+        return result;
+    }
+    
     /**
      * Solves the puzzle for the input coming from the given reader.
      */
-    void solve(BufferedReader r) throws IOException {
+    Result solve(BufferedReader r) throws IOException {
         ArrayList<Hailstone> list = new ArrayList();
                 
         String s = r.readLine();
@@ -244,18 +291,14 @@ public class Puzzle {
         
         int part1 = 0;
         
-        System.out.print("\n".repeat(9));
+        if (!quiet) {
+            System.out.print("\n".repeat(9));
+        }
         
-        for (int i = 0; i < list.size(); i++) {
-            for (int j = i + 1; j < list.size(); j++) {
-                System.out.printf("\033[9ARunning Gaussian elimination for hailstones %3d and %3d...\n\n", i, j);
-                if (list.get(i).intersects(list.get(j))) {
-                    //System.out.print('#');
-                    part1++;
-                } else {
-                    //System.out.print('.');
-                }
-            }
+        // Pairs are checked on the worker threads, unless we print them
+        int chunks = Workers.chunks(list.size(), quiet);
+        for (int n: Workers.map(chunks, k -> intersections(list, k, chunks))) {
+            part1 += n;
         }
         
         Hailstone h1 = list.get(0);
@@ -278,15 +321,27 @@ public class Puzzle {
         
         sb.append("}]");
 
-        System.out.println();
-        System.out.println("Part 2 is non-linear, so let's get some help...");
-        System.out.println();
+        if (!quiet) {
+            System.out.println();
+            System.out.println("Part 2 is non-linear, so let's get some help...");
+            System.out.println();
+        }
 
         long part2 = mathematica(sb.toString());
         
-        System.out.println();
-        System.out.println("Part 1: " + part1);
-        System.out.println("Part 2: " + part2);
+        if (!quiet) {
+            System.out.println();
+            System.out.println("Part 1: " + part1);
+            System.out.println("Part 2: " + part2);
+        }
+        
+        return new Result(part1, part2);
+    }
+    
+    @Override
+    public Result solve(String file, boolean quiet) throws IOException {
+        this.quiet = quiet;
+        return solve(new BufferedReader(new FileReader(file)));
     }
     
     /**
@@ -297,7 +352,7 @@ public class Puzzle {
         System.out.println("*** AoC 2023.24 Never Tell Me The Odds ***");
         System.out.println();
         
-        new Puzzle().solve(new BufferedReader(new FileReader(args[0])));
+        new Puzzle().solve(args[0], false);
         
         System.out.println();
     }
@@ -1,16 +1,38 @@
 package day25;
 
+import common.Cancelled;
+import common.Counters;
+import common.Counters.Counter;
+import common.Graph;
+import common.Phase;
+import common.Result;
+import common.Solver;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.Random;
+import java.util.stream.IntStream;
 
 /**
  * Day 25 "Snowverload" using Karger's algorithm.
  */
-public class Puzzle {
+public class Puzzle implements Solver {
+
+    /**
+     * Counts the random contractions tried.
+     */
+    static final Counter TRIALS = Counters.counter(25, "contraction trials");
+
+    /**
+     * Counts the edges contracted, over all trials.
+     */
+    static final Counter CONTRACTIONS = Counters.counter(25, "edges contracted");
+
+    /**
+     * Suppresses all diagnostic output when set.
+     */
+    boolean quiet;
 
     /**
      * Since we are applying a randomized algorithm we will need a bit of
@@ -19,127 +41,87 @@ public class Puzzle {
     static Random rnd = new Random();
 
     /**
-     * Helper class representing the nodes.
+     * The graph, with an edge in each direction for each connection.
      */
-    class Node {
+    Graph graph;
 
-        /**
-         * The name of the node.
-         */
-        String name;
+    /**
+     * The connections, as indexes of the graph's edges, one per connection.
+     */
+    int[] edges;
 
-        /**
-         * Contains all edges that are connected to this node.
-         */
-        ArrayList<Edge> edges = new ArrayList();
-        
-        /**
-         * Reflects how many original nodes this one represents (after merging).
-         */
-        int weight = 1;
-
-        /**
-         * Creates a new, named node.
-         */
-        Node(String s) {
-            name = s;
-        }
-        
-        @Override
-        public String toString() {
-            return name + " (weight " + weight + ")";
-        }
-        
-    }
+    /**
+     * The node each node has been merged into, or itself if it hasn't (a
+     * union-find forest).
+     */
+    int[] parents;
 
     /**
-     * Helper class representing the edges.
+     * Reflects how many original nodes each node represents (after merging).
      */
-    class Edge {
-        
-        /**
-         * Contains the two nodes this edge connects.
-         */
-        Node node1, node2;
-
-        /**
-         * Creates a new edge that connects the given nodes.
-         */
-        Edge(Node n1, Node n2) {
-            node1 = n1;
-            node2 = n2;
-        }
-        
-        /**
-         * Redirects either of the edge's two nodes from source to destination.
-         */
-        void redirect(Node src, Node dst) {
-            if (node1 == src) {
-                node1 = dst;
-            } else if (node2 == src) {
-                node2 = dst;
-            }
-        }
+    int[] weights;
 
-        /**
-         * Checks if this is connecting a node to itself (which we don't want).
-         */
-        boolean isSelfEdge() {
-            return node1 == node2;
-        }
-        
-        @Override
-        public String toString() {
-            return node1.name + " <-> " + node2.name;
-        }
-    }
-    
     /**
-     * Lists of all nodes and edges for easy access.
+     * The number of nodes left after merging.
      */
-    ArrayList<Node> nodes = new ArrayList();
-    ArrayList<Edge> edges = new ArrayList();
+    int nodes;
 
     /**
-     * Contracts an edge by merging its second node into its first node,
-     * adapting all edges attached to that second node accordingly. We remove
-     * all "self" edges that might emerge, but keep redundant edges (because
-     * they are needed).
+     * The smallest cut found so far.
      */
-    void contract(Edge e) {
-        Node dst = e.node1;
-        Node src = e.node2;
-        
-        //System.out.println("Merging node " + src + " into node " + dst);
+    int smallest = Integer.MAX_VALUE;
 
-        e.node1.weight += e.node2.weight;
-        
-        nodes.remove(src);
-        edges.remove(e);
-        
-        for (Edge f: src.edges) {
-            f.redirect(src, dst);
-            if (f.isSelfEdge()) {
-                dst.edges.remove(f);
-                edges.remove(f);
-            } else {
-                dst.edges.add(f);
-            }
+    /**
+     * Returns the node the given one has been merged into, directly or not.
+     */
+    int find(int n) {
+        while (parents[n] != n) {
+            parents[n] = parents[parents[n]];
+            n = parents[n];
         }
+        return n;
     }
-    
+
+    /**
+     * Contracts the given edge by merging the nodes it connects. Returns false
+     * if they have already been merged, so the edge has become a "self" edge.
+     */
+    boolean contract(int e) {
+        int dst = find(graph.source(e));
+        int src = find(graph.target(e));
+
+        if (dst == src) {
+            return false;
+        }
+
+        parents[src] = dst;
+        weights[dst] += weights[src];
+        nodes--;
+        return true;
+    }
+
+    /**
+     * Returns the connections between different nodes, after merging.
+     */
+    int[] cut() {
+        return Arrays.stream(edges).filter(e -> find(graph.source(e)) != find(graph.target(e))).toArray();
+    }
+
     /**
      * Dumps the graph.
      */
     void dump() {
-        System.out.println("Graph has " + nodes.size() + " nodes and " + edges.size() + " edges.");
+        int[] cut = cut();
+        System.out.println("Graph has " + nodes + " nodes and " + cut.length + " edges.");
         System.out.println();
-        for (Node n: nodes) {
-            System.out.println("Node: " + n);
-            for (Edge e: n.edges) {
-                System.out.println("  Edge: " + e);
+        for (int n = 0; n < graph.size(); n++) {
+            if (find(n) == n) {
+                System.out.println("Node: " + graph.name(n) + " (weight " + weights[n] + ")");
             }
         }
+        for (int e: cut) {
+            System.out.println("  Edge: " + graph.name(graph.source(e)) + " <-> " + graph.name(graph.target(e)));
+        }
         System.out.println();
     }
 
@@ -147,65 +129,119 @@ public class Puzzle {
      * Loads the graph from the given reader.
      */
     void load(BufferedReader r) throws IOException {
-        HashMap<String, Node> nodesByName = new HashMap();
+        Phase phase = Phase.begin(25, "load");
+        Graph.Builder b = new Graph.Builder();
     
         String s = r.readLine();
         while (s != null) {
             String[] a = s.split(": | ");
-            Node n1 = nodesByName.get(a[0]);
-            if (n1 == null) {
-                n1 = new Node(a[0]);
-                nodes.add(n1);
-                nodesByName.put(a[0], n1);
-            }
+            int n1 = b.vertex(a[0]);
             
             for (int i = 1; i < a.length; i++) {
-                Node n2 = nodesByName.get(a[i]);
-                if (n2 == null) {
-                    n2 = new Node(a[i]);
-                    nodesByName.put(a[i], n2);
-                    nodes.add(n2);
-                }
-
-                Edge e = new Edge(n1, n2);
-                edges.add(e);
-                
-                n1.edges.add(e);
-                n2.edges.add(e);
+                int n2 = b.vertex(a[i]);
+                b.edge(n1, n2);
+                b.edge(n2, n1);
             }
             
             s = r.readLine();
         }
+        
+        graph = b.build();
+        edges = IntStream.range(0, graph.edges()).filter(e -> graph.source(e) < graph.target(e)).toArray();
+        parents = new int[graph.size()];
+        weights = new int[graph.size()];
+        
+        phase.end(edges.length);
     }
         
     /**
-     * Solves the puzzle for the input coming from the given reader.
+     * Tries to find the 3-cut with Karger's algorithm: contracts random edges
+     * until only two nodes are left. Picking a random edge among those left
+     * is the same as contracting the edges in random order, skipping those
+     * that have become "self" edges, which we do with a shuffled array and a
+     * union-find forest. Returns true if the random contraction found the
+     * 3-cut, false otherwise.
      */
-    void solve(BufferedReader r) throws IOException {
-        load(r);
-
-        System.out.print('.');
+    boolean contract() {
+        if (!quiet) {
+            System.out.print('.');
+        }
+        
+        Phase phase = Phase.begin(25, "contract");
+        int contractions = 0;
+        
+        for (int n = 0; n < parents.length; n++) {
+            parents[n] = n;
+            weights[n] = 1;
+        }
+        nodes = parents.length;
         
-        while (nodes.size() > 2) {
-            int i = rnd.nextInt(edges.size());
-            contract(edges.get(i));
+        for (int i = edges.length - 1; nodes > 2 && i >= 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            int e = edges[j];
+            edges[j] = edges[i];
+            edges[i] = e;
+            
+            if (contract(e)) {
+                contractions++;
+            }
         }
         
-        if (edges.size() == 3) {
-            System.out.println();
-            System.out.println();
-            dump();
+        phase.end(contractions);
+        TRIALS.add(1);
+        CONTRACTIONS.add(contractions);
+        
+        int cut = cut().length;
+        smallest = Math.min(smallest, cut);
+        
+        if (cut == 3) {
+            if (!quiet) {
+                System.out.println();
+                System.out.println();
+                dump();
             
-            System.out.println("Bingo!");
+                System.out.println("Bingo!");
             
-            int i = nodes.get(0).weight;
-            int j = nodes.get(1).weight;
+                long product = product();
             
-            System.out.println();
-            System.out.println("Part 1: " + i + " * " + j + " = " + i * j);
-            System.out.println();
-            System.exit(1);
+                System.out.println();
+                System.out.println("Part 1: " + product);
+                System.out.println();
+            }
+            return true;
         }
+        
+        return false;
+    }
+    
+    /**
+     * Returns the product of the sizes of the two remaining groups.
+     */
+    long product() {
+        long result = 1;
+        for (int n = 0; n < parents.length; n++) {
+            if (find(n) == n) {
+                result *= weights[n];
+            }
+        }
+        return result;
+    }
+    
+    @Override
+    public Result solve(String file, boolean quiet) throws IOException {
+        this.quiet = quiet;
+        load(new BufferedReader(new FileReader(file)));
+        
+        int attempts = 1;
+        while (!contract()) {
+            // Try again, the odds are good enough, unless asked to stop
+            if (Cancelled.requested()) {
+                throw new Cancelled("no 3-cut in " + attempts + " random contractions, smallest cut had " + smallest + " edges");
+            }
+            attempts++;
+        }
+        
+        return new Result(product(), 0);
     }
     
     /**
@@ -216,8 +252,6 @@ public class Puzzle {
         System.out.println("*** AoC 2023.25 Snowverload ***");
         System.out.println();
 
-        while (true) {
-            new Puzzle().solve(new BufferedReader(new FileReader(args[0])));
-        }
+        new Puzzle().solve(args[0], false);
     }
 }
@@ -0,0 +1,170 @@
+package launcher;
+
+import common.Result;
+import common.Solver;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps the puzzles loaded in a long-lived JVM and solves them on request, so
+ * repeated runs pay neither for JVM startup nor for JIT warm-up. Listens on a
+ * TCP port on the loopback interface, so only local clients can connect, and
+ * bash can talk to it through /dev/tcp without any extra tools. Each
+ * connection sends a single line "<day> <input file>" and gets back the
+ * answers and the solve time, or an error. The line "stop" shuts the daemon
+ * down. Before accepting requests, all days are solved once on their example
+ * inputs, so the first real request already finds the code warm. Usage:
+ *
+ *     java launcher.Daemon [--port 2023] [--threads n] [--no-warmup]
+ */
+public class Daemon {
+
+    /**
+     * The port to listen on.
+     */
+    int port = 2023;
+
+    /**
+     * The number of requests solved at the same time.
+     */
+    int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Reflects whether the days are warmed up before accepting requests.
+     */
+    boolean warmup = true;
+
+    /**
+     * The socket we listen on.
+     */
+    ServerSocket server;
+
+    /**
+     * Parses the command line arguments.
+     */
+    void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port" -> port = Integer.parseInt(args[++i]);
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--no-warmup" -> warmup = false;
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+    }
+
+    /**
+     * Solves the given file with a fresh puzzle of the given day.
+     */
+    static Result solve(int day, String file) throws ReflectiveOperationException, IOException {
+        Solver solver = (Solver) Class.forName(Launcher.className(day)).getDeclaredConstructor().newInstance();
+        return solver.solve(file, true);
+    }
+
+    /**
+     * Solves all days once on each of their example inputs, ignoring any
+     * failures, so the JIT compiles the hot code before the first request.
+     */
+    void warmup() {
+        long t = System.nanoTime();
+
+        for (int day = 1; day <= 25; day++) {
+            File[] files = new File(String.format("src/day%02d", day)).listFiles((dir, name) -> name.startsWith("example"));
+            if (files != null) {
+                for (File f: files) {
+                    try {
+                        solve(day, f.getPath());
+                    } catch (ReflectiveOperationException | IOException | RuntimeException e) {
+                        // Not all examples suit both parts, that's fine
+                    }
+                }
+            }
+        }
+
+        System.out.printf("Warmed up in %.1fms\n", (System.nanoTime() - t) / 1e6);
+    }
+
+    /**
+     * Answers the single request of the given connection.
+     */
+    void handle(Socket socket) {
+        try (socket) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+            PrintStream out = new PrintStream(socket.getOutputStream(), true);
+
+            String s = in.readLine();
+            if (s == null) {
+                return;
+            }
+
+            if ("stop".equals(s.trim())) {
+                out.println("Stopping");
+                server.close();
+                return;
+            }
+
+            String[] a = s.trim().split(" ", 2);
+            try {
+                int day = Integer.parseInt(a[0]);
+                String file = a.length > 1 ? a[1] : Launcher.inputPath(day, "input.txt");
+
+                long t = System.nanoTime();
+                Result result = solve(day, file);
+                t = System.nanoTime() - t;
+
+                out.println("Part 1: " + result.part1());
+                out.println("Part 2: " + result.part2());
+                out.printf("Solved in %.1fms\n", t / 1e6);
+            } catch (ReflectiveOperationException | IOException | RuntimeException e) {
+                out.println("Error: " + e);
+            }
+        } catch (IOException e) {
+            System.out.println("Connection failed: " + e);
+        }
+    }
+
+    /**
+     * Accepts and answers requests until stopped.
+     */
+    void serve() throws IOException {
+        server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+
+        if (warmup) {
+            warmup();
+        }
+
+        System.out.println("Listening on " + server.getLocalSocketAddress());
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            while (true) {
+                Socket socket = server.accept();
+                pool.submit(() -> handle(socket));
+            }
+        } catch (SocketException e) {
+            // The server socket was closed by a stop request
+        } finally {
+            pool.shutdown();
+        }
+
+        System.out.println("Stopped");
+    }
+
+    /**
+     * Provides the canonical entry point.
+     */
+    public static void main(String[] args) throws IOException {
+        Daemon d = new Daemon();
+        d.parse(args);
+        d.serve();
+    }
+}
@@ -0,0 +1,898 @@
+package launcher;
+
+import common.Cancelled;
+import common.Counters;
+import common.Counters.Counter;
+import common.Input;
+import common.Phase;
+import common.Result;
+import common.Solver;
+import common.Workers;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Runs all (or some) days inside a single JVM, so we pay for JVM startup and
+ * JIT warm-up only once. Each day's class is loaded reflectively, instantiated
+ * and asked to solve the requested input file through the Solver interface.
+ * Setup (class loading and instantiation) and solve are timed separately, and
+ * the answers end up in the report next to the timings. With --jfr the whole
+ * run is recorded by the JDK Flight Recorder, including the phase events the
+ * days emit, and a per-phase summary is printed at the end. In parallel mode
+ * each day runs on its own worker thread and its output is captured and
+ * printed in order once all days are done. With --runs all days are run
+ * several times, each time with a fresh instance, and the report shows the
+ * medians, followed by the minimum, median, 99th percentile and maximum time
+ * of each day. Adding --warmup runs all days a few times more beforehand,
+ * without timing them, so the JIT has compiled them by then. The median and
+ * 95th percentile of the run times can be recorded to a baseline file, and
+ * later runs compared against it to catch days that got slower. With --cache the
+ * answers are remembered per day, code version and input, and days whose
+ * code and input didn't change since are not solved again. With --batch a
+ * single day solves many input files concurrently, one line per file. With
+ * --memory the report also shows the heap each day needed, and the phase
+ * summary the bytes each phase allocated. With --sweep-heap each day is run
+ * in child JVMs to find the smallest heap it completes with. With --timeout
+ * each day gets a time budget, after which its long loops give up and report
+ * how far they got, so a single pathological input can't stall a whole run.
+ * With --workers the days that split up their own work use that many
+ * worker threads (see common.Workers). With --stats the search-heavy days
+ * count their work, like memo hits or nodes expanded, and the counts are
+ * printed at the end (see common.Counters).
+ */
+public class Launcher {
+
+    /**
+     * The name of the input file to use for each day. May list alternatives
+     * separated by commas, the first one that exists is used.
+     */
+    String input = "input.txt";
+
+    /**
+     * The days to run.
+     */
+    ArrayList<Integer> days = new ArrayList();
+
+    /**
+     * Reflects whether days run in parallel.
+     */
+    boolean parallel;
+
+    /**
+     * Reflects whether the days' diagnostic output is suppressed.
+     */
+    boolean quiet;
+
+    /**
+     * The file to write a flight recording to, if any.
+     */
+    String jfr;
+
+    /**
+     * The number of times to run each day, 0 for the default: 5 when
+     * recording or comparing a baseline, 1 otherwise.
+     */
+    int runs;
+
+    /**
+     * The number of times to run each day before timing, to warm up the JIT.
+     */
+    int warmup;
+
+    /**
+     * The time budget for solving each day in seconds, 0 for none.
+     */
+    double timeout;
+
+    /**
+     * The baseline file to record the statistics to, if any.
+     */
+    String record;
+
+    /**
+     * The baseline file to compare the statistics with, if any.
+     */
+    String compare;
+
+    /**
+     * The relative change in percent above which a day counts as regressed.
+     */
+    double threshold = 10;
+
+    /**
+     * The change in nanoseconds below which a day never counts as regressed,
+     * since short days vary more than that between runs.
+     */
+    static final long NOISE = 1000000;
+
+    /**
+     * The growth in bytes allocated below which a day never counts as
+     * regressed, since small days allocate a few more or fewer kilobytes
+     * from run to run, depending on the JIT and class loading.
+     */
+    static final long ALLOCATION_NOISE = 1000000;
+
+    /**
+     * Reflects whether a day regressed compared to the baseline.
+     */
+    boolean regressed;
+
+    /**
+     * Reflects whether the heap usage of the days is tracked and reported.
+     */
+    boolean memory;
+
+    /**
+     * Reflects whether to search the smallest heap size for each day
+     * instead of running the days here.
+     */
+    boolean sweep;
+
+    /**
+     * Tracks the heap usage, if requested.
+     */
+    Memory heap;
+
+    /**
+     * The directory or glob pattern of the input files to solve in batch
+     * mode, if any.
+     */
+    String batch;
+
+    /**
+     * The directory of the result cache, if any.
+     */
+    String cacheDir;
+
+    /**
+     * The maximum number of entries in the result cache.
+     */
+    int cacheSize = 1000;
+
+    /**
+     * The result cache, if any.
+     */
+    ResultCache cache;
+
+    /**
+     * The number of worker threads in parallel mode.
+     */
+    int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Provides CPU time and allocation numbers for the current thread.
+     */
+    static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * Represents the timing and answers of a single day. Times are in
+     * nanoseconds. With a cache, hashing the input for the key counts as
+     * setup. Cached answers weren't solved, so their solve time is that of
+     * the cache lookup. The peak and live heap sizes are in bytes,
+     * and only tracked with --memory (see Memory).
+     */
+    record Timing(int day, long setup, long solve, long cpu, long allocated, Result result, String error, boolean cached, long peak, long live) { }
+
+    /**
+     * The timings collected so far, of all runs.
+     */
+    ArrayList<Timing> timings = new ArrayList();
+
+    /**
+     * Represents the statistics of a day over all runs: median and 95th
+     * percentile of setup plus solve time in nanoseconds, and the median of
+     * the allocated bytes.
+     */
+    record Baseline(int day, long median, long p95, long allocated) { }
+
+    /**
+     * Parses the command line arguments.
+     */
+    void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String s = args[i];
+
+            switch (s) {
+                case "--input" -> input = args[++i];
+                case "--parallel" -> parallel = true;
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--quiet" -> quiet = true;
+                case "--jfr" -> jfr = args[++i];
+                case "--runs", "--iterations" -> runs = Integer.parseInt(args[++i]);
+                case "--warmup" -> warmup = Integer.parseInt(args[++i]);
+                case "--timeout" -> timeout = Double.parseDouble(args[++i]);
+                case "--workers" -> Workers.threads(Integer.parseInt(args[++i]));
+                case "--stats" -> Counters.enable(true);
+                case "--record" -> record = args[++i];
+                case "--compare" -> compare = args[++i];
+                case "--threshold" -> threshold = Double.parseDouble(args[++i]);
+                case "--memory" -> memory = true;
+                case "--sweep-heap" -> sweep = true;
+                case "--batch" -> batch = args[++i];
+                case "--cache" -> cacheDir = args[++i];
+                case "--cache-size" -> cacheSize = Integer.parseInt(args[++i]);
+                default -> {
+                    if (s.matches("[0-9]+")) {
+                        days.add(Integer.parseInt(s));
+                    } else {
+                        input = s;
+                    }
+                }
+            }
+        }
+
+        if (days.isEmpty()) {
+            for (int i = 1; i <= 25; i++) {
+                days.add(i);
+            }
+        }
+
+        if (runs == 0) {
+            runs = record != null || compare != null ? 5 : 1;
+        }
+    }
+
+    /**
+     * Returns the name of the puzzle class for the given day.
+     */
+    static String className(int day) {
+        return String.format("day%02d.Puzzle", day);
+    }
+
+    /**
+     * Returns the path of the given input file for the given day. Picks the
+     * first alternative that exists, or the last one if none does. "-"
+     * stands for standard input.
+     */
+    static String inputPath(int day, String input) {
+        String path = null;
+        for (String s: input.split(",")) {
+            if (Input.STDIN.equals(s)) {
+                return Input.STDIN;
+            }
+            path = String.format("src/day%02d/%s", day, s);
+            if (new File(path).exists()) {
+                break;
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Runs a single day on the current thread, returns its timing.
+     */
+    Timing run(int day) {
+        String file = inputPath(day, input);
+        if (!Input.STDIN.equals(file) && !new File(file).exists()) {
+            return new Timing(day, 0, 0, 0, 0, null, "no such file " + file, false, 0, 0);
+        }
+
+        return run(day, file);
+    }
+
+    /**
+     * Runs a single day on the given input file on the current thread,
+     * returns its timing. Always uses a fresh instance of the puzzle, since
+     * many keep per-run state in their fields. With a timeout, a watchdog
+     * interrupts the solve once the budget runs out, and a day that gives up
+     * reports how far it got as its error.
+     */
+    Timing run(int day, String file) {
+        if (!quiet) {
+            System.out.println();
+            System.out.printf("*** Day %02d ***\n", day);
+            System.out.println();
+        }
+
+        if (heap != null) {
+            heap.reset();
+        }
+
+        long cpu = THREADS.getCurrentThreadCpuTime();
+        long allocated = THREADS.getCurrentThreadAllocatedBytes();
+
+        long t0 = System.nanoTime();
+        long t1 = t0;
+
+        Result result = null;
+        String error = null;
+        boolean cached = false;
+        Watchdog watchdog = null;
+
+        Phase phase = Phase.begin(day, "instantiate");
+
+        try {
+            Solver solver = (Solver) Class.forName(className(day)).getDeclaredConstructor().newInstance();
+            String key = cache != null ? cache.key(day, solver.getClass(), file) : null;
+            t1 = System.nanoTime();
+            phase.end(1);
+
+            phase = Phase.begin(day, "solve");
+
+            if (timeout > 0) {
+                watchdog = new Watchdog((long) (timeout * 1e9));
+            }
+
+            result = key != null ? cache.get(key) : null;
+            cached = result != null;
+
+            if (!cached) {
+                result = solver.solve(file, quiet);
+
+                if (key != null) {
+                    cache.put(key, result);
+                }
+            }
+        } catch (Cancelled e) {
+            error = e.getMessage();
+        } catch (ClosedByInterruptException e) {
+            error = "interrupted while reading the input";
+        } catch (ReflectiveOperationException | IOException | RuntimeException e) {
+            error = e.toString();
+        }
+
+        if (watchdog != null && watchdog.stop() && error != null) {
+            error = String.format("timed out after %.1fs, %s", timeout, error);
+        }
+
+        phase.end(1);
+
+        long t2 = System.nanoTime();
+
+        return new Timing(day, t1 - t0, t2 - t1,
+                THREADS.getCurrentThreadCpuTime() - cpu,
+                THREADS.getCurrentThreadAllocatedBytes() - allocated,
+                result, error, cached,
+                heap != null ? heap.peak() : 0,
+                heap != null ? heap.live() : 0);
+    }
+
+    /**
+     * Returns the timings of all runs, grouped by day, in the order the days
+     * were run.
+     */
+    LinkedHashMap<Integer, ArrayList<Timing>> byDay() {
+        LinkedHashMap<Integer, ArrayList<Timing>> result = new LinkedHashMap();
+        for (Timing t: timings) {
+            result.computeIfAbsent(t.day, k -> new ArrayList()).add(t);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the median of the given property over the given timings.
+     */
+    static long median(ArrayList<Timing> timings, ToLongFunction<Timing> property) {
+        return Stats.median(timings.stream().mapToLong(property).toArray());
+    }
+
+    /**
+     * Prints the timings and answers of all days that were run, plus the
+     * wall-clock time of the whole run. With several runs, the timings are
+     * the medians of all runs, and the answers are those of the last run or
+     * the first failure.
+     */
+    void report(long wall) {
+        long setup = 0;
+        long solve = 0;
+        long cpu = 0;
+        long allocated = 0;
+
+        System.out.println("Day      Setup      Solve      Total        CPU  Allocated            Part 1            Part 2");
+        System.out.println("-".repeat(94));
+
+        for (ArrayList<Timing> a: byDay().values()) {
+            Timing t = a.stream().filter(x -> x.error != null).findFirst().orElse(a.get(a.size() - 1));
+            t = new Timing(t.day, median(a, Timing::setup), median(a, Timing::solve), median(a, Timing::cpu), median(a, Timing::allocated), t.result, t.error, t.cached, median(a, Timing::peak), median(a, Timing::live));
+
+            System.out.printf("%3d %8.1fms %8.1fms %8.1fms %8.1fms %8.1fMB", t.day, t.setup / 1e6, t.solve / 1e6, (t.setup + t.solve) / 1e6, t.cpu / 1e6, t.allocated / 1e6);
+            if (t.result != null) {
+                System.out.printf(" %17d %17d", t.result.part1(), t.result.part2());
+            }
+            if (t.cached) {
+                System.out.print("  cached");
+            }
+            if (t.error != null) {
+                System.out.print("  \033[41;37mfailed\033[0m: " + t.error);
+            }
+            System.out.println();
+
+            setup += t.setup;
+            solve += t.solve;
+            cpu += t.cpu;
+            allocated += t.allocated;
+        }
+
+        System.out.println("-".repeat(94));
+        System.out.printf("All %8.1fms %8.1fms %8.1fms %8.1fms %8.1fMB\n", setup / 1e6, solve / 1e6, (setup + solve) / 1e6, cpu / 1e6, allocated / 1e6);
+        System.out.println();
+        System.out.printf("Wall-clock time: %.1fms%s%s%s\n", wall / 1e6, parallel ? " (" + threads + " threads)" : "",
+                runs > 1 ? " for " + runs + " runs" : "", warmup > 0 ? " after " + warmup + " warm-up runs" : "");
+        System.out.println();
+    }
+
+    /**
+     * Prints the distribution of the setup plus solve time of each day over
+     * all runs: minimum, median, 99th percentile and maximum.
+     */
+    void latencies() {
+        System.out.println("Day        Min     Median        P99        Max");
+        System.out.println("-".repeat(47));
+
+        for (ArrayList<Timing> a: byDay().values()) {
+            long[] totals = a.stream().mapToLong(t -> t.setup + t.solve).toArray();
+            System.out.printf("%3d %8.1fms %8.1fms %8.1fms %8.1fms%s\n", a.get(0).day, Stats.min(totals) / 1e6, Stats.median(totals) / 1e6,
+                    Stats.percentile(totals, 99) / 1e6, Stats.max(totals) / 1e6, a.get(0).cached ? "  cached" : "");
+        }
+
+        System.out.println();
+    }
+
+    /**
+     * Prints the counters of all days that were run and have any: the total
+     * over all runs, and the count per run.
+     */
+    void counters() {
+        System.out.println("Day  Counter                        Total          Per run");
+        System.out.println("-".repeat(59));
+
+        for (Counter c: Counters.all()) {
+            System.out.printf("%3d  %-20s %16d %16d\n", c.day(), c.name(), c.sum(), c.sum() / runs);
+        }
+
+        System.out.println();
+    }
+
+    /**
+     * Prints the heap usage of all days that were run: the median bytes
+     * allocated, and the largest peak and live heap over all runs. The live
+     * heap is the least a day needs, so it hints at the smallest -Xmx.
+     */
+    void heap() {
+        System.out.println("Day  Allocated  Peak heap  Live heap");
+        System.out.println("-".repeat(36));
+
+        long max = 0;
+        for (ArrayList<Timing> a: byDay().values()) {
+            long peak = a.stream().mapToLong(Timing::peak).max().orElse(0);
+            long live = a.stream().mapToLong(Timing::live).max().orElse(0);
+            max = Math.max(max, live);
+
+            System.out.printf("%3d %8.1fMB %8.1fMB %8s%s\n", a.get(0).day, median(a, Timing::allocated) / 1e6, peak / 1e6,
+                    live > 0 ? String.format("%.1fMB", live / 1e6) : "-", a.get(0).cached ? "  cached" : "");
+        }
+
+        System.out.println("-".repeat(36));
+        System.out.printf("Largest live heap %.1fMB of %.1fMB maximum heap\n", max / 1e6, Runtime.getRuntime().maxMemory() / 1e6);
+        System.out.println();
+    }
+
+    /**
+     * Returns the statistics of all days that didn't fail and weren't taken
+     * from the cache.
+     */
+    ArrayList<Baseline> baselines() {
+        ArrayList<Baseline> result = new ArrayList();
+
+        for (ArrayList<Timing> a: byDay().values()) {
+            if (a.stream().allMatch(t -> t.error == null && !t.cached)) {
+                long[] totals = a.stream().mapToLong(t -> t.setup + t.solve).toArray();
+                result.add(new Baseline(a.get(0).day, Stats.median(totals), Stats.percentile(totals, 95), median(a, Timing::allocated)));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Writes the statistics of all days to the given baseline file, one day
+     * per line. Days that aren't in this run keep their old lines.
+     */
+    void record(String file) throws IOException {
+        HashMap<Integer, Baseline> old = Files.exists(Path.of(file)) ? load(file) : new HashMap();
+        for (Baseline b: baselines()) {
+            old.put(b.day, b);
+        }
+
+        ArrayList<String> lines = new ArrayList();
+        lines.add("# day median-ns p95-ns allocated-bytes");
+        old.keySet().stream().sorted().forEach(day -> {
+            Baseline b = old.get(day);
+            lines.add(b.day + " " + b.median + " " + b.p95 + " " + b.allocated);
+        });
+
+        Files.write(Path.of(file), lines);
+
+        System.out.println("Baseline of " + runs + " runs written to " + file + ".");
+        System.out.println();
+    }
+
+    /**
+     * Reads the given baseline file.
+     */
+    static HashMap<Integer, Baseline> load(String file) throws IOException {
+        HashMap<Integer, Baseline> result = new HashMap();
+
+        for (String s: Files.readAllLines(Path.of(file))) {
+            if (!s.isBlank() && !s.startsWith("#")) {
+                String[] a = s.trim().split(" +");
+                Baseline b = new Baseline(Integer.parseInt(a[0]), Long.parseLong(a[1]), Long.parseLong(a[2]), Long.parseLong(a[3]));
+                result.put(b.day, b);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Compares the statistics of all days with the given baseline file and
+     * flags the days whose median time or allocation grew by more than the
+     * threshold. Time and allocation differences below their noise levels
+     * don't count.
+     */
+    void compare(String file) throws IOException {
+        HashMap<Integer, Baseline> old = load(file);
+
+        System.out.println("Day     Median   Baseline   Change        P95   Baseline   Change  Allocated   Baseline   Change");
+        System.out.println("-".repeat(94));
+
+        for (Baseline b: baselines()) {
+            Baseline a = old.get(b.day);
+            if (a == null) {
+                System.out.printf("%3d %8.1fms %10s %8s %8.1fms %10s %8s %8.1fMB\n", b.day, b.median / 1e6, "-", "", b.p95 / 1e6, "-", "", b.allocated / 1e6);
+                continue;
+            }
+
+            double median = Stats.change(a.median, b.median);
+            double p95 = Stats.change(a.p95, b.p95);
+            double allocated = Stats.change(a.allocated, b.allocated);
+
+            System.out.printf("%3d %8.1fms %8.1fms %+7.1f%% %8.1fms %8.1fms %+7.1f%% %8.1fMB %8.1fMB %+7.1f%%",
+                    b.day, b.median / 1e6, a.median / 1e6, median, b.p95 / 1e6, a.p95 / 1e6, p95, b.allocated / 1e6, a.allocated / 1e6, allocated);
+            if (median > threshold && b.median - a.median > NOISE || allocated > threshold && b.allocated - a.allocated > ALLOCATION_NOISE) {
+                System.out.print("  \033[41;37mregressed\033[0m");
+                regressed = true;
+            }
+            System.out.println();
+        }
+
+        System.out.println();
+        System.out.printf("Compared %d runs with %s, threshold %.1f%%%s\n", runs, file, threshold, regressed ? ", some days regressed" : "");
+        System.out.println();
+    }
+
+    /**
+     * Runs all requested days once, in the requested mode.
+     */
+    void round() throws InterruptedException, ExecutionException {
+        if (parallel) {
+            runParallel();
+        } else {
+            runSequential();
+        }
+    }
+
+    /**
+     * Runs all requested days one after another.
+     */
+    void runSequential() {
+        for (int day: days) {
+            timings.add(run(day));
+        }
+    }
+
+    /**
+     * Runs all requested days in parallel. Each day's output is captured by
+     * its worker and printed in order after all days are done.
+     */
+    void runParallel() throws InterruptedException, ExecutionException {
+        PrintStream original = System.out;
+        Console console = new Console(original);
+
+        record Outcome(Timing timing, ByteArrayOutputStream output) { }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        ArrayList<Future<Outcome>> futures = new ArrayList();
+
+        System.setOut(console);
+        try {
+            for (int day: days) {
+                futures.add(pool.submit(() -> {
+                    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                    console.capture(buffer);
+                    try {
+                        return new Outcome(run(day), buffer);
+                    } finally {
+                        console.release();
+                    }
+                }));
+            }
+
+            for (Future<Outcome> f: futures) {
+                f.get();
+            }
+        } finally {
+            pool.shutdown();
+            System.setOut(original);
+        }
+
+        for (Future<Outcome> f: futures) {
+            Outcome o = f.get();
+            original.print(o.output);
+            timings.add(o.timing);
+        }
+    }
+
+    /**
+     * Returns the input files matching the given directory or glob pattern,
+     * sorted by name. A directory stands for all files in it. The glob only
+     * applies to the file names, so the directory part of the pattern, if
+     * any, is taken literally. Fails if no files match, so a mistyped
+     * pattern doesn't pass as an empty batch.
+     */
+    static List<Path> files(String pattern) throws IOException {
+        Path dir = Path.of(pattern);
+        PathMatcher matcher = p -> true;
+
+        if (!Files.isDirectory(dir)) {
+            matcher = FileSystems.getDefault().getPathMatcher("glob:" + dir.getFileName());
+            dir = dir.getParent() != null ? dir.getParent() : Path.of(".");
+        }
+
+        List<Path> result;
+        try (Stream<Path> s = Files.list(dir)) {
+            PathMatcher m = matcher;
+            result = s.filter(Files::isRegularFile).filter(p -> m.matches(p.getFileName())).sorted().toList();
+        }
+
+        if (result.isEmpty()) {
+            throw new IllegalArgumentException("No input files match " + pattern);
+        }
+        return result;
+    }
+
+    /**
+     * Solves all input files of the batch with the single requested day, in
+     * parallel on a pool of worker threads, and prints the answers of each
+     * file plus the overall throughput. Diagnostic output is always
+     * suppressed, since it would interleave.
+     */
+    void runBatch() throws InterruptedException, ExecutionException, IOException {
+        if (days.size() != 1) {
+            throw new IllegalArgumentException("Batch mode needs exactly one day");
+        }
+
+        int day = days.get(0);
+        List<Path> files = files(batch);
+        quiet = true;
+
+        long t = System.nanoTime();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        ArrayList<Future<Timing>> futures = new ArrayList();
+        try {
+            for (Path p: files) {
+                futures.add(pool.submit(() -> run(day, p.toString())));
+            }
+
+            for (Future<Timing> f: futures) {
+                f.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        long wall = System.nanoTime() - t;
+
+        System.out.printf("Day %02d %40s %10s %17s %17s\n", day, "File", "Time", "Part 1", "Part 2");
+        System.out.println("-".repeat(94));
+
+        long bytes = 0;
+        int failed = 0;
+        for (int i = 0; i < files.size(); i++) {
+            Path p = files.get(i);
+            Timing timing = futures.get(i).get();
+            bytes += Files.size(p);
+
+            String name = p.toString();
+            if (name.length() > 47) {
+                name = "..." + name.substring(name.length() - 44);
+            }
+
+            System.out.printf("%47s %8.1fms", name, (timing.setup + timing.solve) / 1e6);
+            if (timing.result != null) {
+                System.out.printf(" %17d %17d", timing.result.part1(), timing.result.part2());
+            }
+            if (timing.cached) {
+                System.out.print("  cached");
+            }
+            if (timing.error != null) {
+                System.out.print("  \033[41;37mfailed\033[0m: " + timing.error);
+                failed++;
+            }
+            System.out.println();
+        }
+
+        System.out.println("-".repeat(94));
+        System.out.printf("%d files (%d failed), %.1fMB in %.1fms with %d threads: %.1f files/s, %.1fMB/s\n",
+                files.size(), failed, bytes / 1e6, wall / 1e6, threads, files.size() / (wall / 1e9), bytes / 1e6 / (wall / 1e9));
+        System.out.println();
+    }
+
+    /**
+     * Prints a summary of the phase events in the given flight recording,
+     * grouped by day and phase, in the order they first occurred.
+     */
+    void phases(Path file) throws IOException {
+        record Summary(int day, String phase, long count, long nanos, long items, long allocated) {
+
+            Summary add(RecordedEvent e) {
+                return new Summary(day, phase, count + 1, nanos + e.getDuration().toNanos(),
+                        items + e.getLong("items"), allocated + e.getLong("allocated"));
+            }
+        }
+
+        List<RecordedEvent> events = new ArrayList();
+        for (RecordedEvent e: RecordingFile.readAllEvents(file)) {
+            if ("aoc.Phase".equals(e.getEventType().getName())) {
+                events.add(e);
+            }
+        }
+
+        events.sort(Comparator.comparing(RecordedEvent::getStartTime));
+
+        LinkedHashMap<String, Summary> summaries = new LinkedHashMap();
+        for (RecordedEvent e: events) {
+            int day = e.getInt("day");
+            String phase = e.getString("phase");
+            summaries.merge(day + " " + phase, new Summary(day, phase, 0, 0, 0, 0).add(e), (a, b) -> a.add(e));
+        }
+
+        System.out.println("Day  Phase                Count       Time           Items  Allocated");
+        System.out.println("-".repeat(72));
+
+        for (Summary s: summaries.values()) {
+            System.out.printf("%3d  %-16s %9d %8.1fms %15d %8.1fMB\n", s.day, s.phase, s.count, s.nanos / 1e6, s.items, s.allocated / 1e6);
+        }
+
+        System.out.println();
+        if (jfr != null) {
+            System.out.println("Flight recording written to " + file + ".");
+            System.out.println();
+        }
+    }
+
+    /**
+     * Runs all requested days as often as requested, in the requested mode,
+     * and prints the report. Also takes care of the flight recording and the
+     * baseline, if requested.
+     */
+    void runAll() throws InterruptedException, ExecutionException, IOException, ParseException {
+        if (cacheDir != null) {
+            cache = new ResultCache(Path.of(cacheDir), cacheSize);
+        }
+
+        if (batch != null) {
+            runBatch();
+            return;
+        }
+
+        if (sweep) {
+            new Sweep(this).sweep();
+            return;
+        }
+
+        if (memory) {
+            if (parallel) {
+                throw new IllegalArgumentException("Heap usage can't be told apart when days run in parallel");
+            }
+            heap = new Memory();
+        }
+
+        // Warm-up runs are neither timed nor recorded
+        for (int i = 0; i < warmup; i++) {
+            round();
+        }
+        timings.clear();
+        Counters.reset();
+
+        // Memory tracking needs only the phase events, for their allocation
+        Recording recording = null;
+        Path file = null;
+        if (jfr != null) {
+            recording = new Recording(Configuration.getConfiguration("profile"));
+            file = Path.of(jfr);
+        } else if (memory) {
+            recording = new Recording();
+            file = Files.createTempFile("aoc-", ".jfr");
+        }
+
+        if (recording != null) {
+            Phase.enable(true);
+            recording.enable("aoc.Phase");
+            recording.start();
+        }
+
+        long t = System.nanoTime();
+
+        for (int i = 0; i < runs; i++) {
+            round();
+        }
+
+        long wall = System.nanoTime() - t;
+
+        if (recording != null) {
+            recording.stop();
+            recording.dump(file);
+            recording.close();
+            Phase.enable(false);
+        }
+
+        report(wall);
+
+        if (runs > 1) {
+            latencies();
+        }
+
+        if (memory) {
+            heap();
+        }
+
+        if (Counters.enabled()) {
+            counters();
+        }
+
+        if (recording != null) {
+            phases(file);
+        }
+
+        if (jfr == null && file != null) {
+            Files.delete(file);
+        }
+
+        if (compare != null) {
+            compare(compare);
+        }
+
+        if (record != null) {
+            record(record);
+        }
+    }
+
+    /**
+     * Provides the canonical entry point.
+     */
+    public static void main(String[] args) throws InterruptedException, ExecutionException, IOException, ParseException {
+        Launcher l = new Launcher();
+        l.parse(args);
+        l.runAll();
+
+        if (l.regressed) {
+            System.exit(1);
+        }
+    }
+}
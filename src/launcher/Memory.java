@@ -0,0 +1,94 @@
+package launcher;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+/**
+ * Tracks the heap while days run, through the JVM's memory pools and garbage
+ * collectors. The peak is the sum of the peak usages of all heap pools, which
+ * includes garbage and is an upper bound, since the pools may peak at
+ * different times. The live peak is the largest heap usage right after a
+ * garbage collection, which approximates the largest live set and is what a
+ * day needs at least. It is 0 if no collection happened while the day ran.
+ * Only meaningful when a single day runs at a time, since the heap is shared.
+ */
+class Memory implements NotificationListener {
+
+    /**
+     * The pools that make up the heap.
+     */
+    static final List<MemoryPoolMXBean> POOLS = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(p -> p.getType() == MemoryType.HEAP)
+            .toList();
+
+    /**
+     * The largest heap usage after a garbage collection since the last reset.
+     */
+    final AtomicLong live = new AtomicLong();
+
+    /**
+     * Creates a tracker and registers it with all garbage collectors.
+     */
+    Memory() {
+        for (GarbageCollectorMXBean gc: ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter e) {
+                e.addNotificationListener(this, null, null);
+            }
+        }
+    }
+
+    /**
+     * Collects the garbage of previous days and starts tracking anew.
+     */
+    void reset() {
+        System.gc();
+        live.set(0);
+
+        for (MemoryPoolMXBean p: POOLS) {
+            p.resetPeakUsage();
+        }
+    }
+
+    /**
+     * Returns the sum of the peak usages of all heap pools since the last
+     * reset, in bytes.
+     */
+    long peak() {
+        return POOLS.stream().mapToLong(p -> p.getPeakUsage().getUsed()).sum();
+    }
+
+    /**
+     * Returns the largest heap usage after a garbage collection since the
+     * last reset, in bytes.
+     */
+    long live() {
+        return live.get();
+    }
+
+    @Override
+    public void handleNotification(Notification notification, Object handback) {
+        if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+
+            long used = 0;
+            for (MemoryPoolMXBean p: POOLS) {
+                MemoryUsage u = info.getGcInfo().getMemoryUsageAfterGc().get(p.getName());
+                if (u != null) {
+                    used += u.getUsed();
+                }
+            }
+
+            live.accumulateAndGet(used, Math::max);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package launcher;
+
+import common.Input;
+import common.Result;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * Remembers the answers of days on disk, so unchanged inputs don't have to be
+ * solved again. The key is a SHA-256 hash of the day, the class files of the
+ * day's package and of the common package, and the input, so changing either
+ * the code or the input leads to a miss. Each entry is a small file named
+ * after its key. Hits update the file's modification time, and when there
+ * are more entries than the limit, the least recently used ones are evicted.
+ * Entries are written to a temporary file first and then moved into place,
+ * so concurrent readers see either the whole entry or none, and an entry
+ * that is missing or can't be read is simply a miss. Input coming from
+ * standard input can't be hashed without consuming it, so it isn't cached.
+ */
+class ResultCache {
+
+    /**
+     * The size of the buffer the input is hashed through.
+     */
+    static final int BUFFER = 1 << 16;
+
+    /**
+     * The suffix of entries still being written.
+     */
+    static final String TEMP = ".tmp";
+
+    /**
+     * The directory of the entries.
+     */
+    final Path dir;
+
+    /**
+     * The maximum number of entries.
+     */
+    final int limit;
+
+    /**
+     * The hashes of the class files of the packages seen so far.
+     */
+    final ConcurrentHashMap<String, byte[]> versions = new ConcurrentHashMap();
+
+    /**
+     * Creates a cache in the given directory, holding at most the given
+     * number of entries.
+     */
+    ResultCache(Path dir, int limit) throws IOException {
+        this.dir = dir;
+        this.limit = limit;
+        Files.createDirectories(dir);
+    }
+
+    /**
+     * Returns the hash of the class files of the given package, which lives
+     * in the same directory or jar as the given class.
+     */
+    byte[] version(Class<?> c, String pkg) throws IOException {
+        byte[] version = versions.get(pkg);
+        if (version != null) {
+            return version;
+        }
+
+        MessageDigest md = digest();
+        try {
+            Path location = Path.of(c.getProtectionDomain().getCodeSource().getLocation().toURI());
+
+            if (Files.isDirectory(location)) {
+                try (Stream<Path> s = Files.list(location.resolve(pkg))) {
+                    for (Path p: s.filter(p -> p.toString().endsWith(".class")).sorted().toList()) {
+                        md.update(p.getFileName().toString().getBytes());
+                        md.update(Files.readAllBytes(p));
+                    }
+                }
+            } else {
+                try (JarFile jar = new JarFile(location.toFile())) {
+                    List<JarEntry> entries = jar.stream()
+                            .filter(e -> e.getName().startsWith(pkg + "/") && e.getName().endsWith(".class"))
+                            .sorted(Comparator.comparing(JarEntry::getName))
+                            .toList();
+                    for (JarEntry e: entries) {
+                        md.update(e.getName().getBytes());
+                        try (InputStream in = jar.getInputStream(e)) {
+                            md.update(in.readAllBytes());
+                        }
+                    }
+                }
+            }
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+
+        version = md.digest();
+        versions.put(pkg, version);
+        return version;
+    }
+
+    /**
+     * Returns the key for solving the given file with the given class, or
+     * null if the file is standard input. The file is hashed a buffer at a
+     * time, so it can be of any size.
+     */
+    String key(int day, Class<?> c, String file) throws IOException {
+        if (Input.STDIN.equals(file)) {
+            return null;
+        }
+
+        MessageDigest md = digest();
+        md.update((byte) day);
+        md.update(version(c, c.getPackageName()));
+        md.update(version(c, "common"));
+
+        try (FileChannel channel = FileChannel.open(Path.of(file))) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER);
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                md.update(buffer);
+                buffer.clear();
+            }
+        }
+
+        return HexFormat.of().formatHex(md.digest());
+    }
+
+    /**
+     * Returns a new SHA-256 digest.
+     */
+    static MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the answers for the given key, or null if there are none. An
+     * entry evicted meanwhile or left damaged counts as none.
+     */
+    Result get(String key) throws IOException {
+        Path p = dir.resolve(key);
+        try {
+            String[] a = Files.readString(p).trim().split(" ");
+            Result result = new Result(Long.parseLong(a[0]), Long.parseLong(a[1]));
+            Files.setLastModifiedTime(p, FileTime.fromMillis(System.currentTimeMillis()));
+            return result;
+        } catch (NoSuchFileException | NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Stores the answers for the given key and evicts the least recently
+     * used entries, if there are too many.
+     */
+    synchronized void put(String key, Result result) throws IOException {
+        Path temp = Files.createTempFile(dir, key, TEMP);
+        Files.writeString(temp, result.part1() + " " + result.part2() + "\n");
+        Files.move(temp, dir.resolve(key), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        ArrayList<Path> entries;
+        try (Stream<Path> s = Files.list(dir)) {
+            entries = new ArrayList(s.filter(p -> !p.toString().endsWith(TEMP)).toList());
+        }
+
+        if (entries.size() > limit) {
+            ArrayList<FileTime> times = new ArrayList();
+            for (Path p: entries) {
+                try {
+                    times.add(Files.getLastModifiedTime(p));
+                } catch (NoSuchFileException e) {
+                    times.add(FileTime.fromMillis(0));
+                }
+            }
+
+            ArrayList<Integer> order = new ArrayList();
+            for (int i = 0; i < entries.size(); i++) {
+                order.add(i);
+            }
+            order.sort(Comparator.comparing(times::get));
+
+            for (int i = 0; i < entries.size() - limit; i++) {
+                Files.deleteIfExists(entries.get(order.get(i)));
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package launcher;
+
+import java.util.Arrays;
+
+/**
+ * Simple statistics over repeated measurements, like the run times of a day.
+ * Percentiles use the nearest-rank method, so they are always one of the
+ * measured values.
+ */
+class Stats {
+
+    /**
+     * Returns the smallest of the given values that is not exceeded by the
+     * given percentage of them.
+     */
+    static long percentile(long[] values, double percent) {
+        long[] a = values.clone();
+        Arrays.sort(a);
+
+        int rank = (int) Math.ceil(percent / 100 * a.length);
+        return a[Math.max(rank, 1) - 1];
+    }
+
+    /**
+     * Returns the smallest of the given values.
+     */
+    static long min(long[] values) {
+        return Arrays.stream(values).min().orElse(0);
+    }
+
+    /**
+     * Returns the largest of the given values.
+     */
+    static long max(long[] values) {
+        return Arrays.stream(values).max().orElse(0);
+    }
+
+    /**
+     * Returns the median of the given values, the lower one for an even
+     * number of values.
+     */
+    static long median(long[] values) {
+        return percentile(values, 50);
+    }
+
+    /**
+     * Returns the relative change from the given baseline to the given value
+     * in percent.
+     */
+    static double change(long baseline, long value) {
+        return baseline == 0 ? 0 : 100.0 * (value - baseline) / baseline;
+    }
+}
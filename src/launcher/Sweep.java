@@ -0,0 +1,145 @@
+package launcher;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finds the smallest maximum heap size (-Xmx) at which each day still
+ * completes, by running it in child JVMs and bisecting the heap size. A run
+ * counts as complete if the child exits normally, which it doesn't after an
+ * OutOfMemoryError or any other failure. Runs that take much longer than the
+ * one with the largest heap are killed and count as failed too, since they
+ * are usually stuck collecting garbage. The children get the same JVM
+ * options as this one, except for the heap size.
+ */
+class Sweep {
+
+    /**
+     * The smallest heap size in megabytes to try.
+     */
+    static final int MIN = 8;
+
+    /**
+     * The largest heap size in megabytes to try.
+     */
+    static final int MAX = 4096;
+
+    /**
+     * The least time in milliseconds a run may take before it is killed.
+     */
+    static final long TIMEOUT = 10000;
+
+    /**
+     * The launcher whose days and input to use.
+     */
+    Launcher launcher;
+
+    /**
+     * Creates a sweep over the days of the given launcher.
+     */
+    Sweep(Launcher launcher) {
+        this.launcher = launcher;
+    }
+
+    /**
+     * Returns the command line for running the given day in a child JVM with
+     * the given heap size in megabytes.
+     */
+    List<String> command(int day, int mb) {
+        ArrayList<String> result = new ArrayList();
+        result.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+
+        for (String s: ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (!s.startsWith("-Xmx") && !s.startsWith("-XX:MaxHeapSize")) {
+                result.add(s);
+            }
+        }
+
+        result.add("-Xmx" + mb + "M");
+        result.add("-cp");
+        result.add(System.getProperty("java.class.path"));
+        result.add(Launcher.class.getName());
+        result.add("--quiet");
+        result.add(launcher.input);
+        result.add(Integer.toString(day));
+        return result;
+    }
+
+    /**
+     * Runs the given day with the given heap size in megabytes. Returns the
+     * time it took in milliseconds, or -1 if it failed or timed out.
+     */
+    long run(int day, int mb, long timeout) throws IOException, InterruptedException {
+        long t = System.nanoTime();
+
+        Process p = new ProcessBuilder(command(day, mb))
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+
+        if (!p.waitFor(timeout, TimeUnit.MILLISECONDS)) {
+            p.destroyForcibly().waitFor();
+            return -1;
+        }
+
+        return p.exitValue() == 0 ? (System.nanoTime() - t) / 1000000 : -1;
+    }
+
+    /**
+     * Finds and prints the smallest heap size for each day.
+     */
+    void sweep() throws IOException, InterruptedException {
+        System.out.println("Day   Min heap       Time   Time at " + MAX + "MB   Runs");
+        System.out.println("-".repeat(50));
+
+        for (int day: launcher.days) {
+            if (!new File(Launcher.inputPath(day, launcher.input)).exists()) {
+                continue;
+            }
+
+            int runs = 1;
+            long reference = run(day, MAX, Long.MAX_VALUE);
+            if (reference < 0) {
+                System.out.printf("%3d  \033[41;37mfails even with %dMB\033[0m\n", day, MAX);
+                continue;
+            }
+
+            long timeout = Math.max(TIMEOUT, 10 * reference);
+
+            // Bisect between a size known to fail and one known to work,
+            // until they are within about 5% of each other
+            int lo = MIN;
+            int hi = MAX;
+            long time = run(day, MIN, timeout);
+            runs++;
+
+            if (time >= 0) {
+                hi = MIN;
+            } else {
+                time = reference;
+            }
+
+            while (hi - lo > Math.max(1, hi / 20)) {
+                int mid = (lo + hi) / 2;
+                long t = run(day, mid, timeout);
+                runs++;
+
+                if (t >= 0) {
+                    hi = mid;
+                    time = t;
+                } else {
+                    lo = mid;
+                }
+            }
+
+            System.out.printf("%3d %8dMB %8dms %12dms %6d\n", day, hi, time, reference, runs);
+        }
+
+        System.out.println();
+    }
+}
@@ -0,0 +1,77 @@
+package launcher;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enforces a time budget on the current thread: interrupts it once the
+ * budget has run out, unless it has been stopped before. Days check for the
+ * interrupt in their long loops and give up with a Cancelled exception. A
+ * single timer thread serves all watchdogs.
+ */
+class Watchdog {
+
+    /**
+     * The timer that fires the watchdogs.
+     */
+    static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "watchdog");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * The thread to interrupt.
+     */
+    final Thread thread = Thread.currentThread();
+
+    /**
+     * Reflects whether the watchdog may still fire.
+     */
+    boolean active = true;
+
+    /**
+     * Reflects whether the watchdog has fired.
+     */
+    boolean fired;
+
+    /**
+     * The pending timer task.
+     */
+    ScheduledFuture<?> task;
+
+    /**
+     * Starts watching the current thread for the given number of nanoseconds.
+     */
+    Watchdog(long nanos) {
+        task = TIMER.schedule(this::fire, nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Interrupts the thread, unless the watchdog has been stopped.
+     */
+    synchronized void fire() {
+        if (active) {
+            fired = true;
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Stops the watchdog and clears the interrupt it may have caused, so the
+     * thread can go on with other work. Must be called on the watched
+     * thread. Returns true if the budget ran out.
+     */
+    synchronized boolean stop() {
+        active = false;
+        task.cancel(false);
+
+        if (fired) {
+            Thread.interrupted();
+        }
+
+        return fired;
+    }
+}